@@ -0,0 +1,10 @@
+package fr.uga.l3miage.library.reactive.authors;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record AuthorDTO(
+        Long id,
+        @NotBlank(message = "full name of the author is mandatory")
+        String fullName
+) {
+}
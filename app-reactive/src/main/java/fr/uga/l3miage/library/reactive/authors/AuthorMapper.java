@@ -0,0 +1,11 @@
+package fr.uga.l3miage.library.reactive.authors;
+
+import fr.uga.l3miage.library.reactive.data.Author;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface AuthorMapper {
+    AuthorDTO entityToDTO(Author author);
+
+    Author dtoToEntity(AuthorDTO author);
+}
@@ -0,0 +1,121 @@
+package fr.uga.l3miage.library.reactive.authors;
+
+import fr.uga.l3miage.library.reactive.books.BookDTO;
+import fr.uga.l3miage.library.reactive.books.BooksMapper;
+import fr.uga.l3miage.library.reactive.data.Author;
+import fr.uga.l3miage.library.reactive.data.Book;
+import fr.uga.l3miage.library.reactive.paging.Paging;
+import fr.uga.l3miage.library.reactive.service.AuthorService;
+import fr.uga.l3miage.library.reactive.service.BookService;
+import fr.uga.l3miage.library.reactive.service.DeleteAuthorException;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping(value = "/api/v1", produces = "application/json")
+public class AuthorsController {
+
+    private final AuthorService authorService;
+    private final BookService bookService;
+    private final AuthorMapper authorMapper;
+    private final BooksMapper booksMapper;
+
+    @Autowired
+    public AuthorsController(AuthorService authorService, BookService bookService, AuthorMapper authorMapper, BooksMapper booksMapper) {
+        this.authorService = authorService;
+        this.bookService = bookService;
+        this.authorMapper = authorMapper;
+        this.booksMapper = booksMapper;
+    }
+
+    /**
+     * Searches are streamed as they are read, pages are bounded and collected to compute the next link
+     */
+    @GetMapping("/authors")
+    public Mono<ResponseEntity<Flux<AuthorDTO>>> authors(@RequestParam(value = "q", required = false) String query,
+                                                         @RequestParam(value = "limit", defaultValue = Paging.DEFAULT_LIMIT) int limit,
+                                                         @RequestParam(value = "after", required = false) String after,
+                                                         @RequestParam(value = "sort", defaultValue = "fullName") String sort,
+                                                         @RequestParam(value = "direction", defaultValue = "asc") String direction,
+                                                         ServerHttpRequest request) {
+        if (query != null) {
+            return Mono.just(ResponseEntity.ok(authorService.searchByName(query).map(authorMapper::entityToDTO)));
+        }
+        var order = Paging.order(sort, direction);
+        var cursor = Paging.decode(after, order);
+        Paging.limit(limit);
+        return Mono.defer(() -> authorService.list(order, cursor, limit).collectList())
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e))
+                .map(authors -> Paging.page(request, authors, order, Author::fullName, Author::id, limit,
+                        page -> page.map(authorMapper::entityToDTO)));
+    }
+
+    @GetMapping("/authors/{id}")
+    public Mono<AuthorDTO> author(@PathVariable("id") @NotNull Long id) {
+        return authorService.get(id)
+                .map(authorMapper::entityToDTO)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    @PostMapping(value = "/authors", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<AuthorDTO> newAuthor(@RequestBody @Valid AuthorDTO author) {
+        return authorService.save(authorMapper.dtoToEntity(author)).map(authorMapper::entityToDTO);
+    }
+
+    @PutMapping(value = "/authors/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<AuthorDTO> updateAuthor(@RequestBody @Valid AuthorDTO author, @NotNull @PathVariable("id") Long id) {
+        if (!id.equals(author.id())) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST));
+        }
+        return authorService.update(authorMapper.dtoToEntity(author))
+                .map(authorMapper::entityToDTO)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "author is not found")));
+    }
+
+    @DeleteMapping("/authors/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteAuthor(@PathVariable("id") @NotNull Long id) {
+        return authorService.delete(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .onErrorMap(DeleteAuthorException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e))
+                .then();
+    }
+
+    @GetMapping("/authors/{id}/books")
+    public Mono<ResponseEntity<Flux<BookDTO>>> books(@PathVariable("id") @NotNull Long authorId,
+                                                     @RequestParam(value = "limit", defaultValue = Paging.DEFAULT_LIMIT) int limit,
+                                                     @RequestParam(value = "after", required = false) String after,
+                                                     @RequestParam(value = "sort", defaultValue = "title") String sort,
+                                                     @RequestParam(value = "direction", defaultValue = "asc") String direction,
+                                                     ServerHttpRequest request) {
+        var order = Paging.order(sort, direction);
+        var cursor = Paging.decode(after, order);
+        Paging.limit(limit);
+        return Mono.defer(() -> bookService.getByAuthor(authorId, order, cursor, limit))
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e))
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .map(books -> Paging.page(request, books, order, Book::title, Book::id, limit,
+                        page -> bookService.withAuthors(page).map(booksMapper::entityToDTO)));
+    }
+
+    @PostMapping(value = "/authors/{id}/books", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BookDTO> newBook(@PathVariable("id") @NotNull Long authorId, @RequestBody @Valid BookDTO book) {
+        return Mono.fromSupplier(() -> booksMapper.dtoToEntity(book))
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e))
+                .flatMap(entity -> bookService.save(authorId, entity))
+                .map(booksMapper::entityToDTO)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+}
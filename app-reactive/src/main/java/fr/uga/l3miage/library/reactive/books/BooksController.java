@@ -0,0 +1,94 @@
+package fr.uga.l3miage.library.reactive.books;
+
+import fr.uga.l3miage.library.reactive.authors.AuthorDTO;
+import fr.uga.l3miage.library.reactive.data.Book;
+import fr.uga.l3miage.library.reactive.paging.Paging;
+import fr.uga.l3miage.library.reactive.service.BookService;
+import fr.uga.l3miage.library.reactive.service.BookWithAuthors;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping(value = "/api/v1", produces = "application/json")
+public class BooksController {
+
+    private final BookService bookService;
+    private final BooksMapper booksMapper;
+
+    @Autowired
+    public BooksController(BookService bookService, BooksMapper booksMapper) {
+        this.bookService = bookService;
+        this.booksMapper = booksMapper;
+    }
+
+    /**
+     * Searches are streamed as they are read, pages are bounded and collected to compute the next link
+     */
+    @GetMapping("/books")
+    public Mono<ResponseEntity<Flux<BookDTO>>> books(@RequestParam(value = "q", required = false) String query,
+                                                     @RequestParam(value = "limit", defaultValue = Paging.DEFAULT_LIMIT) int limit,
+                                                     @RequestParam(value = "after", required = false) String after,
+                                                     @RequestParam(value = "sort", defaultValue = "title") String sort,
+                                                     @RequestParam(value = "direction", defaultValue = "asc") String direction,
+                                                     ServerHttpRequest request) {
+        if (StringUtils.hasText(query)) {
+            return Mono.just(ResponseEntity.ok(toDTO(bookService.findByTitle(query))));
+        }
+        var order = Paging.order(sort, direction);
+        var cursor = Paging.decode(after, order);
+        Paging.limit(limit);
+        return Mono.defer(() -> bookService.list(order, cursor, limit).collectList())
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e))
+                .map(books -> Paging.page(request, books, order, Book::title, Book::id, limit, this::toDTO));
+    }
+
+    @GetMapping("/books/{id}")
+    public Mono<BookDTO> book(@PathVariable("id") @NotNull Long id) {
+        return toDTO(bookService.get(id));
+    }
+
+    @PutMapping("/books/{id}")
+    public Mono<BookDTO> updateBook(@PathVariable("id") @NotNull Long id, @RequestBody @Valid BookDTO book) {
+        if (!id.equals(book.id())) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST));
+        }
+        return Mono.fromSupplier(() -> booksMapper.dtoToEntity(book))
+                .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e))
+                .flatMap(entity -> toDTO(bookService.update(entity)));
+    }
+
+    @DeleteMapping("/books/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteBook(@PathVariable("id") @NotNull Long id) {
+        return bookService.delete(id)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .then();
+    }
+
+    @PutMapping("/books/{id}/authors")
+    public Mono<BookDTO> addAuthor(@PathVariable("id") @NotNull Long bookId, @RequestBody @Valid AuthorDTO author) {
+        if (author.id() == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST));
+        }
+        return toDTO(bookService.addAuthor(bookId, author.id()));
+    }
+
+    private Flux<BookDTO> toDTO(Flux<Book> books) {
+        return bookService.withAuthors(books).map(booksMapper::entityToDTO);
+    }
+
+    private Mono<BookDTO> toDTO(Mono<BookWithAuthors> book) {
+        return book.map(booksMapper::entityToDTO)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+}
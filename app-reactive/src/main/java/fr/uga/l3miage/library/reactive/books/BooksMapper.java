@@ -0,0 +1,29 @@
+package fr.uga.l3miage.library.reactive.books;
+
+import fr.uga.l3miage.library.reactive.authors.AuthorMapper;
+import fr.uga.l3miage.library.reactive.data.Book;
+import fr.uga.l3miage.library.reactive.service.BookWithAuthors;
+import org.mapstruct.*;
+
+@Mapper(componentModel = "spring", uses = AuthorMapper.class)
+public interface BooksMapper {
+
+    @Mapping(target = "id", source = "book.id")
+    @Mapping(target = "title", source = "book.title")
+    @Mapping(target = "isbn", source = "book.isbn")
+    @Mapping(target = "publisher", source = "book.publisher")
+    @Mapping(target = "year", source = "book.year")
+    @Mapping(target = "language", source = "book.language")
+    BookDTO entityToDTO(BookWithAuthors book);
+
+    Book dtoToEntity(BookDTO book);
+
+    @EnumMapping(nameTransformationStrategy = "case", configuration = "lower")
+    String enumToString(Book.Language language);
+
+    @InheritInverseConfiguration
+    @ValueMapping(source = MappingConstants.NULL, target = "FRENCH")
+    @ValueMapping(source = "", target = "FRENCH")
+    Book.Language stringToEnum(String language);
+
+}
@@ -0,0 +1,14 @@
+package fr.uga.l3miage.library.reactive.data;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("author")
+public record Author(
+        @Id
+        Long id,
+        @Column("full_name")
+        String fullName
+) {
+}
@@ -0,0 +1,28 @@
+package fr.uga.l3miage.library.reactive.data;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface AuthorRepository extends ReactiveCrudRepository<Author, Long> {
+
+    /**
+     * Searches authors by name (or part of it), ignoring case
+     */
+    Flux<Author> findByFullNameContainingIgnoreCaseOrderByFullName(String namePart);
+
+    /**
+     * @return the number of books of the author written with another author
+     */
+    @Query("SELECT COUNT(*) FROM author_books ab JOIN author_books co ON co.books_id = ab.books_id AND co.authors_id <> ab.authors_id WHERE ab.authors_id = :authorId")
+    Mono<Long> countCoAuthoredBooks(Long authorId);
+
+    /**
+     * Adds a book to an author, unless it is already one of its books
+     */
+    @Modifying
+    @Query("INSERT INTO author_books (authors_id, books_id) SELECT :authorId, :bookId WHERE NOT EXISTS (SELECT 1 FROM author_books WHERE authors_id = :authorId AND books_id = :bookId)")
+    Mono<Integer> link(Long authorId, Long bookId);
+}
@@ -0,0 +1,27 @@
+package fr.uga.l3miage.library.reactive.data;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * A book row. Unlike the JPA entity, it does not hold its authors: they are loaded by chunks of books, see
+ * {@link CatalogQueries#authorsOf(java.util.Collection)}.
+ */
+@Table("book")
+public record Book(
+        @Id
+        Long id,
+        String title,
+        long isbn,
+        String publisher,
+        @Column("annee")
+        short year,
+        Language language
+) {
+
+    public enum Language {
+        FRENCH,
+        ENGLISH
+    }
+}
@@ -0,0 +1,7 @@
+package fr.uga.l3miage.library.reactive.data;
+
+/**
+ * One row of the author/book association, with the author loaded
+ */
+public record BookAuthor(Long bookId, Author author) {
+}
@@ -0,0 +1,22 @@
+package fr.uga.l3miage.library.reactive.data;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface BookRepository extends ReactiveCrudRepository<Book, Long> {
+
+    /**
+     * Searches books by title (or part of it), ignoring case
+     */
+    Flux<Book> findByTitleContainingIgnoreCaseOrderByTitle(String titlePart);
+
+    /**
+     * Deletes all books of an author, their links to authors are deleted by cascade
+     */
+    @Modifying
+    @Query("DELETE FROM book WHERE id IN (SELECT books_id FROM author_books WHERE authors_id = :authorId)")
+    Mono<Integer> deleteByAuthor(Long authorId);
+}
@@ -0,0 +1,106 @@
+package fr.uga.l3miage.library.reactive.data;
+
+import fr.uga.l3miage.library.reactive.paging.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Queries the derived repository methods cannot express: keyset pages and the authors of a chunk of books.
+ * <p>
+ * Pages follow the same rules as the {@code Keyset} queries of the JPA repositories: sorted on a key column then on
+ * the id, seeking after the key and id of the last row of the previous page.
+ */
+@Repository
+public class CatalogQueries {
+
+    private static final Map<String, String> AUTHOR_KEYS = Map.of("fullName", "full_name", "id", "id");
+    private static final Map<String, String> BOOK_KEYS = Map.of("title", "title", "id", "id");
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    @Autowired
+    public CatalogQueries(DatabaseClient databaseClient, R2dbcConverter converter) {
+        this.databaseClient = databaseClient;
+        this.converter = converter;
+    }
+
+    public Flux<Author> authors(Sort.Order order, Cursor after, int limit) {
+        return page(Author.class, "author t", null, null, AUTHOR_KEYS, order, after, limit);
+    }
+
+    public Flux<Book> books(Sort.Order order, Cursor after, int limit) {
+        return page(Book.class, "book t", null, null, BOOK_KEYS, order, after, limit);
+    }
+
+    public Flux<Book> booksOf(Long authorId, Sort.Order order, Cursor after, int limit) {
+        return page(Book.class, "book t JOIN author_books ab ON ab.books_id = t.id", "ab.authors_id = :authorId",
+                authorId, BOOK_KEYS, order, after, limit);
+    }
+
+    /**
+     * Loads the authors of several books with a single query
+     */
+    public Flux<BookAuthor> authorsOf(Collection<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql("SELECT ab.books_id, a.id, a.full_name FROM author_books ab JOIN author a ON a.id = ab.authors_id WHERE ab.books_id IN (:bookIds) ORDER BY a.full_name, a.id")
+                .bind("bookIds", bookIds)
+                .map(row -> new BookAuthor(row.get("books_id", Long.class),
+                        new Author(row.get("id", Long.class), row.get("full_name", String.class))))
+                .all();
+    }
+
+    private <T> Flux<T> page(Class<T> type, String from, String where, Long authorId, Map<String, String> keys,
+                             Sort.Order order, Cursor after, int limit) {
+        String key = keys.get(order.getProperty());
+        if (key == null) {
+            throw new IllegalArgumentException("cannot sort on " + order.getProperty());
+        }
+        boolean byId = "id".equals(key);
+        if (!byId && after != null && after.key() == null) {
+            throw new IllegalArgumentException("no " + order.getProperty() + " to seek after");
+        }
+        String direction = order.isAscending() ? "ASC" : "DESC";
+        String comparison = order.isAscending() ? ">" : "<";
+
+        StringBuilder sql = new StringBuilder("SELECT t.* FROM ").append(from).append(" WHERE 1 = 1");
+        if (where != null) {
+            sql.append(" AND ").append(where);
+        }
+        if (after != null) {
+            if (byId) {
+                sql.append(" AND t.id ").append(comparison).append(" :afterId");
+            } else {
+                sql.append(" AND t.").append(key).append(' ').append(comparison).append("= :afterKey")
+                        .append(" AND (t.").append(key).append(' ').append(comparison).append(" :afterKey")
+                        .append(" OR t.id ").append(comparison).append(" :afterId)");
+            }
+        }
+        sql.append(" ORDER BY ");
+        if (!byId) {
+            sql.append("t.").append(key).append(' ').append(direction).append(", ");
+        }
+        sql.append("t.id ").append(direction).append(" LIMIT :limit");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("limit", limit);
+        if (authorId != null) {
+            spec = spec.bind("authorId", authorId);
+        }
+        if (after != null) {
+            spec = spec.bind("afterId", after.id());
+            if (!byId) {
+                spec = spec.bind("afterKey", after.key());
+            }
+        }
+        return spec.map((row, metadata) -> converter.read(type, row, metadata)).all();
+    }
+}
@@ -0,0 +1,7 @@
+package fr.uga.l3miage.library.reactive.paging;
+
+/**
+ * Position of the last row of a page: the value of the sort key, null when sorting on id, and the id
+ */
+public record Cursor(String key, Long id) {
+}
@@ -0,0 +1,103 @@
+package fr.uga.l3miage.library.reactive.paging;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers for cursor based list endpoints, with the same parameters, cursors and {@code Link} header as the servlet
+ * application so that clients can switch from one to the other.
+ */
+public final class Paging {
+
+    public static final String DEFAULT_LIMIT = "100";
+    public static final int MAX_LIMIT = 1000;
+
+    private static final char SEPARATOR = ':';
+
+    private Paging() {
+        // to hide the public one
+    }
+
+    public static Sort.Order order(String sort, String direction) {
+        try {
+            return new Sort.Order(Sort.Direction.fromString(direction), sort);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid sort direction", e);
+        }
+    }
+
+    public static int limit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    public static String encode(Cursor cursor) {
+        String raw = cursor.id() + (cursor.key() == null ? "" : SEPARATOR + cursor.key());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor the cursor of the previous page, null for the first one
+     * @param order  the order of the requested page, a cursor without sort key being only valid for an order on id
+     */
+    public static Cursor decode(String cursor, Sort.Order order) {
+        if (cursor == null) {
+            return null;
+        }
+        Cursor decoded;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            decoded = separator < 0
+                    ? new Cursor(null, Long.parseLong(raw))
+                    : new Cursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor", e);
+        }
+        if (decoded.key() == null && !"id".equals(order.getProperty())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cursor without sort key, not sorted on id");
+        }
+        return decoded;
+    }
+
+    /**
+     * Wraps a page in a response, adding a next link when the page is full.
+     * A page is at most {@link #MAX_LIMIT} rows, it is collected so that the link can be computed before the body is
+     * written.
+     *
+     * @param request  the current request, whose uri is reused for the next link
+     * @param entities the page as loaded
+     * @param order    the order the page was loaded with
+     * @param key      getter of the sort key, ignored when sorting on id
+     * @param id       getter of the id
+     * @param limit    the requested page size
+     * @param mapper   entity to DTO mapping of the body
+     */
+    public static <E, T> ResponseEntity<Flux<T>> page(ServerHttpRequest request, List<E> entities, Sort.Order order,
+                                                      Function<E, String> key, Function<E, Long> id, int limit,
+                                                      Function<Flux<E>, Flux<T>> mapper) {
+        var response = ResponseEntity.ok();
+        if (entities.size() == limit) {
+            E last = entities.get(entities.size() - 1);
+            String lastKey = "id".equals(order.getProperty()) ? null : key.apply(last);
+            String next = UriComponentsBuilder.fromHttpRequest(request)
+                    .replaceQueryParam("after", encode(new Cursor(lastKey, id.apply(last))))
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<%s>; rel=\"next\"".formatted(next));
+        }
+        return response.body(mapper.apply(Flux.fromIterable(entities)));
+    }
+}
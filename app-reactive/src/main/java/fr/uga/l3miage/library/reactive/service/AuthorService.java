@@ -0,0 +1,75 @@
+package fr.uga.l3miage.library.reactive.service;
+
+import fr.uga.l3miage.library.reactive.data.Author;
+import fr.uga.l3miage.library.reactive.data.AuthorRepository;
+import fr.uga.l3miage.library.reactive.data.BookRepository;
+import fr.uga.l3miage.library.reactive.data.CatalogQueries;
+import fr.uga.l3miage.library.reactive.paging.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Same rules as the blocking services: a missing author is an empty {@link Mono} rather than an exception.
+ */
+@Service
+@Transactional
+public class AuthorService {
+
+    private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+    private final CatalogQueries catalogQueries;
+
+    @Autowired
+    public AuthorService(AuthorRepository authorRepository, BookRepository bookRepository, CatalogQueries catalogQueries) {
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+        this.catalogQueries = catalogQueries;
+    }
+
+    @Transactional(readOnly = true)
+    public Flux<Author> list(Sort.Order order, Cursor after, int limit) {
+        return catalogQueries.authors(order, after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public Flux<Author> searchByName(String namePart) {
+        return authorRepository.findByFullNameContainingIgnoreCaseOrderByFullName(namePart);
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<Author> get(Long id) {
+        return authorRepository.findById(id);
+    }
+
+    public Mono<Author> save(Author author) {
+        return authorRepository.save(new Author(null, author.fullName()));
+    }
+
+    /**
+     * @return the updated author, or empty if it does not exist
+     */
+    public Mono<Author> update(Author author) {
+        return authorRepository.existsById(author.id())
+                .filter(Boolean::booleanValue)
+                .flatMap(exists -> authorRepository.save(author));
+    }
+
+    /**
+     * Deletes an author and all of its books
+     *
+     * @return the deleted author, empty if it does not exist or an error if one of its books is co-authored
+     */
+    public Mono<Author> delete(Long id) {
+        return authorRepository.findById(id)
+                .flatMap(author -> authorRepository.countCoAuthoredBooks(id)
+                        .flatMap(coAuthored -> coAuthored > 0
+                                ? Mono.error(new DeleteAuthorException("cannot delete author, one or several books are co-authored"))
+                                : bookRepository.deleteByAuthor(id)
+                                .then(authorRepository.delete(author))
+                                .thenReturn(author)));
+    }
+}
@@ -0,0 +1,129 @@
+package fr.uga.l3miage.library.reactive.service;
+
+import fr.uga.l3miage.library.reactive.data.AuthorRepository;
+import fr.uga.l3miage.library.reactive.data.Book;
+import fr.uga.l3miage.library.reactive.data.BookAuthor;
+import fr.uga.l3miage.library.reactive.data.BookRepository;
+import fr.uga.l3miage.library.reactive.data.CatalogQueries;
+import fr.uga.l3miage.library.reactive.paging.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Same rules as the blocking services: a missing book or author is an empty {@link Mono} rather than an exception.
+ */
+@Service
+@Transactional
+public class BookService {
+
+    /**
+     * Number of books whose authors are loaded with one query
+     */
+    static final int AUTHORS_CHUNK = 100;
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final CatalogQueries catalogQueries;
+
+    @Autowired
+    public BookService(BookRepository bookRepository, AuthorRepository authorRepository, CatalogQueries catalogQueries) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.catalogQueries = catalogQueries;
+    }
+
+    @Transactional(readOnly = true)
+    public Flux<Book> list(Sort.Order order, Cursor after, int limit) {
+        return catalogQueries.books(order, after, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public Flux<Book> findByTitle(String titlePart) {
+        return bookRepository.findByTitleContainingIgnoreCaseOrderByTitle(titlePart);
+    }
+
+    /**
+     * @return one page of the books of the author, or empty if the author does not exist
+     */
+    @Transactional(readOnly = true)
+    public Mono<List<Book>> getByAuthor(Long authorId, Sort.Order order, Cursor after, int limit) {
+        return authorRepository.existsById(authorId)
+                .filter(Boolean::booleanValue)
+                .flatMap(exists -> catalogQueries.booksOf(authorId, order, after, limit).collectList());
+    }
+
+    @Transactional(readOnly = true)
+    public Mono<BookWithAuthors> get(Long id) {
+        return withAuthors(bookRepository.findById(id));
+    }
+
+    /**
+     * Loads the authors of the books, by chunks of {@value #AUTHORS_CHUNK} books so that a long stream of books
+     * neither runs one query per book nor waits for the last book. Books are emitted in the same order.
+     * <p>
+     * The write methods of this service return their book through this method, within their own transaction: a
+     * caller reading the authors afterwards could otherwise run before the commit.
+     */
+    @Transactional(readOnly = true)
+    public Flux<BookWithAuthors> withAuthors(Flux<Book> books) {
+        return books.buffer(AUTHORS_CHUNK)
+                .concatMap(chunk -> catalogQueries.authorsOf(chunk.stream().map(Book::id).toList())
+                        .collectMultimap(BookAuthor::bookId, BookAuthor::author)
+                        .flatMapIterable(authors -> chunk.stream()
+                                .map(book -> new BookWithAuthors(book, List.copyOf(authors.getOrDefault(book.id(), List.of()))))
+                                .toList()));
+    }
+
+    private Mono<BookWithAuthors> withAuthors(Mono<Book> book) {
+        // waits for completion rather than cancelling after the first element, which would roll the transaction back
+        return withAuthors(book.flux()).singleOrEmpty();
+    }
+
+    /**
+     * Saves a book and adds it to an author
+     *
+     * @return the saved book, or empty if the author does not exist
+     */
+    public Mono<BookWithAuthors> save(Long authorId, Book book) {
+        return withAuthors(authorRepository.existsById(authorId)
+                .filter(Boolean::booleanValue)
+                .flatMap(exists -> bookRepository.save(withId(book, null)))
+                .flatMap(saved -> authorRepository.link(authorId, saved.id()).thenReturn(saved)));
+    }
+
+    /**
+     * @return the updated book, or empty if it does not exist
+     */
+    public Mono<BookWithAuthors> update(Book book) {
+        return withAuthors(bookRepository.existsById(book.id())
+                .filter(Boolean::booleanValue)
+                .flatMap(exists -> bookRepository.save(book)));
+    }
+
+    /**
+     * @return the deleted book, or empty if it does not exist
+     */
+    public Mono<Book> delete(Long id) {
+        return bookRepository.findById(id)
+                .flatMap(book -> bookRepository.delete(book).thenReturn(book));
+    }
+
+    /**
+     * @return the book, or empty if either the book or the author does not exist
+     */
+    public Mono<BookWithAuthors> addAuthor(Long bookId, Long authorId) {
+        return withAuthors(bookRepository.findById(bookId)
+                .zipWith(authorRepository.findById(authorId))
+                .flatMap(found -> authorRepository.link(authorId, bookId).thenReturn(found.getT1())));
+    }
+
+    private static Book withId(Book book, Long id) {
+        return new Book(id, book.title(), book.isbn(), book.publisher(), book.year(), book.language());
+    }
+}
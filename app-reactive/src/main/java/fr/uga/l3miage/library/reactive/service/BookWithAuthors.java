@@ -0,0 +1,9 @@
+package fr.uga.l3miage.library.reactive.service;
+
+import fr.uga.l3miage.library.reactive.data.Author;
+import fr.uga.l3miage.library.reactive.data.Book;
+
+import java.util.List;
+
+public record BookWithAuthors(Book book, List<Author> authors) {
+}
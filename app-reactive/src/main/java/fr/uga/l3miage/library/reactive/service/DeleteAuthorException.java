@@ -0,0 +1,11 @@
+package fr.uga.l3miage.library.reactive.service;
+
+/**
+ * Raised when deleting an author having co-authored books
+ */
+public class DeleteAuthorException extends RuntimeException {
+
+    public DeleteAuthorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+-- same tables as the JPA mapping of the data module, with identity ids and cascading links
+CREATE TABLE IF NOT EXISTS author
+(
+    id        BIGINT AUTO_INCREMENT PRIMARY KEY,
+    full_name VARCHAR(50)
+);
+CREATE INDEX IF NOT EXISTS author_full_name_id_idx ON author (full_name, id);
+
+CREATE TABLE IF NOT EXISTS book
+(
+    id        BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title     VARCHAR(255) NOT NULL,
+    isbn      BIGINT       NOT NULL,
+    publisher VARCHAR(255),
+    annee     SMALLINT,
+    language  VARCHAR(255)
+);
+CREATE INDEX IF NOT EXISTS book_title_id_idx ON book (title, id);
+
+CREATE TABLE IF NOT EXISTS author_books
+(
+    authors_id BIGINT NOT NULL REFERENCES author (id) ON DELETE CASCADE,
+    books_id   BIGINT NOT NULL REFERENCES book (id) ON DELETE CASCADE,
+    PRIMARY KEY (authors_id, books_id)
+);
+CREATE INDEX IF NOT EXISTS author_books_books_id_idx ON author_books (books_id);
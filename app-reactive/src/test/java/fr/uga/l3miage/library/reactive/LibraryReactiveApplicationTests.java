@@ -0,0 +1,112 @@
+package fr.uga.l3miage.library.reactive;
+
+import fr.uga.l3miage.library.reactive.authors.AuthorDTO;
+import fr.uga.l3miage.library.reactive.books.BookDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LibraryReactiveApplicationTests {
+
+    @Autowired
+    WebTestClient client;
+
+    @Test
+    void authorsAndBooks() {
+        AuthorDTO hugo = newAuthor("Victor Hugo");
+        AuthorDTO dumas = newAuthor("Alexandre Dumas");
+
+        BookDTO miserables = newBook(hugo.id(), "Les Misérables");
+        BookDTO mousquetaires = newBook(dumas.id(), "Les Trois Mousquetaires");
+        assertThat(miserables.authors()).containsExactly(hugo);
+        assertThat(miserables.language()).isEqualTo("french");
+
+        client.get().uri("/api/v1/books?q=MISÉ")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BookDTO.class).isEqualTo(List.of(miserables));
+
+        client.put().uri("/api/v1/books/{id}/authors", mousquetaires.id())
+                .bodyValue(hugo)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BookDTO.class)
+                .value(book -> assertThat(book.authors()).containsExactlyInAnyOrder(hugo, dumas));
+
+        // co-authored books forbid the deletion
+        client.delete().uri("/api/v1/authors/{id}", dumas.id())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        client.get().uri("/api/v1/authors/{id}/books", hugo.id())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BookDTO.class).hasSize(2);
+    }
+
+    @Test
+    void pages() {
+        for (int i = 0; i < 5; i++) {
+            newAuthor("Page " + i);
+        }
+
+        var first = client.get().uri("/api/v1/authors?limit=2&sort=id&direction=desc")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.LINK)
+                .expectBodyList(AuthorDTO.class).hasSize(2)
+                .returnResult();
+        String link = first.getResponseHeaders().getFirst(HttpHeaders.LINK);
+        String next = link.substring(link.indexOf('<') + 1, link.indexOf('>'));
+
+        List<AuthorDTO> second = client.get().uri(next)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(AuthorDTO.class).hasSize(2)
+                .returnResult().getResponseBody();
+        assertThat(second.get(0).id()).isLessThan(first.getResponseBody().get(1).id());
+
+        client.get().uri("/api/v1/authors?sort=birth")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void notFound() {
+        client.get().uri("/api/v1/books/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound();
+        client.post().uri("/api/v1/authors/{id}/books", Long.MAX_VALUE)
+                .bodyValue(new BookDTO(null, "Nowhere", 1234567890L, null, (short) 2000, null, null))
+                .exchange()
+                .expectStatus().isNotFound();
+        client.delete().uri("/api/v1/authors/{id}", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private AuthorDTO newAuthor(String fullName) {
+        return client.post().uri("/api/v1/authors")
+                .bodyValue(new AuthorDTO(null, fullName))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(AuthorDTO.class)
+                .returnResult().getResponseBody();
+    }
+
+    private BookDTO newBook(Long authorId, String title) {
+        return client.post().uri("/api/v1/authors/{id}/books", authorId)
+                .bodyValue(new BookDTO(null, title, 9782266199261L, "Pocket", (short) 2009, "french", null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(BookDTO.class)
+                .returnResult().getResponseBody();
+    }
+}
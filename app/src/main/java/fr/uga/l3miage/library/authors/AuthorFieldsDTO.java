@@ -0,0 +1,13 @@
+package fr.uga.l3miage.library.authors;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * An author reduced to the fields requested with {@code fields=}, the others are left out of the body.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuthorFieldsDTO(
+        Long id,
+        String fullName
+) {
+}
@@ -1,6 +1,7 @@
 package fr.uga.l3miage.library.authors;
 
 import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.repo.AuthorFields;
 import org.mapstruct.Mapper;
 
 import java.util.Collection;
@@ -14,4 +15,8 @@ public interface AuthorMapper {
     Author dtoToEntity(AuthorDTO author);
 
     Collection<Author> dtoToEntity(Iterable<AuthorDTO> authors);
+
+    AuthorFieldsDTO fieldsToDTO(AuthorFields author);
+
+    Collection<AuthorFieldsDTO> fieldsToDTO(Iterable<AuthorFields> authors);
 }
\ No newline at end of file
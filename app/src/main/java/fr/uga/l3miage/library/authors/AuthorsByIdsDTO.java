@@ -0,0 +1,13 @@
+package fr.uga.l3miage.library.authors;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The authors of a list of ids, in the requested order, and the ids having no author.
+ */
+public record AuthorsByIdsDTO(
+        Collection<AuthorDTO> authors,
+        List<Long> missing
+) {
+}
@@ -1,81 +1,147 @@
 package fr.uga.l3miage.library.authors;
 
 import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.repo.AuthorFields;
 import fr.uga.l3miage.library.books.BookDTO;
 import fr.uga.l3miage.library.books.BooksMapper;
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.etag.ETags;
+import fr.uga.l3miage.library.formats.Formats;
+import fr.uga.l3miage.library.paging.Paging;
 import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookService;
 import fr.uga.l3miage.library.service.DeleteAuthorException;
 import fr.uga.l3miage.library.service.EntityNotFoundException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import org.apache.logging.log4j.util.Strings;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Collection;
+import java.util.List;
 
 @RestController
-@RequestMapping(value = "/api/v1", produces = "application/json")
+@RequestMapping(value = "/api/v1", produces = {Formats.JSON, Formats.CBOR, Formats.SMILE, Formats.PROTOBUF})
 public class AuthorsController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final AuthorService authorService;
+    private final BookService bookService;
     private final AuthorMapper authorMapper;
     private final BooksMapper booksMapper;
 
     @Autowired
-    public AuthorsController(AuthorService authorService, AuthorMapper authorMapper, BooksMapper booksMapper) {
+    public AuthorsController(AuthorService authorService, BookService bookService, AuthorMapper authorMapper, BooksMapper booksMapper) {
         this.authorService = authorService;
+        this.bookService = bookService;
         this.authorMapper = authorMapper;
         this.booksMapper = booksMapper;
     }
 
     @GetMapping("/authors")
-    public Collection<AuthorDTO> authors(@RequestParam(value = "q", required = false) String query) {
-        Collection<Author> authors;
+    public ResponseEntity<Collection<AuthorDTO>> authors(@RequestParam(value = "q", required = false) String query,
+                                                         @RequestParam(value = "limit", defaultValue = Paging.DEFAULT_LIMIT) int limit,
+                                                         @RequestParam(value = "after", required = false) String after,
+                                                         @RequestParam(value = "sort", defaultValue = "fullName") String sort,
+                                                         @RequestParam(value = "direction", defaultValue = "asc") String direction) {
         if (query == null) {
-            authors = authorService.list();
-        } else {
-            authors = authorService.searchByName(query);
+            var order = Paging.order(sort, direction);
+            try {
+                var authors = authorService.list(order, Paging.decode(after, order), Paging.limit(limit));
+                return Paging.page(authorMapper.entityToDTO(authors), authors, order, Author::getFullName, Author::getId, limit);
+            } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e);
+            }
+        }
+        return ResponseEntity.ok(authorMapper.entityToDTO(authorService.searchByName(query)));
+    }
+
+    @GetMapping(value = "/authors", params = {"fields", "!q", "!ids"})
+    public ResponseEntity<Collection<AuthorFieldsDTO>> authors(@RequestParam("fields") List<String> fields,
+                                                               @RequestParam(value = "limit", defaultValue = Paging.DEFAULT_LIMIT) int limit,
+                                                               @RequestParam(value = "after", required = false) String after,
+                                                               @RequestParam(value = "sort", defaultValue = "fullName") String sort,
+                                                               @RequestParam(value = "direction", defaultValue = "asc") String direction) {
+        var order = Paging.order(sort, direction);
+        try {
+            var authors = authorService.list(fields, order, Paging.decode(after, order), Paging.limit(limit));
+            return Paging.page(authorMapper.fieldsToDTO(authors), authors, order, AuthorFields::fullName, AuthorFields::id, limit);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e);
+        }
+    }
+
+    /**
+     * Authors of a list in a single round trip, the other parameters of the list being ignored.
+     */
+    @GetMapping(value = "/authors", params = "ids")
+    public AuthorsByIdsDTO authorsByIds(@RequestParam("ids") List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > Paging.MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "between 1 and " + Paging.MAX_LIMIT + " ids are expected");
+        }
+        var authors = authorService.getAll(ids);
+        return new AuthorsByIdsDTO(authorMapper.entityToDTO(authors.found()), authors.missing());
+    }
+
+    @GetMapping("/authors/suggest")
+    public Collection<AuthorDTO> suggest(@RequestParam("prefix") String prefix,
+                                         @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (Strings.isBlank(prefix) || limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
         }
-        return authors.stream()
-                .map(authorMapper::entityToDTO)
-                .toList();
+        return authorMapper.entityToDTO(authorService.suggest(prefix, limit));
     }
 
     @GetMapping("/authors/{id}")
-    public AuthorDTO author(@PathVariable("id") @NotNull Long id) {
+    public ResponseEntity<AuthorDTO> author(@PathVariable("id") @NotNull Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            return authorMapper.entityToDTO(authorService.get(id));
+            long version = authorService.version(id);
+            if (ETags.notModified(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version)).build();
+            }
+            Author author = authorService.get(id);
+            return ResponseEntity.ok().eTag(ETags.of(author.getVersion())).body(authorMapper.entityToDTO(author));
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, null, e);
         }
     }
 
-    @PostMapping(value = "/authors", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PostMapping(value = "/authors", consumes = {Formats.JSON, Formats.CBOR, Formats.SMILE, Formats.PROTOBUF})
     @ResponseStatus(HttpStatus.CREATED)
     public AuthorDTO newAuthor(@RequestBody @Valid AuthorDTO author) {
         var saved = authorService.save(authorMapper.dtoToEntity(author));
         return authorMapper.entityToDTO(saved);
     }
 
-    @PutMapping(value = "/authors/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public AuthorDTO updateAuthor(@RequestBody @Valid AuthorDTO author, @NotNull @PathVariable("id") Long id) {
+    @PutMapping(value = "/authors/{id}", consumes = {Formats.JSON, Formats.CBOR, Formats.SMILE, Formats.PROTOBUF})
+    public ResponseEntity<AuthorDTO> updateAuthor(@RequestBody @Valid AuthorDTO author, @NotNull @PathVariable("id") Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             if (author.id().equals(id)) {
-                authorService.get(id);
-                var updated = authorService.update(authorMapper.dtoToEntity(author));
-                return authorMapper.entityToDTO(updated);
+                Author entity = authorMapper.dtoToEntity(author);
+                entity.setVersion(ETags.ifMatch(ifMatch, authorService.version(id)));
+                var updated = authorService.update(entity);
+                return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(authorMapper.entityToDTO(updated));
             }
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "author is not found", e);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, null, e);
         }
     }
 
@@ -91,13 +157,35 @@ public class AuthorsController {
         }
     }
 
+    @DeleteMapping(value = "/authors", params = "ids")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteAuthors(@RequestParam("ids") List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > Paging.MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "between 1 and " + Paging.MAX_LIMIT + " ids are expected");
+        }
+        try {
+            authorService.delete(ids);
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, null, e);
+        } catch (DeleteAuthorException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e);
+        }
+    }
+
     @GetMapping("/authors/{id}/books")
-    public Collection<BookDTO> books(@PathVariable("id") @NotNull Long authorId) {
+    public ResponseEntity<Collection<BookDTO>> books(@PathVariable("id") @NotNull Long authorId,
+                                                     @RequestParam(value = "limit", defaultValue = Paging.DEFAULT_LIMIT) int limit,
+                                                     @RequestParam(value = "after", required = false) String after,
+                                                     @RequestParam(value = "sort", defaultValue = "title") String sort,
+                                                     @RequestParam(value = "direction", defaultValue = "asc") String direction) {
+        var order = Paging.order(sort, direction);
         try {
-            var author = authorService.get(authorId);
-            return booksMapper.entityToDTO(author.getBooks());
+            var books = bookService.getByAuthor(authorId, order, Paging.decode(after, order), Paging.limit(limit));
+            return Paging.page(booksMapper.entityToDTO(books), books, order, Book::getTitle, Book::getId, limit);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, null, e);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e);
         }
     }
 
@@ -0,0 +1,17 @@
+package fr.uga.l3miage.library.books;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A book reduced to the fields requested with {@code fields=}, the others are left out of the body.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BookFieldsDTO(
+        Long id,
+        String title,
+        Long isbn,
+        String publisher,
+        Short year,
+        String language
+) {
+}
@@ -0,0 +1,123 @@
+package fr.uga.l3miage.library.books;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.service.BookImport;
+import fr.uga.l3miage.library.service.BookService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of books from a JSON array of {@link BookImportDTO}.
+ * <p>
+ * The body is read with a streaming parser, one item at a time, and saved in chunks of {@link #CHUNK_SIZE} books,
+ * each chunk in its own transaction. The response holds one result per item, in the order of the request. Invalid
+ * items are reported without failing the others, but a malformed body is rejected, the full chunks read before
+ * it staying saved.
+ */
+@RestController
+@RequestMapping(value = "/api/v1", produces = "application/json")
+public class BookImportController {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final BookService bookService;
+    private final BooksMapper booksMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Autowired
+    public BookImportController(BookService bookService, BooksMapper booksMapper, ObjectMapper objectMapper,
+                                Validator validator) {
+        this.bookService = bookService;
+        this.booksMapper = booksMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    @PostMapping(value = "/books:batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<BookImportResultDTO> importBooks(InputStream body) throws IOException {
+        List<BookImportResultDTO> results = new ArrayList<>();
+        List<Pending> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "expected an array of books");
+            }
+            int index = 0;
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                BookImportDTO item = objectMapper.readValue(parser, BookImportDTO.class);
+                accept(index++, item, chunk, results);
+                if (chunk.size() == CHUNK_SIZE) {
+                    flush(chunk, results);
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "expected an array of books");
+            }
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getOriginalMessage(), e);
+        }
+        flush(chunk, results);
+        results.sort(Comparator.comparingInt(BookImportResultDTO::index));
+        return results;
+    }
+
+    private void accept(int index, BookImportDTO item, List<Pending> chunk, List<BookImportResultDTO> results) {
+        Set<ConstraintViolation<BookImportDTO>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            String error = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            results.add(BookImportResultDTO.failed(index, HttpStatus.BAD_REQUEST.value(), error));
+            return;
+        }
+        if (item.book().id() != null) {
+            // imported books are new ones, an id would make the whole chunk fail on persist
+            results.add(BookImportResultDTO.failed(index, HttpStatus.BAD_REQUEST.value(), "book.id must be null"));
+            return;
+        }
+        try {
+            Book book = booksMapper.dtoToEntity(item.book());
+            chunk.add(new Pending(index, new BookImport(book, Set.copyOf(item.authorIds()))));
+        } catch (IllegalArgumentException e) {
+            results.add(BookImportResultDTO.failed(index, HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+        }
+    }
+
+    private void flush(List<Pending> chunk, List<BookImportResultDTO> results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Book> saved = bookService.saveAll(chunk.stream().map(Pending::item).toList());
+        for (int i = 0; i < chunk.size(); i++) {
+            int index = chunk.get(i).index();
+            Book book = saved.get(i);
+            results.add(book == null
+                    ? BookImportResultDTO.failed(index, HttpStatus.NOT_FOUND.value(), "unknown author")
+                    : BookImportResultDTO.created(index, book.getId()));
+        }
+        chunk.clear();
+    }
+
+    private record Pending(int index, BookImport item) {
+    }
+}
@@ -0,0 +1,16 @@
+package fr.uga.l3miage.library.books;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Collection;
+
+public record BookImportDTO(
+        @NotEmpty
+        Collection<@NotNull Long> authorIds,
+        @NotNull
+        @Valid
+        BookDTO book
+) {
+}
@@ -0,0 +1,17 @@
+package fr.uga.l3miage.library.books;
+
+public record BookImportResultDTO(
+        int index,
+        int status,
+        Long id,
+        String error
+) {
+
+    static BookImportResultDTO created(int index, Long id) {
+        return new BookImportResultDTO(index, 201, id, null);
+    }
+
+    static BookImportResultDTO failed(int index, int status, String error) {
+        return new BookImportResultDTO(index, status, null, error);
+    }
+}
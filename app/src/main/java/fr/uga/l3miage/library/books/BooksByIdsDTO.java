@@ -0,0 +1,13 @@
+package fr.uga.l3miage.library.books;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The books of a list of ids, in the requested order, and the ids having no book.
+ */
+public record BooksByIdsDTO(
+        Collection<BookDTO> books,
+        List<Long> missing
+) {
+}
@@ -1,21 +1,30 @@
 package fr.uga.l3miage.library.books;
 
 import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.repo.BookFields;
 import fr.uga.l3miage.library.authors.AuthorDTO;
+import fr.uga.l3miage.library.etag.ETags;
+import fr.uga.l3miage.library.formats.Formats;
+import fr.uga.l3miage.library.paging.Paging;
 import fr.uga.l3miage.library.service.BookService;
 import fr.uga.l3miage.library.service.EntityNotFoundException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import org.apache.logging.log4j.util.Strings;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Collection;
+import java.util.List;
 
 @RestController
-@RequestMapping(value = "/api/v1", produces = "application/json")
+@RequestMapping(value = "/api/v1", produces = {Formats.JSON, Formats.CBOR, Formats.SMILE, Formats.PROTOBUF})
 public class BooksController {
 
     private final BookService bookService;
@@ -28,17 +37,100 @@ public class BooksController {
     }
 
     @GetMapping("/books")
-    public Collection<BookDTO> books(@RequestParam(value = "q", required = false) String query) {
+    public ResponseEntity<Collection<BookDTO>> books(@RequestParam(value = "q", required = false) String query,
+                                                     @RequestParam(value = "limit", defaultValue = Paging.DEFAULT_LIMIT) int limit,
+                                                     @RequestParam(value = "after", required = false) String after,
+                                                     @RequestParam(value = "sort", defaultValue = "title") String sort,
+                                                     @RequestParam(value = "direction", defaultValue = "asc") String direction) {
         if (Strings.isBlank(query)) {
-            return booksMapper.entityToDTO(bookService.list());
+            var order = Paging.order(sort, direction);
+            try {
+                var books = bookService.list(order, Paging.decode(after, order), Paging.limit(limit));
+                return Paging.page(booksMapper.entityToDTO(books), books, order, Book::getTitle, Book::getId, limit);
+            } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e);
+            }
+        }
+        return ResponseEntity.ok(booksMapper.entityToDTO(bookService.findByTitle(query)));
+    }
+
+    @GetMapping(value = "/books", params = {"fields", "!q", "!facets", "!ids"})
+    public ResponseEntity<Collection<BookFieldsDTO>> books(@RequestParam("fields") List<String> fields,
+                                                           @RequestParam(value = "limit", defaultValue = Paging.DEFAULT_LIMIT) int limit,
+                                                           @RequestParam(value = "after", required = false) String after,
+                                                           @RequestParam(value = "sort", defaultValue = "title") String sort,
+                                                           @RequestParam(value = "direction", defaultValue = "asc") String direction) {
+        var order = Paging.order(sort, direction);
+        try {
+            var books = bookService.list(fields, order, Paging.decode(after, order), Paging.limit(limit));
+            return Paging.page(booksMapper.fieldsToDTO(books), books, order, BookFields::title, BookFields::id, limit);
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e);
+        }
+    }
+
+    @GetMapping(value = "/books", params = {"facets", "!ids"})
+    public ResponseEntity<BooksWithFacetsDTO> booksWithFacets(@RequestParam("facets") List<String> facets,
+                                                              @RequestParam(value = "q", required = false) String query,
+                                                              @RequestParam(value = "limit", defaultValue = Paging.DEFAULT_LIMIT) int limit,
+                                                              @RequestParam(value = "after", required = false) String after,
+                                                              @RequestParam(value = "sort", defaultValue = "title") String sort,
+                                                              @RequestParam(value = "direction", defaultValue = "asc") String direction) {
+        try {
+            if (Strings.isBlank(query)) {
+                var counts = booksMapper.facetToDTO(bookService.facets(facets, null));
+                var order = Paging.order(sort, direction);
+                var books = bookService.list(order, Paging.decode(after, order), Paging.limit(limit));
+                var body = new BooksWithFacetsDTO(booksMapper.entityToDTO(books), counts);
+                return Paging.page(body, books, order, Book::getTitle, Book::getId, limit);
+            }
+            var counts = booksMapper.facetToDTO(bookService.facets(facets, query));
+            return ResponseEntity.ok(new BooksWithFacetsDTO(booksMapper.entityToDTO(bookService.findByTitle(query)), counts));
+        } catch (IllegalArgumentException | InvalidDataAccessApiUsageException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e);
+        }
+    }
+
+    /**
+     * Books of a reading list in a single round trip, the other parameters of the list being ignored.
+     */
+    @GetMapping(value = "/books", params = "ids")
+    public BooksByIdsDTO booksByIds(@RequestParam("ids") List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > Paging.MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "between 1 and " + Paging.MAX_LIMIT + " ids are expected");
+        }
+        var books = bookService.getAll(ids);
+        return new BooksByIdsDTO(booksMapper.entityToDTO(books.found()), books.missing());
+    }
+
+    @GetMapping("/search")
+    public Collection<BookDTO> search(@RequestParam("q") String query,
+                                      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (Strings.isBlank(query)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q must not be blank");
         }
-        return booksMapper.entityToDTO(bookService.findByTitle(query));
+        return booksMapper.entityToDTO(bookService.search(query, Paging.limit(limit)));
     }
 
     @GetMapping("/books/{id}")
-    public BookDTO book(@PathVariable("id") @NotNull Long id) {
+    public ResponseEntity<BookDTO> book(@PathVariable("id") @NotNull Long id,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        try {
+            long version = bookService.version(id);
+            if (ETags.notModified(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(ETags.of(version)).build();
+            }
+            Book book = bookService.get(id);
+            return ResponseEntity.ok().eTag(ETags.of(book.getVersion())).body(booksMapper.entityToDTO(book));
+        } catch (EntityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, null, e);
+        }
+    }
+
+    @GetMapping("/books/isbn/{isbn}")
+    public BookDTO bookByIsbn(@PathVariable("isbn") long isbn) {
         try {
-            return booksMapper.entityToDTO(bookService.get(id));
+            return booksMapper.entityToDTO(bookService.getByIsbn(isbn));
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, null, e);
         }
@@ -58,19 +150,21 @@ public class BooksController {
     }
 
     @PutMapping("/books/{id}")
-    public BookDTO updateBook(@PathVariable("id") @NotNull Long id, @RequestBody @Valid BookDTO book) {
+    public ResponseEntity<BookDTO> updateBook(@PathVariable("id") @NotNull Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestBody @Valid BookDTO book) {
         try {
             if (book.id().equals(id)) {
-                // we have to get authors as book DTO does not have some
-                var storedAuthors = bookService.get(id).getAuthors();
                 Book bookEntity = booksMapper.dtoToEntity(book);
-                bookEntity.setAuthors(storedAuthors);
+                bookEntity.setVersion(ETags.ifMatch(ifMatch, bookService.version(id)));
                 var updated = bookService.update(bookEntity);
-                return booksMapper.entityToDTO(updated);
+                return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(booksMapper.entityToDTO(updated));
             }
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST);
         } catch (EntityNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, null, e);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, null, e);
         } catch (IllegalArgumentException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, null, e);
         }
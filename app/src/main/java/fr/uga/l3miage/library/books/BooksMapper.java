@@ -1,9 +1,12 @@
 package fr.uga.l3miage.library.books;
 
 import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.repo.BookFields;
+import fr.uga.l3miage.library.service.Facet;
 import org.mapstruct.*;
 
 import java.util.Collection;
+import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface BooksMapper {
@@ -15,6 +18,14 @@ public interface BooksMapper {
 
     Collection<Book> dtoToEntity(Iterable<BookDTO> books);
 
+    BookFieldsDTO fieldsToDTO(BookFields book);
+
+    Collection<BookFieldsDTO> fieldsToDTO(Iterable<BookFields> books);
+
+    FacetDTO facetToDTO(Facet facet);
+
+    List<FacetDTO> facetToDTO(List<Facet> facets);
+
     @EnumMapping(nameTransformationStrategy = "case", configuration = "lower")
     String enumToString(Book.Language language);
 
@@ -0,0 +1,14 @@
+package fr.uga.l3miage.library.books;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A page of books and the counts of books per value of the requested facets, over all the books matching the request
+ * rather than only the page.
+ */
+public record BooksWithFacetsDTO(
+        Collection<BookDTO> books,
+        List<FacetDTO> facets
+) {
+}
@@ -0,0 +1,15 @@
+package fr.uga.l3miage.library.books;
+
+import java.util.List;
+
+public record FacetDTO(
+        String name,
+        List<Count> counts
+) {
+
+    public record Count(
+            String value,
+            long count
+    ) {
+    }
+}
@@ -0,0 +1,15 @@
+package fr.uga.l3miage.library.borrows;
+
+import java.util.Collection;
+import java.util.Date;
+
+public record BorrowDTO(
+        Long id,
+        Date start,
+        Date requestedReturn,
+        boolean finished,
+        String borrowerId,
+        String librarianId,
+        Collection<Long> bookIds
+) {
+}
@@ -0,0 +1,19 @@
+package fr.uga.l3miage.library.borrows;
+
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.domain.Borrow;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface BorrowMapper {
+
+    @Mapping(source = "borrower.id", target = "borrowerId")
+    @Mapping(source = "librarian.id", target = "librarianId")
+    @Mapping(source = "books", target = "bookIds")
+    BorrowDTO entityToDTO(Borrow borrow);
+
+    default Long bookToId(Book book) {
+        return book.getId();
+    }
+}
@@ -0,0 +1,66 @@
+package fr.uga.l3miage.library.etag;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Helpers for conditional requests on authors and books.
+ * <p>
+ * The strong ETag of an entity is its version, incremented on every update. Reads compare {@code If-None-Match} to the
+ * version alone, which is queried without loading the entity. Updates require {@code If-Match}, and the version it
+ * names is then checked again by the optimistic locking of the services, up to the commit.
+ */
+public final class ETags {
+
+    private static final String ANY = "*";
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {
+        // to hide the public one
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Weak comparison of {@code If-None-Match} with the current version.
+     *
+     * @param ifNoneMatch the header, may be null
+     * @return whether the client already has the current version
+     */
+    public static boolean notModified(String ifNoneMatch, long version) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String current = of(version);
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals(ANY) || trimmed.equals(current) || trimmed.equals(WEAK_PREFIX + current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Strong comparison of {@code If-Match} with the current version.
+     *
+     * @param ifMatch the header, may be null
+     * @return the version the client is updating
+     * @throws ResponseStatusException 428 if the header is missing, 412 if it does not name the current version
+     */
+    public static long ifMatch(String ifMatch, long version) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED, "If-Match header is required");
+        }
+        String current = of(version);
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals(ANY) || trimmed.equals(current)) {
+                return version;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+    }
+}
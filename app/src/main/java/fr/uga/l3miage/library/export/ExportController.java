@@ -0,0 +1,82 @@
+package fr.uga.l3miage.library.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import fr.uga.l3miage.library.authors.AuthorMapper;
+import fr.uga.l3miage.library.books.BooksMapper;
+import fr.uga.l3miage.library.borrows.BorrowMapper;
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.domain.Borrow;
+import fr.uga.l3miage.library.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Full exports as newline delimited JSON, written while the rows are read: nothing is materialized, the first
+ * line is sent as soon as the first chunk is loaded.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/export", produces = ExportController.NDJSON)
+public class ExportController {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final ExportService exportService;
+    private final BooksMapper booksMapper;
+    private final AuthorMapper authorMapper;
+    private final BorrowMapper borrowMapper;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ExportController(ExportService exportService, BooksMapper booksMapper, AuthorMapper authorMapper,
+                            BorrowMapper borrowMapper, ObjectMapper objectMapper) {
+        this.exportService = exportService;
+        this.booksMapper = booksMapper;
+        this.authorMapper = authorMapper;
+        this.borrowMapper = borrowMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping("/{kind}")
+    public StreamingResponseBody export(@PathVariable("kind") String kind) {
+        return switch (kind) {
+            case "books" -> out -> this.<Book>write(out, exportService::books, booksMapper::entityToDTO);
+            case "authors" -> out -> this.<Author>write(out, exportService::authors, authorMapper::entityToDTO);
+            case "borrows" -> out -> this.<Borrow>write(out, exportService::borrows, borrowMapper::entityToDTO);
+            default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        };
+    }
+
+    private <E> void write(OutputStream out, Consumer<Consumer<E>> export, Function<E, ?> mapper) throws IOException {
+        try (SequenceWriter lines = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            export.accept(entity -> {
+                try {
+                    lines.write(mapper.apply(entity));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            lines.flush();
+            out.write('\n');
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
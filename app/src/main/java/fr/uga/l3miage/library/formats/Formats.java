@@ -0,0 +1,22 @@
+package fr.uga.l3miage.library.formats;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Media types negotiated by the author and book endpoints through the {@code Accept} and {@code Content-Type}
+ * headers, JSON staying the default.
+ * <p>
+ * CBOR and Smile are binary encodings of the same JSON tree, handled by the Jackson converters that Spring MVC
+ * registers when their data formats are on the classpath. Protobuf is handled by {@link ProtobufRecordConverter}.
+ */
+public final class Formats {
+
+    public static final String JSON = MediaType.APPLICATION_JSON_VALUE;
+    public static final String CBOR = MediaType.APPLICATION_CBOR_VALUE;
+    public static final String SMILE = "application/x-jackson-smile";
+    public static final String PROTOBUF = "application/x-protobuf";
+
+    private Formats() {
+        // to hide the public one
+    }
+}
@@ -0,0 +1,137 @@
+package fr.uga.l3miage.library.formats;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Protobuf bodies for the DTO records, through the Jackson protobuf data format: no generated classes, the DTOs
+ * stay the single definition of the payloads.
+ * <p>
+ * The schema of a record is generated from its components and cached. A protobuf message cannot be a list, so
+ * collections are wrapped into an {@link Items} message with a single repeated field. The schemas are published
+ * by {@link ProtobufSchemaController} for the clients to generate their own classes.
+ */
+@Component
+public class ProtobufRecordConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final ProtobufMapper mapper = new ProtobufMapper();
+    private final Map<JavaType, ProtobufSchema> schemas = new ConcurrentHashMap<>();
+
+    public ProtobufRecordConverter() {
+        super(MediaType.parseMediaType(Formats.PROTOBUF));
+    }
+
+    /**
+     * Message of a collection body.
+     */
+    public record Items<T>(List<T> items) {
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz.isRecord() || Collection.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return canRead(mediaType) && isRecords(javaType(GenericTypeResolver.resolveType(type, contextClass)));
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType) && isRecords(javaType(type != null ? type : clazz));
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        JavaType javaType = javaType(GenericTypeResolver.resolveType(type, contextClass));
+        try {
+            Object message = reader(javaType).readValue(inputMessage.getBody());
+            return message instanceof Items<?> items ? items.items() : message;
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("invalid protobuf message: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        JavaType javaType = javaType(type != null ? type : body.getClass());
+        Object message = body instanceof Collection<?> items ? new Items<>(List.copyOf(items)) : body;
+        try {
+            writer(javaType).writeValue(outputMessage.getBody(), message);
+        } catch (IOException e) {
+            throw new HttpMessageNotWritableException("cannot write protobuf message: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @param javaType a record or a collection of records
+     * @return a writer of the message of the given type
+     */
+    public ObjectWriter writer(JavaType javaType) {
+        JavaType message = message(javaType);
+        return mapper.writerFor(message).with(schema(message));
+    }
+
+    /**
+     * @param javaType a record or a collection of records
+     * @return a reader of the message of the given type, collections being read as {@link Items}
+     */
+    public ObjectReader reader(JavaType javaType) {
+        JavaType message = message(javaType);
+        return mapper.readerFor(message).with(schema(message));
+    }
+
+    /**
+     * @param javaType a record or a collection of records
+     * @return the schema of the message of the given type
+     */
+    public ProtobufSchema schema(JavaType javaType) {
+        return schemas.computeIfAbsent(message(javaType), message -> {
+            try {
+                return mapper.generateSchemaFor(message);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("cannot generate a protobuf schema for " + message, e);
+            }
+        });
+    }
+
+    public JavaType javaType(Type type) {
+        return mapper.getTypeFactory().constructType(type);
+    }
+
+    private static boolean isRecords(JavaType javaType) {
+        JavaType element = javaType.isCollectionLikeType() ? javaType.getContentType() : javaType;
+        return element.getRawClass().isRecord();
+    }
+
+    private JavaType message(JavaType javaType) {
+        if (javaType.isCollectionLikeType()) {
+            return mapper.getTypeFactory().constructParametricType(Items.class, javaType.getContentType());
+        }
+        return javaType;
+    }
+}
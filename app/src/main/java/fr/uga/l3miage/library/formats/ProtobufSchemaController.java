@@ -0,0 +1,47 @@
+package fr.uga.l3miage.library.formats;
+
+import fr.uga.l3miage.library.authors.AuthorDTO;
+import fr.uga.l3miage.library.books.BookDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code .proto} files of the messages exchanged as {@value Formats#PROTOBUF}, one per body type.
+ */
+@RestController
+@RequestMapping(value = "/api/v1/schemas", produces = MediaType.TEXT_PLAIN_VALUE)
+public class ProtobufSchemaController {
+
+    private static final Map<String, Type> MESSAGES = Map.of(
+            "author", AuthorDTO.class,
+            "authors", new ParameterizedTypeReference<List<AuthorDTO>>() {}.getType(),
+            "book", BookDTO.class,
+            "books", new ParameterizedTypeReference<List<BookDTO>>() {}.getType());
+
+    private final ProtobufRecordConverter converter;
+
+    @Autowired
+    public ProtobufSchemaController(ProtobufRecordConverter converter) {
+        this.converter = converter;
+    }
+
+    @GetMapping("/{name}.proto")
+    public String schema(@PathVariable("name") String name) {
+        Type type = MESSAGES.get(name);
+        if (type == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return converter.schema(converter.javaType(type)).getSource().toString();
+    }
+}
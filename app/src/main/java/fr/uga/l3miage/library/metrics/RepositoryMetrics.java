@@ -0,0 +1,99 @@
+package fr.uga.l3miage.library.metrics;
+
+import fr.uga.l3miage.library.data.repo.QueryName;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every public method of the {@code CRUDRepository} implementations.
+ * <p>
+ * Each call records its latency ({@value #CALLS}, with a histogram) and, when it returns a collection or an entity, the
+ * number of rows ({@value #ROWS}). Failed calls also increment {@value #ERRORS}, tagged with the exception class. All
+ * meters are tagged by repository, method and query, the latter being the named query given by {@link QueryName} or the
+ * method name otherwise.
+ */
+@Aspect
+@Component
+public class RepositoryMetrics {
+
+    static final String CALLS = "library.repository.calls";
+    static final String ROWS = "library.repository.rows";
+    static final String ERRORS = "library.repository.errors";
+
+    private static final String DOMAIN_PACKAGE = "fr.uga.l3miage.library.data.domain";
+
+    private final MeterRegistry registry;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RepositoryMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * fr.uga.l3miage.library.data.repo..*(..)) "
+            + "&& target(fr.uga.l3miage.library.data.repo.CRUDRepository)")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = AopUtils.getMostSpecificMethod(((MethodSignature) joinPoint.getSignature()).getMethod(),
+                AopUtils.getTargetClass(joinPoint.getTarget()));
+        Meters methodMeters = meters.computeIfAbsent(method, this::register);
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            Object result = joinPoint.proceed();
+            if (result instanceof Collection<?> rows) {
+                methodMeters.rows.record(rows.size());
+            } else if (methodMeters.returnsEntity) {
+                methodMeters.rows.record(result == null ? 0 : 1);
+            }
+            return result;
+        } catch (Throwable e) {
+            Counter.builder(ERRORS)
+                    .description("Failed repository calls")
+                    .tags(methodMeters.tags)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(registry)
+                    .increment();
+            throw e;
+        } finally {
+            sample.stop(methodMeters.calls);
+        }
+    }
+
+    private Meters register(Method method) {
+        QueryName queryName = AnnotatedElementUtils.findMergedAnnotation(method, QueryName.class);
+        Tags tags = Tags.of(
+                "repository", method.getDeclaringClass().getSimpleName(),
+                "method", method.getName(),
+                "query", queryName == null ? method.getName() : queryName.value());
+        Timer calls = Timer.builder(CALLS)
+                .description("Latency of repository calls")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+        DistributionSummary rows = DistributionSummary.builder(ROWS)
+                .description("Rows returned by repository calls")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+        boolean returnsEntity = method.getReturnType().getPackageName().equals(DOMAIN_PACKAGE);
+        return new Meters(tags, calls, rows, returnsEntity);
+    }
+
+    private record Meters(Tags tags, Timer calls, DistributionSummary rows, boolean returnsEntity) {
+    }
+}
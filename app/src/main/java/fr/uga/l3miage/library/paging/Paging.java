@@ -0,0 +1,103 @@
+package fr.uga.l3miage.library.paging;
+
+import fr.uga.l3miage.library.data.repo.Keyset;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Helpers for cursor based list endpoints.
+ * <p>
+ * A cursor is the opaque, url-safe encoding of the {@link Keyset} of the last item of a page. The next page is
+ * advertised with a <code>Link: &lt;...&gt;; rel="next"</code> header so that list bodies stay plain arrays.
+ */
+public final class Paging {
+
+    public static final String DEFAULT_LIMIT = "100";
+    public static final int MAX_LIMIT = 1000;
+
+    private static final char SEPARATOR = ':';
+
+    private Paging() {
+        // to hide the public one
+    }
+
+    public static Sort.Order order(String sort, String direction) {
+        try {
+            return new Sort.Order(Sort.Direction.fromString(direction), sort);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid sort direction", e);
+        }
+    }
+
+    public static int limit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+
+    public static String encode(Keyset keyset) {
+        String raw = keyset.id() + (keyset.key() == null ? "" : SEPARATOR + keyset.key());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor the cursor of the previous page, null for the first one
+     * @param order  the order of the requested page, a cursor without sort key being only valid for an order on id
+     */
+    public static Keyset decode(String cursor, Sort.Order order) {
+        if (cursor == null) {
+            return null;
+        }
+        Keyset keyset;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            keyset = separator < 0
+                    ? new Keyset(null, Long.parseLong(raw))
+                    : new Keyset(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "invalid cursor", e);
+        }
+        if (keyset.key() == null && !"id".equals(order.getProperty())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cursor without sort key, not sorted on id");
+        }
+        return keyset;
+    }
+
+    /**
+     * Wraps a page body in a response, adding a next link when the page is full.
+     *
+     * @param body     the mapped page
+     * @param entities the page as loaded, used to compute the cursor of the last item
+     * @param order    the order the page was loaded with
+     * @param key      getter of the sort key, ignored when sorting on id
+     * @param id       getter of the id
+     * @param limit    the requested page size
+     */
+    public static <E, T> ResponseEntity<T> page(T body, Collection<E> entities, Sort.Order order,
+                                                Function<E, String> key, Function<E, Long> id, int limit) {
+        var response = ResponseEntity.ok();
+        if (entities.size() == limit) {
+            E last = null;
+            for (E entity : entities) {
+                last = entity;
+            }
+            String lastKey = "id".equals(order.getProperty()) ? null : key.apply(last);
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", encode(new Keyset(lastKey, id.apply(last))))
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<%s>; rel=\"next\"".formatted(next));
+        }
+        return response.body(body);
+    }
+}
@@ -0,0 +1,58 @@
+package fr.uga.l3miage.library.profiling;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+/**
+ * Profiles the SQL statements of the application when {@code library.profiler.enabled} is set: the {@code dataSource}
+ * bean is wrapped in a {@link ProfilingDataSource}, the statements of Hibernate are tagged with their route by a
+ * {@link RouteStatementInspector}, and the results are served by {@link QueriesController}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.profiler.enabled")
+public class ProfilerConfiguration implements WebMvcConfigurer {
+
+    static final String DATA_SOURCE = "dataSource";
+
+    @Bean
+    public QueryProfiler queryProfiler(@Value("${library.profiler.capacity:1000}") int capacity) {
+        return new QueryProfiler(capacity);
+    }
+
+    /**
+     * Only the data source used by the application is wrapped, not the ones it may delegate to, so that each
+     * statement is recorded once.
+     */
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<QueryProfiler> profiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new ProfilingDataSource(dataSource, profiler.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer routeStatementInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new RouteStatementInspector());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RouteInterceptor());
+    }
+}
@@ -0,0 +1,202 @@
+package fr.uga.l3miage.library.profiling;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Records every statement executed through its connections in a {@link QueryProfiler}.
+ * <p>
+ * Connections, statements and result sets are wrapped in dynamic proxies. A statement counts the parameters bound to
+ * it, times its executions and, for a query, counts the rows read from its result set; the execution is recorded once
+ * the result set or the statement is closed, or the statement executed again. Fetching is not part of the execution
+ * time, as the caller processes each row in between.
+ */
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    private final QueryProfiler profiler;
+
+    public ProfilingDataSource(DataSource target, QueryProfiler profiler) {
+        super(target);
+        this.profiler = profiler;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private Connection connection(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall" -> statement(CallableStatement.class, (Statement) result, (String) args[0]);
+                default -> result;
+            };
+        });
+    }
+
+    private <S extends Statement> S statement(Class<S> type, Statement statement, String preparedSql) {
+        return proxy(type, new StatementHandler(statement, preparedSql));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(ProfilingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * The executions of one statement, the last one being pending until its rows are read.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement statement;
+        private final String preparedSql;
+        private int parameters;
+        private int batches;
+        private String batchSql;
+        private Pending pending;
+
+        StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                parameters = Math.max(parameters, index);
+            } else if (name.equals("addBatch")) {
+                batches++;
+                if (args != null && batchSql == null) {
+                    batchSql = (String) args[0];
+                }
+            } else if (name.equals("close")) {
+                flush();
+            } else if (name.startsWith("execute")) {
+                return execute(method, args);
+            } else if (name.equals("getResultSet") && pending != null) {
+                ResultSet resultSet = (ResultSet) ProfilingDataSource.invoke(statement, method, args);
+                return resultSet == null ? null : resultSet(resultSet, pending);
+            }
+            return ProfilingDataSource.invoke(statement, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            flush();
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : batchSql != null ? batchSql : preparedSql;
+            int bound = batches > 0 ? parameters * batches : parameters;
+            String route = RouteInterceptor.current();
+            long start = System.nanoTime();
+            Object result = ProfilingDataSource.invoke(statement, method, args);
+            long nanos = System.nanoTime() - start;
+            parameters = 0;
+            batches = 0;
+            batchSql = null;
+            if (result instanceof ResultSet resultSet) {
+                pending = new Pending(sql, nanos, bound, route);
+                return resultSet(resultSet, pending);
+            }
+            if (Boolean.TRUE.equals(result)) {
+                // a query run by execute(), rows are counted when the caller gets its result set
+                pending = new Pending(sql, nanos, bound, route);
+                return result;
+            }
+            long rows;
+            if (result instanceof int[] counts) {
+                rows = sum(counts);
+            } else if (result instanceof long[] counts) {
+                rows = sum(counts);
+            } else if (result instanceof Number count) {
+                rows = count.longValue();
+            } else {
+                rows = statement.getUpdateCount();
+            }
+            profiler.record(sql, nanos, bound, rows, route);
+            return result;
+        }
+
+        private ResultSet resultSet(ResultSet resultSet, Pending execution) {
+            return proxy(ResultSet.class, (proxy, method, args) -> {
+                Object result = ProfilingDataSource.invoke(resultSet, method, args);
+                if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                    execution.rows++;
+                } else if (method.getName().equals("close") && execution == pending) {
+                    flush();
+                }
+                return result;
+            });
+        }
+
+        private void flush() {
+            if (pending != null) {
+                profiler.record(pending.sql, pending.nanos, pending.parameters, pending.rows, pending.route);
+                pending = null;
+            }
+        }
+
+        private static long sum(int[] counts) {
+            long sum = 0;
+            for (int count : counts) {
+                sum += Math.max(count, 0);
+            }
+            return sum;
+        }
+
+        private static long sum(long[] counts) {
+            long sum = 0;
+            for (long count : counts) {
+                sum += Math.max(count, 0);
+            }
+            return sum;
+        }
+    }
+
+    private static final class Pending {
+
+        private final String sql;
+        private final long nanos;
+        private final int parameters;
+        private final String route;
+        private long rows;
+
+        Pending(String sql, long nanos, int parameters, String route) {
+            this.sql = sql;
+            this.nanos = nanos;
+            this.parameters = parameters;
+            this.route = route;
+        }
+    }
+}
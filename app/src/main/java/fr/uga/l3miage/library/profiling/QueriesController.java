@@ -0,0 +1,61 @@
+package fr.uga.l3miage.library.profiling;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The slowest normalized statements and the last executed ones, as recorded by the {@link QueryProfiler}.
+ */
+@RestController
+@RequestMapping("/debug/queries")
+@ConditionalOnProperty(name = "library.profiler.enabled")
+public class QueriesController {
+
+    private final QueryProfiler profiler;
+
+    @Autowired
+    public QueriesController(QueryProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * @param top    number of statements
+     * @param order  {@code max}, {@code mean} or {@code total} time of the statements
+     * @param recent number of executions
+     */
+    @GetMapping
+    public Queries queries(@RequestParam(value = "top", defaultValue = "20") int top,
+                           @RequestParam(value = "order", defaultValue = "max") String order,
+                           @RequestParam(value = "recent", defaultValue = "100") int recent) {
+        QueryProfiler.Order statementOrder;
+        try {
+            statementOrder = QueryProfiler.Order.valueOf(order.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "unknown order " + order, e);
+        }
+        if (top < 0 || recent < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "top and recent cannot be negative");
+        }
+        return new Queries(profiler.slowest(statementOrder, top), profiler.recent(recent));
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clear() {
+        profiler.clear();
+    }
+
+    public record Queries(List<QueryProfiler.Statement> slowest, List<QueryProfiler.Execution> recent) {
+    }
+}
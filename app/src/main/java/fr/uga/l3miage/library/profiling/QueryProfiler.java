@@ -0,0 +1,169 @@
+package fr.uga.l3miage.library.profiling;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the last executed SQL statements in a ring buffer, and aggregates their timings per normalized statement.
+ * <p>
+ * Recording never blocks: the ring buffer is an array of slots claimed by an atomic counter, the oldest execution
+ * being overwritten, and the aggregates are adders in a concurrent map. Statements are normalized by removing comments
+ * and literals and folding lists of parameters, so that {@code in (?,?,?)} and {@code in (?,?)} are the same statement.
+ * At most {@value #MAX_STATEMENTS} distinct statements are aggregated, later ones are only kept in the ring buffer.
+ */
+public class QueryProfiler {
+
+    static final int MAX_STATEMENTS = 10_000;
+
+    private static final Pattern COMMENTS = Pattern.compile("/\\*.*?\\*/|--[^\\n]*", Pattern.DOTALL);
+    private static final Pattern STRINGS = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBERS = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTS = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final AtomicReferenceArray<Execution> recent;
+    private final AtomicLong next = new AtomicLong();
+    private final Map<String, String> normalized = new ConcurrentHashMap<>();
+    private final Map<String, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+    public QueryProfiler(int capacity) {
+        this.recent = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Records an execution.
+     *
+     * @param sql        the statement as sent to the driver
+     * @param nanos      the time spent executing it, fetching excluded
+     * @param parameters the number of bound parameters, summed over the rows of a batch
+     * @param rows       the number of rows read or written, -1 if unknown
+     * @param route      the controller method that ran it, null outside of a request
+     */
+    public void record(String sql, long nanos, int parameters, long rows, String route) {
+        Execution execution = new Execution(Instant.now(), sql, nanos, parameters, rows, route);
+        recent.set((int) (next.getAndIncrement() % recent.length()), execution);
+
+        String statement = normalized.get(sql);
+        if (statement == null) {
+            statement = normalize(sql);
+            if (normalized.size() < MAX_STATEMENTS) {
+                normalized.put(sql, statement);
+            }
+        }
+        Aggregate aggregate = aggregates.get(statement);
+        if (aggregate == null) {
+            if (aggregates.size() >= MAX_STATEMENTS) {
+                return;
+            }
+            aggregate = aggregates.computeIfAbsent(statement, s -> new Aggregate());
+        }
+        aggregate.add(execution);
+    }
+
+    /**
+     * @return at most {@code limit} executions, the most recent first
+     */
+    public List<Execution> recent(int limit) {
+        long last = next.get();
+        List<Execution> executions = new ArrayList<>(limit);
+        for (long i = last - 1; i >= Math.max(0, last - recent.length()) && executions.size() < limit; i--) {
+            Execution execution = recent.get((int) (i % recent.length()));
+            if (execution != null) {
+                executions.add(execution);
+            }
+        }
+        return executions;
+    }
+
+    /**
+     * @return at most {@code limit} normalized statements, the slowest first according to the given order
+     */
+    public List<Statement> slowest(Order order, int limit) {
+        return aggregates.entrySet().stream()
+                .map(entry -> entry.getValue().toStatement(entry.getKey()))
+                .sorted(order.comparator.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void clear() {
+        aggregates.clear();
+        for (int i = 0; i < recent.length(); i++) {
+            recent.set(i, null);
+        }
+    }
+
+    static String normalize(String sql) {
+        String statement = COMMENTS.matcher(sql).replaceAll(" ");
+        statement = STRINGS.matcher(statement).replaceAll("?");
+        statement = NUMBERS.matcher(statement).replaceAll("?");
+        statement = LISTS.matcher(statement).replaceAll("(?, ...)");
+        return SPACES.matcher(statement).replaceAll(" ").trim();
+    }
+
+    public enum Order {
+        MAX(Comparator.comparingDouble(Statement::maxMillis)),
+        MEAN(Comparator.comparingDouble(Statement::meanMillis)),
+        TOTAL(Comparator.comparingDouble(Statement::totalMillis));
+
+        private final Comparator<Statement> comparator;
+
+        Order(Comparator<Statement> comparator) {
+            this.comparator = comparator;
+        }
+    }
+
+    public record Execution(Instant at, String sql, @JsonIgnore long nanos, int parameters, long rows, String route) {
+
+        @JsonProperty
+        public double millis() {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+
+    /**
+     * @param slowest the slowest execution of the statement
+     */
+    public record Statement(String sql, long count, double totalMillis, double meanMillis, double maxMillis, long rows,
+                            Execution slowest) {
+    }
+
+    private static final class Aggregate {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final AtomicReference<Execution> slowest = new AtomicReference<>();
+
+        void add(Execution execution) {
+            count.increment();
+            nanos.add(execution.nanos());
+            if (execution.rows() > 0) {
+                rows.add(execution.rows());
+            }
+            slowest.accumulateAndGet(execution, (current, candidate) ->
+                    current == null || candidate.nanos() > current.nanos() ? candidate : current);
+        }
+
+        Statement toStatement(String sql) {
+            long executions = count.sum();
+            double total = nanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+            Execution max = slowest.get();
+            return new Statement(sql, executions, total, executions == 0 ? 0 : total / executions,
+                    max == null ? 0 : max.millis(), rows.sum(), max);
+        }
+    }
+}
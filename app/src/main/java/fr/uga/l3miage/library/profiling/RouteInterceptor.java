@@ -0,0 +1,44 @@
+package fr.uga.l3miage.library.profiling;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Makes the controller method handling the current request, as {@code BooksController.books}, available to the
+ * statements it runs.
+ */
+public class RouteInterceptor implements HandlerInterceptor {
+
+    private static final ThreadLocal<String> ROUTE = new ThreadLocal<>();
+
+    /**
+     * @return the controller method handling the request of the current thread, null if there is none
+     */
+    public static String current() {
+        return ROUTE.get();
+    }
+
+    static void set(String route) {
+        if (route == null) {
+            ROUTE.remove();
+        } else {
+            ROUTE.set(route);
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            set(method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        set(null);
+    }
+}
@@ -0,0 +1,17 @@
+package fr.uga.l3miage.library.profiling;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Prefixes the statements generated by Hibernate with a comment naming the controller method that runs them, as
+ * {@code /* BooksController.books *&#47;}, so that the slow query log and the process list of the database tell where a
+ * statement comes from too. Comments are dropped by the normalization of the {@link QueryProfiler}.
+ */
+public class RouteStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        String route = RouteInterceptor.current();
+        return route == null ? sql : "/* " + route + " */ " + sql;
+    }
+}
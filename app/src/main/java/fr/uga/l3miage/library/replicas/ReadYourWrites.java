@@ -0,0 +1,74 @@
+package fr.uga.l3miage.library.replicas;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Remembers, per thread, until when reads have to go to the primary because the client wrote something that the
+ * replicas may not have received yet.
+ * <p>
+ * Outside of a request the client is the thread itself, so that a job reading after its own write sees it. During a
+ * request, {@link ReadYourWritesFilter} binds the client of the request, whose deadline travels in a cookie from one
+ * request to the next.
+ */
+public class ReadYourWrites {
+
+    private final Duration window;
+    private final Clock clock;
+    private final ThreadLocal<Client> clients = ThreadLocal.withInitial(() -> new Client(Instant.MIN, until -> {
+    }));
+
+    public ReadYourWrites(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    public Duration window() {
+        return window;
+    }
+
+    /**
+     * Binds a client to the current thread.
+     *
+     * @param primaryUntil the deadline of the previous writes of the client, capped to one window from now as it
+     *                     comes from the client
+     * @param onWrite      called with the new deadline after each write of the client
+     */
+    public void bind(Instant primaryUntil, Consumer<Instant> onWrite) {
+        Instant latest = clock.instant().plus(window);
+        clients.set(new Client(primaryUntil.isAfter(latest) ? latest : primaryUntil, onWrite));
+    }
+
+    public void unbind() {
+        clients.remove();
+    }
+
+    /**
+     * Records a write of the client of the current thread.
+     */
+    public void wrote() {
+        Client client = clients.get();
+        client.primaryUntil = clock.instant().plus(window);
+        client.onWrite.accept(client.primaryUntil);
+    }
+
+    /**
+     * @return whether the client of the current thread must read from the primary
+     */
+    public boolean pinned() {
+        return clock.instant().isBefore(clients.get().primaryUntil);
+    }
+
+    private static final class Client {
+
+        private Instant primaryUntil;
+        private final Consumer<Instant> onWrite;
+
+        Client(Instant primaryUntil, Consumer<Instant> onWrite) {
+            this.primaryUntil = primaryUntil;
+            this.onWrite = onWrite;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package fr.uga.l3miage.library.replicas;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Carries the {@link ReadYourWrites} deadline of a client from one request to the next in the {@value #COOKIE}
+ * cookie, in epoch milliseconds. The cookie is set as soon as the request writes, while the response is not committed
+ * yet, and expires with the deadline.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "library-primary-until";
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        readYourWrites.bind(primaryUntil(request), until -> {
+            if (!response.isCommitted()) {
+                response.setHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE, Long.toString(until.toEpochMilli()))
+                        .path("/")
+                        .httpOnly(true)
+                        .maxAge(readYourWrites.window())
+                        .build()
+                        .toString());
+            }
+        });
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            readYourWrites.unbind();
+        }
+    }
+
+    private static Instant primaryUntil(HttpServletRequest request) {
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    try {
+                        return Instant.ofEpochMilli(Long.parseLong(cookie.getValue()));
+                    } catch (NumberFormatException e) {
+                        // a tampered cookie is ignored
+                    }
+                }
+            }
+        }
+        return Instant.MIN;
+    }
+}
@@ -0,0 +1,63 @@
+package fr.uga.l3miage.library.replicas;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the data source of {@code spring.datasource} by a {@link ReplicaRoutingDataSource} as soon as a replica is
+ * configured, for instance:
+ * <pre>
+ * library.datasource.replicas[0].url=jdbc:mariadb://replica-1:3306/library
+ * library.datasource.replicas[1].url=jdbc:mariadb://replica-2:3306/library
+ * </pre>
+ * The replicas are expected to replicate the primary, schema included.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.datasource.replicas[0]", name = "url")
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class ReplicaConfiguration {
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaProperties replicaProperties) {
+        return new ReadYourWrites(replicaProperties.readYourWrites(), Clock.systemUTC());
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWrites readYourWrites) {
+        return new ReadYourWritesFilter(readYourWrites);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             ReplicaProperties replicaProperties,
+                                                             ReadYourWrites readYourWrites) {
+        DataSource primary = properties.initializeDataSourceBuilder().build();
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaProperties.Replica replica : replicaProperties.replicas()) {
+            replicas.add(DataSourceBuilder.create()
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(replica.url())
+                    .username(replica.username() == null ? properties.determineUsername() : replica.username())
+                    .password(replica.password() == null ? properties.determinePassword() : replica.password())
+                    .build());
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWrites);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,22 @@
+package fr.uga.l3miage.library.replicas;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replicas of the {@code spring.datasource} database.
+ *
+ * @param replicas      connection settings of each replica, the user and password of the primary being used when
+ *                      not set
+ * @param readYourWrites how long a client keeps reading from the primary after a write of its own
+ */
+@ConfigurationProperties("library.datasource")
+public record ReplicaProperties(@DefaultValue List<Replica> replicas,
+                                @DefaultValue("PT5S") Duration readYourWrites) {
+
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,150 @@
+package fr.uga.l3miage.library.replicas;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Sends the connections of read-only transactions to the replica having the fewest connections in use, and every
+ * other connection to the primary.
+ * <p>
+ * The transaction has to be known when the connection is opened, which is why this data source is used behind a
+ * {@link LazyConnectionDataSourceProxy}: the connection is then only opened at the first statement. Replicas having
+ * the same load are taken in turn.
+ * <p>
+ * A client that wrote is pinned to the primary for a while, see {@link ReadYourWrites}. The deadline is set when the
+ * writing transaction opens its connection, then again right before it completes, so that a long transaction does
+ * not use up the window before its writes are even visible.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final AtomicIntegerArray inUse;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, ReadYourWrites readYourWrites) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWrites = readYourWrites;
+        this.inUse = new AtomicIntegerArray(replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    /**
+     * Routed as {@link #getConnection()}, the credentials being given to whichever node is chosen.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(Opener opener) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (replicas.isEmpty() || readYourWrites.pinned()) {
+                return opener.open(primary);
+            }
+            int replica = leastLoaded();
+            return counted(replica, opener.open(replicas.get(replica)));
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            readYourWrites.wrote();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCompletion() {
+                    readYourWrites.wrote();
+                }
+            });
+        }
+        return opener.open(primary);
+    }
+
+    /**
+     * @return the number of connections of each replica that are not closed yet
+     */
+    int[] inUse() {
+        int[] counts = new int[inUse.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = inUse.get(i);
+        }
+        return counts;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : replicas) {
+            close(dataSource);
+        }
+        close(primary);
+    }
+
+    private int leastLoaded() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        int best = start;
+        for (int i = 1; i < replicas.size(); i++) {
+            int replica = (start + i) % replicas.size();
+            if (inUse.get(replica) < inUse.get(best)) {
+                best = replica;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Counts the connection as in use by the replica until it is closed.
+     */
+    private Connection counted(int replica, Connection connection) {
+        inUse.incrementAndGet(replica);
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "close":
+                            if (closed.compareAndSet(false, true)) {
+                                inUse.decrementAndGet(replica);
+                            }
+                            break;
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private static void close(DataSource dataSource) throws IOException {
+        if (dataSource instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private interface Opener {
+
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+}
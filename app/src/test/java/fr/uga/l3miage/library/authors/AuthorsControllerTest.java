@@ -0,0 +1,121 @@
+package fr.uga.l3miage.library.authors;
+
+import fr.uga.l3miage.library.books.BooksMapper;
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.repo.AuthorRepository;
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import fr.uga.l3miage.library.data.repo.Keyset;
+import fr.uga.l3miage.library.paging.Paging;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.AuthorServiceImpl;
+import fr.uga.l3miage.library.service.BookService;
+import fr.uga.l3miage.library.service.cache.CatalogCache;
+import fr.uga.l3miage.library.service.index.AuthorNameTrie;
+import fr.uga.l3miage.library.service.index.BookFacets;
+import fr.uga.l3miage.library.service.index.IsbnIndex;
+import fr.uga.l3miage.library.service.index.TitleTrigramIndex;
+import fr.uga.l3miage.library.service.search.CatalogSearchSync;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AuthorsControllerTest {
+
+    AuthorService authorService = mock(AuthorService.class);
+    BookService bookService = mock(BookService.class);
+    MockMvc mvc = MockMvcBuilders.standaloneSetup(new AuthorsController(authorService, bookService,
+            mock(AuthorMapper.class), mock(BooksMapper.class))).build();
+
+    // the multi-get through the actual service, down to the repository
+    AuthorRepository authorRepository = mock(AuthorRepository.class);
+    MockMvc byIds = MockMvcBuilders.standaloneSetup(new AuthorsController(
+            new AuthorServiceImpl(authorRepository, mock(BookRepository.class), mock(AuthorNameTrie.class),
+                    mock(IsbnIndex.class), mock(TitleTrigramIndex.class), mock(BookFacets.class),
+                    mock(CatalogSearchSync.class), mock(CatalogCache.class)),
+            bookService, new AuthorMapperImpl(), mock(BooksMapper.class))).build();
+
+    @Test
+    void booksWithUnknownSort() throws Exception {
+        // as translated by the repository proxy
+        when(bookService.getByAuthor(eq(1L), eq(Sort.Order.asc("bogus")), any(), anyInt()))
+                .thenThrow(new InvalidDataAccessApiUsageException("unknown sort bogus", new IllegalArgumentException()));
+
+        mvc.perform(get("/api/v1/authors/1/books").param("sort", "bogus"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void keylessCursorSortedOnName() throws Exception {
+        mvc.perform(get("/api/v1/authors").param("after", Paging.encode(new Keyset(null, 5L))))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(authorService);
+
+        mvc.perform(get("/api/v1/authors").param("after", Paging.encode(new Keyset(null, 5L))).param("sort", "id"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void deleteTooManyAuthors() throws Exception {
+        String ids = LongStream.rangeClosed(1, Paging.MAX_LIMIT + 1)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(","));
+
+        mvc.perform(delete("/api/v1/authors").param("ids", ids))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(authorService);
+    }
+
+    @Test
+    void authorsByIds() throws Exception {
+        when(authorRepository.getAll(List.of(3L, 1L, 2L))).thenReturn(Arrays.asList(author(3), null, author(2)));
+
+        byIds.perform(get("/api/v1/authors").param("ids", "3,1,3,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.authors[*].id").value(contains(3, 2)))
+                .andExpect(jsonPath("$.missing").value(contains(1)));
+    }
+
+    @Test
+    void authorsByNoIds() throws Exception {
+        byIds.perform(get("/api/v1/authors").param("ids", ""))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(authorRepository);
+    }
+
+    @Test
+    void authorsByTooManyIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, Paging.MAX_LIMIT + 1)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(","));
+
+        byIds.perform(get("/api/v1/authors").param("ids", ids))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(authorRepository);
+    }
+
+    private static Author author(long id) {
+        Author author = new Author();
+        author.setId(id);
+        author.setFullName("author " + id);
+        return author;
+    }
+}
@@ -0,0 +1,76 @@
+package fr.uga.l3miage.library.books;
+
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.repo.AuthorRepository;
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import fr.uga.l3miage.library.paging.Paging;
+import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.service.BookServiceImpl;
+import fr.uga.l3miage.library.service.cache.CatalogCache;
+import fr.uga.l3miage.library.service.index.BookFacets;
+import fr.uga.l3miage.library.service.index.IsbnIndex;
+import fr.uga.l3miage.library.service.index.TitleTrigramIndex;
+import fr.uga.l3miage.library.service.search.CatalogSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class BooksControllerTest {
+
+    BookRepository bookRepository = mock(BookRepository.class);
+    MockMvc mvc = MockMvcBuilders.standaloneSetup(new BooksController(
+            new BookServiceImpl(mock(AuthorService.class), mock(AuthorRepository.class), bookRepository,
+                    mock(TitleTrigramIndex.class), mock(IsbnIndex.class), mock(BookFacets.class),
+                    mock(CatalogSearchIndex.class), mock(CatalogCache.class)),
+            new BooksMapperImpl())).build();
+
+    @Test
+    void booksByIds() throws Exception {
+        when(bookRepository.getAll(List.of(3L, 1L, 2L))).thenReturn(Arrays.asList(book(3), null, book(2)));
+
+        mvc.perform(get("/api/v1/books").param("ids", "3,1,3,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[*].id").value(contains(3, 2)))
+                .andExpect(jsonPath("$.missing").value(contains(1)));
+    }
+
+    @Test
+    void booksByNoIds() throws Exception {
+        mvc.perform(get("/api/v1/books").param("ids", ""))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void booksByTooManyIds() throws Exception {
+        String ids = LongStream.rangeClosed(1, Paging.MAX_LIMIT + 1)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(","));
+
+        mvc.perform(get("/api/v1/books").param("ids", ids))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(bookRepository);
+    }
+
+    private static Book book(long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("book " + id);
+        book.setIsbn(1_000_000_000L + id);
+        book.setLanguage(Book.Language.ENGLISH);
+        return book;
+    }
+}
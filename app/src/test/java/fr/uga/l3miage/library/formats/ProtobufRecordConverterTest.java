@@ -0,0 +1,69 @@
+package fr.uga.l3miage.library.formats;
+
+import fr.uga.l3miage.library.authors.AuthorDTO;
+import fr.uga.l3miage.library.books.BookDTO;
+import fr.uga.l3miage.library.books.BooksWithFacetsDTO;
+import fr.uga.l3miage.library.books.FacetDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProtobufRecordConverterTest {
+
+    static final MediaType PROTOBUF = MediaType.parseMediaType(Formats.PROTOBUF);
+    static final Type BOOKS = new ParameterizedTypeReference<List<BookDTO>>() {}.getType();
+
+    ProtobufRecordConverter converter = new ProtobufRecordConverter();
+
+    @Test
+    void roundTrip() throws IOException {
+        AuthorDTO author = new AuthorDTO(1L, "Victor Hugo");
+        List<BookDTO> books = List.of(
+                new BookDTO(2L, "Les Misérables", 9782070409228L, "Folio", (short) 1862, "french", List.of(author)),
+                new BookDTO(3L, "Notre-Dame de Paris", 9782070413089L, null, (short) 1831, "french", List.of()));
+
+        assertThat(converter.canWrite(BOOKS, books.getClass(), PROTOBUF)).isTrue();
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(books, BOOKS, PROTOBUF, output);
+
+        assertThat(converter.canRead(BOOKS, null, PROTOBUF)).isTrue();
+        Object read = converter.read(BOOKS, null, new MockHttpInputMessage(output.getBodyAsBytes()));
+        assertThat(read).isEqualTo(List.of(books.get(0),
+                new BookDTO(3L, "Notre-Dame de Paris", 9782070413089L, null, (short) 1831, "french", null)));
+    }
+
+    @Test
+    void nestedRecords() throws IOException {
+        BooksWithFacetsDTO page = new BooksWithFacetsDTO(
+                List.of(new BookDTO(2L, "Les Misérables", 9782070409228L, "Folio", (short) 1862, "french", null)),
+                List.of(new FacetDTO("language", List.of(new FacetDTO.Count("french", 1)))));
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(page, BooksWithFacetsDTO.class, PROTOBUF, output);
+        assertThat(converter.read(BooksWithFacetsDTO.class, null, new MockHttpInputMessage(output.getBodyAsBytes())))
+                .isEqualTo(page);
+    }
+
+    @Test
+    void onlyRecords() {
+        assertThat(converter.canWrite(String.class, String.class, PROTOBUF)).isFalse();
+        assertThat(converter.canWrite(new ParameterizedTypeReference<List<String>>() {}.getType(), List.class, PROTOBUF))
+                .isFalse();
+        assertThat(converter.canWrite(AuthorDTO.class, AuthorDTO.class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    @Test
+    void schema() {
+        assertThat(converter.schema(converter.javaType(BOOKS)).getSource().toString())
+                .contains("repeated BookDTO items")
+                .contains("int64 isbn");
+    }
+}
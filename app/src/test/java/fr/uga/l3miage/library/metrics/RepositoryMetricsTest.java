@@ -0,0 +1,64 @@
+package fr.uga.l3miage.library.metrics;
+
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RepositoryMetricsTest {
+
+    EntityManager entityManager = mock(EntityManager.class, RETURNS_DEEP_STUBS);
+    MeterRegistry registry = new SimpleMeterRegistry();
+    BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new BookRepository(entityManager));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new RepositoryMetrics(registry));
+        bookRepository = factory.getProxy();
+    }
+
+    @Test
+    void namedQuery() {
+        when(entityManager.createNamedQuery("find-books-by-title", Book.class)
+                .setHint(anyString(), any())
+                .setParameter("titlePart", "misérables")
+                .getResultList())
+                .thenReturn(List.of(new Book(), new Book()));
+
+        bookRepository.findByContainingTitle("misérables");
+        bookRepository.findByContainingTitle("misérables");
+
+        var tags = new String[]{"repository", "BookRepository", "method", "findByContainingTitle", "query", "find-books-by-title"};
+        assertThat(registry.get(RepositoryMetrics.CALLS).tags(tags).timer().count()).isEqualTo(2);
+        assertThat(registry.get(RepositoryMetrics.ROWS).tags(tags).summary().totalAmount()).isEqualTo(4);
+    }
+
+    @Test
+    void error() {
+        when(entityManager.find(Book.class, 1L)).thenThrow(new IllegalStateException("down"));
+
+        assertThatThrownBy(() -> bookRepository.get(1L)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.get(RepositoryMetrics.ERRORS)
+                .tags("method", "get", "query", "get", "exception", "IllegalStateException")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get(RepositoryMetrics.CALLS).tags("method", "get").timer().count()).isEqualTo(1);
+        assertThat(registry.get(RepositoryMetrics.ROWS).tags("method", "get").summary().count()).isZero();
+    }
+}
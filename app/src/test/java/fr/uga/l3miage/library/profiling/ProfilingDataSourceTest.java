@@ -0,0 +1,57 @@
+package fr.uga.l3miage.library.profiling;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ProfilingDataSourceTest {
+
+    QueryProfiler profiler = new QueryProfiler(100);
+    JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:profiling-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(new ProfilingDataSource(h2, profiler));
+        jdbc.execute("CREATE TABLE book (id BIGINT PRIMARY KEY, title VARCHAR(100))");
+        profiler.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RouteInterceptor.set(null);
+    }
+
+    @Test
+    void statements() {
+        RouteInterceptor.set("BooksController.books");
+        jdbc.batchUpdate("INSERT INTO book VALUES (?, ?)", List.of(
+                new Object[]{1L, "Les Misérables"},
+                new Object[]{2L, "Notre-Dame de Paris"},
+                new Object[]{3L, "Les Contemplations"}));
+        List<String> titles = jdbc.queryForList("SELECT title FROM book WHERE title LIKE ?", String.class, "Les%");
+        int updated = jdbc.update("UPDATE book SET title = UPPER(title)");
+        RouteInterceptor.set(null);
+        jdbc.queryForObject("SELECT COUNT(*) FROM book", Long.class);
+
+        assertThat(titles).hasSize(2);
+        assertThat(updated).isEqualTo(3);
+        assertThat(profiler.recent(10))
+                .extracting(QueryProfiler.Execution::sql, QueryProfiler.Execution::parameters,
+                        QueryProfiler.Execution::rows, QueryProfiler.Execution::route)
+                .containsExactly(
+                        tuple("SELECT COUNT(*) FROM book", 0, 1L, null),
+                        tuple("UPDATE book SET title = UPPER(title)", 0, 3L, "BooksController.books"),
+                        tuple("SELECT title FROM book WHERE title LIKE ?", 1, 2L, "BooksController.books"),
+                        tuple("INSERT INTO book VALUES (?, ?)", 6, 3L, "BooksController.books"));
+        assertThat(profiler.recent(10)).allSatisfy(execution -> assertThat(execution.nanos()).isPositive());
+    }
+}
@@ -0,0 +1,57 @@
+package fr.uga.l3miage.library.profiling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class QueryProfilerTest {
+
+    QueryProfiler profiler = new QueryProfiler(3);
+
+    @Test
+    void normalize() {
+        assertThat(QueryProfiler.normalize("/* BooksController.books */ select b1_0.id from book b1_0\n"
+                + "  where b1_0.title like 'l''amour%' and b1_0.year > 1900 and b1_0.id in (?,?, ?)"))
+                .isEqualTo("select b1_0.id from book b1_0 where b1_0.title like ? and b1_0.year > ? and b1_0.id in (?, ...)");
+    }
+
+    @Test
+    void recent() {
+        for (int i = 0; i < 5; i++) {
+            profiler.record("select " + i, 1, 0, 1, null);
+        }
+
+        assertThat(profiler.recent(10))
+                .extracting(QueryProfiler.Execution::sql)
+                .containsExactly("select 4", "select 3", "select 2");
+        assertThat(profiler.recent(2)).hasSize(2);
+    }
+
+    @Test
+    void slowest() {
+        long ms = TimeUnit.MILLISECONDS.toNanos(1);
+        profiler.record("select * from book where id = ?", 2 * ms, 1, 1, "BooksController.book");
+        profiler.record("/* BooksController.book */ select * from book where id = ?", 4 * ms, 1, 0, "BooksController.book");
+        profiler.record("select * from author where id in (?,?)", 3 * ms, 2, 2, "AuthorsController.authors");
+        profiler.record("select * from author where id in (?,?,?)", 3 * ms + ms / 2, 3, 3, null);
+
+        assertThat(profiler.slowest(QueryProfiler.Order.MAX, 10))
+                .extracting(QueryProfiler.Statement::sql, QueryProfiler.Statement::count,
+                        QueryProfiler.Statement::maxMillis, QueryProfiler.Statement::rows)
+                .containsExactly(
+                        tuple("select * from book where id = ?", 2L, 4.0, 1L),
+                        tuple("select * from author where id in (?, ...)", 2L, 3.5, 5L));
+        assertThat(profiler.slowest(QueryProfiler.Order.TOTAL, 1))
+                .extracting(QueryProfiler.Statement::sql)
+                .containsExactly("select * from author where id in (?, ...)");
+        assertThat(profiler.slowest(QueryProfiler.Order.MAX, 1).get(0).slowest().route())
+                .isEqualTo("BooksController.book");
+
+        profiler.clear();
+        assertThat(profiler.slowest(QueryProfiler.Order.MAX, 10)).isEmpty();
+        assertThat(profiler.recent(10)).isEmpty();
+    }
+}
@@ -0,0 +1,160 @@
+package fr.uga.l3miage.library.replicas;
+
+import jakarta.servlet.http.Cookie;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1), Clock.systemUTC());
+    ReplicaRoutingDataSource routing;
+    JdbcTemplate jdbc;
+    TransactionTemplate readWrite;
+    TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String name : List.of("replica-0", "replica-1")) {
+            replicas.add(node(name));
+        }
+        routing = new ReplicaRoutingDataSource(node("primary"), replicas, readYourWrites);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        readYourWrites.unbind();
+        routing.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicas() {
+        assertThat(nodeIn(readWrite)).isEqualTo("primary");
+        readYourWrites.unbind();
+
+        assertThat(List.of(nodeIn(readOnly), nodeIn(readOnly)))
+                .containsExactlyInAnyOrder("replica-0", "replica-1");
+        assertThat(node()).as("outside of a transaction").isEqualTo("primary");
+    }
+
+    @Test
+    void credentialsAreRoutedToo() {
+        assertThat(nodeWithCredentialsIn(readOnly)).startsWith("replica");
+        assertThat(nodeWithCredentialsIn(readWrite)).isEqualTo("primary");
+        assertThat(routing.inUse()).containsOnly(0);
+    }
+
+    @Test
+    void leastLoadedReplica() {
+        TransactionTemplate nested = new TransactionTemplate(readOnly.getTransactionManager());
+        nested.setReadOnly(true);
+        nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        readOnly.executeWithoutResult(status -> {
+            String busy = node();
+            for (int i = 0; i < 3; i++) {
+                assertThat(nodeIn(nested)).startsWith("replica").isNotEqualTo(busy);
+            }
+        });
+        assertThat(routing.inUse()).containsOnly(0);
+    }
+
+    @Test
+    void readYourWrites() {
+        readWrite.executeWithoutResult(status -> jdbc.update("UPDATE node SET name = name"));
+
+        assertThat(nodeIn(readOnly)).isEqualTo("primary");
+
+        readYourWrites.bind(Instant.now().minusSeconds(1), until -> {
+        });
+        assertThat(nodeIn(readOnly)).startsWith("replica");
+    }
+
+    @Test
+    void cookie() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(readYourWrites);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<String> read = new ArrayList<>();
+        filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> {
+            read.add(nodeIn(readOnly));
+            readWrite.executeWithoutResult(status -> jdbc.update("UPDATE node SET name = name"));
+        });
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getMaxAge()).isEqualTo(60);
+        assertThat(response.getHeaders(HttpHeaders.SET_COOKIE)).hasSize(1);
+
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.setCookies(cookie);
+        filter.doFilter(next, new MockHttpServletResponse(), (req, res) -> read.add(nodeIn(readOnly)));
+
+        assertThat(read.get(0)).startsWith("replica");
+        assertThat(read.get(1)).isEqualTo("primary");
+        assertThat(readYourWrites.pinned()).as("unbound after the request").isFalse();
+    }
+
+    private String node() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private String nodeWithCredentialsIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> nodeWithCredentials());
+    }
+
+    private String nodeWithCredentials() {
+        try (Connection connection = routing.getConnection("sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String nodeIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> node());
+    }
+
+    /**
+     * An in-memory database holding its own name, in place of a replicated one.
+     */
+    private static DataSource node(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        new JdbcTemplate(dataSource).execute("CREATE TABLE node (name VARCHAR(20))");
+        new JdbcTemplate(dataSource).update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,45 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.library.data.domain.Author;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries of {@link fr.uga.l3miage.library.data.repo.AuthorRepository}, each call in its own persistence context
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AuthorRepositoryBenchmark {
+
+    @Benchmark
+    public List<Author> all(Database db) {
+        return db.authorRepository.all();
+    }
+
+    @Benchmark
+    public List<Author> page(Database db) {
+        return db.authorRepository.page(Sort.Order.asc("fullName"), null, 100);
+    }
+
+    @Benchmark
+    public List<Author> searchByName(Database db) {
+        return db.authorRepository.searchByName(Fixtures.NAME_PART);
+    }
+
+    @Benchmark
+    public boolean checkAuthorByIdHavingCoAuthoredBooks(Database db) {
+        return db.authorRepository.checkAuthorByIdHavingCoAuthoredBooks(db.authorId);
+    }
+}
@@ -0,0 +1,50 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.service.mock.AuthorServiceMockImpl;
+import fr.uga.l3miage.library.service.mock.MockData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name search of the in memory service, over a fresh data set per number of authors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorSearchBenchmark {
+
+    @Param({"1000", "100000"})
+    public int authors;
+
+    private final AuthorServiceMockImpl authorService = new AuthorServiceMockImpl(new MockData());
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < authors; i++) {
+            authorService.save(Fixtures.newAuthor(random));
+        }
+    }
+
+    @Benchmark
+    public Collection<Author> searchByName() {
+        return authorService.searchByName(Fixtures.NAME_PART);
+    }
+}
@@ -0,0 +1,18 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.ComponentScan;
+
+/**
+ * Only the data layer, on the in memory database configured in {@code benchmarks.properties}
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan(basePackageClasses = Book.class)
+@ComponentScan(basePackageClasses = BookRepository.class)
+class BenchmarkApp {
+}
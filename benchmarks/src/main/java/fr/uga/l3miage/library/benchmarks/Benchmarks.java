@@ -0,0 +1,28 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of the benchmarks jar: the JMH command line, writing JSON results to {@code jmh-result.json} unless
+ * another format or file is given, so that two runs can be diffed.
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+        // to hide the public one
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(List.of(args));
+        if (!options.contains("-rf")) {
+            options.addAll(List.of("-rf", "json"));
+        }
+        if (!options.contains("-rff")) {
+            options.addAll(List.of("-rff", "jmh-result.json"));
+        }
+        Main.main(options.toArray(String[]::new));
+    }
+}
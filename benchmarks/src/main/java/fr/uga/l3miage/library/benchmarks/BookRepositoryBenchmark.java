@@ -0,0 +1,55 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.library.data.domain.Book;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries of {@link fr.uga.l3miage.library.data.repo.BookRepository}, each call in its own persistence context
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookRepositoryBenchmark {
+
+    @Benchmark
+    public List<Book> all(Database db) {
+        return db.bookRepository.all();
+    }
+
+    @Benchmark
+    public List<Book> page(Database db) {
+        return db.bookRepository.page(Sort.Order.asc("title"), null, 100);
+    }
+
+    @Benchmark
+    public List<Book> findByContainingTitle(Database db) {
+        return db.bookRepository.findByContainingTitle(Fixtures.TITLE_PART);
+    }
+
+    @Benchmark
+    public List<Book> findByAuthorIdAndContainingTitle(Database db) {
+        return db.bookRepository.findByAuthorIdAndContainingTitle(db.authorId, Fixtures.TITLE_PART);
+    }
+
+    @Benchmark
+    public List<Book> findBooksByAuthorContainingName(Database db) {
+        return db.bookRepository.findBooksByAuthorContainingName(Fixtures.NAME_PART);
+    }
+
+    @Benchmark
+    public List<Book> findBooksHavingAuthorCountGreaterThan(Database db) {
+        return db.bookRepository.findBooksHavingAuthorCountGreaterThan(1);
+    }
+}
@@ -0,0 +1,75 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.library.service.search.CatalogSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full-text search of the books, over a fresh on disk index per number of books.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogSearchBenchmark {
+
+    @Param({"100000", "5000000"})
+    public int books;
+
+    private Path directory;
+    private CatalogSearchIndex index;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("catalog-search");
+        index = new CatalogSearchIndex(null, null, null, directory, false);
+        Random random = new Random(42);
+        for (int i = 0; i < books; i++) {
+            index.put(i, Fixtures.title(random), Fixtures.publisher(random), List.of(Fixtures.fullName(random)));
+        }
+        index.commit();
+        index.refresh();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        index.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /**
+     * One frequent word, about one book out of ten
+     */
+    @Benchmark
+    public List<Long> oneWord() {
+        return index.search(Fixtures.TITLE_PART, 20);
+    }
+
+    /**
+     * Words of the title and of the author name
+     */
+    @Benchmark
+    public List<Long> titleAndAuthor() {
+        return index.search(Fixtures.TITLE_PART + " winter hugo", 20);
+    }
+}
@@ -0,0 +1,82 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.library.data.repo.AuthorRepository;
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * H2 database in MySQL mode, seeded once per trial with {@link #rows} books.
+ * <p>
+ * There is one author for ten books, every book has an author and one book out of ten has a co-author. Rows are
+ * inserted with plain JDBC batches, the repositories are only used by the benchmarks themselves.
+ */
+@State(Scope.Benchmark)
+public class Database {
+
+    private static final int CHUNK = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    ConfigurableApplicationContext context;
+    BookRepository bookRepository;
+    AuthorRepository authorRepository;
+    long authorId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BenchmarkApp.class).run("--spring.config.name=benchmarks");
+        bookRepository = context.getBean(BookRepository.class);
+        authorRepository = context.getBean(AuthorRepository.class);
+        seed(context.getBean(JdbcTemplate.class), rows);
+        authorId = 1L;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static void seed(JdbcTemplate jdbc, int books) {
+        Random random = new Random(42);
+        int authors = Math.max(1, books / 10);
+        insert(jdbc, "INSERT INTO author (id, full_name, version) VALUES (?, ?, 0)", authors,
+                i -> new Object[]{i, Fixtures.fullName(random)});
+        insert(jdbc, "INSERT INTO book (id, title, isbn, publisher, annee, language, version) VALUES (?, ?, ?, ?, ?, ?, 0)", books,
+                i -> new Object[]{i, Fixtures.title(random), Fixtures.isbn(random), Fixtures.publisher(random),
+                        Fixtures.year(random), random.nextBoolean() ? "FRENCH" : "ENGLISH"});
+        insert(jdbc, "INSERT INTO author_books (authors_id, books_id) VALUES (?, ?)", books,
+                i -> new Object[]{(i - 1) % authors + 1, i});
+        if (authors > 1) {
+            insert(jdbc, "INSERT INTO author_books (authors_id, books_id) VALUES (?, ?)", books / 10,
+                    i -> new Object[]{(i * 10) % authors + 1, i * 10});
+        }
+    }
+
+    private static void insert(JdbcTemplate jdbc, String sql, int count, IntFunction<Object[]> row) {
+        List<Object[]> chunk = new ArrayList<>(CHUNK);
+        for (int i = 1; i <= count; i++) {
+            chunk.add(row.apply(i));
+            if (chunk.size() == CHUNK) {
+                jdbc.batchUpdate(sql, chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            jdbc.batchUpdate(sql, chunk);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.domain.Book;
+
+import java.util.Random;
+
+/**
+ * Cheap and deterministic fake data, fast enough to generate a million rows
+ */
+final class Fixtures {
+
+    /**
+     * Searched in titles, appears in about one title out of ten
+     */
+    static final String TITLE_PART = "love";
+
+    /**
+     * Searched in author names, matches several first and last names
+     */
+    static final String NAME_PART = "mar";
+
+    private static final String[] WORDS = {
+            "the", "of", "and", "night", "love", "war", "peace", "garden", "river", "shadow", "king", "winter",
+            "summer", "city", "dream", "stone", "silent", "last", "first", "house", "sea", "fire", "glass", "road",
+            "secret", "lost", "golden", "empire", "storm", "light"
+    };
+    private static final String[] FIRST_NAMES = {
+            "Marie", "Jean", "Martin", "Anne", "Victor", "Emile", "Louise", "Marcel", "Claire", "Paul", "Agathe",
+            "Jules", "Simone", "Albert", "Colette", "Honore"
+    };
+    private static final String[] LAST_NAMES = {
+            "Hugo", "Zola", "Proust", "Sand", "Dumas", "Verne", "Camus", "Duras", "Balzac", "Flaubert", "Marceau",
+            "Colette", "Sagan", "Martel", "Yourcenar", "Beauvoir"
+    };
+    private static final String[] PUBLISHERS = {"Pocket", "Gallimard", "Folio", "Hachette", "Flammarion"};
+
+    private Fixtures() {
+        // to hide the public one
+    }
+
+    static String title(Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + ' ' + WORDS[random.nextInt(WORDS.length)] + ' '
+                + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    static String fullName(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + ' ' + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+
+    static String publisher(Random random) {
+        return PUBLISHERS[random.nextInt(PUBLISHERS.length)];
+    }
+
+    static long isbn(Random random) {
+        return 9_780_000_000_000L + random.nextInt(1_000_000_000);
+    }
+
+    static short year(Random random) {
+        return (short) (1800 + random.nextInt(225));
+    }
+
+    static Author newAuthor(Random random) {
+        Author author = new Author();
+        author.setFullName(fullName(random));
+        return author;
+    }
+
+    static Book newBook(Random random) {
+        Book book = new Book();
+        book.setTitle(title(random));
+        book.setIsbn(isbn(random));
+        book.setPublisher(publisher(random));
+        book.setYear(year(random));
+        book.setLanguage(random.nextBoolean() ? Book.Language.FRENCH : Book.Language.ENGLISH);
+        return book;
+    }
+}
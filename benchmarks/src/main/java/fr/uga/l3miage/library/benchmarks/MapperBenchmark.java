@@ -0,0 +1,75 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import fr.uga.l3miage.library.authors.AuthorDTO;
+import fr.uga.l3miage.library.authors.AuthorMapper;
+import fr.uga.l3miage.library.books.BookDTO;
+import fr.uga.l3miage.library.books.BooksMapper;
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.domain.Book;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of whole lists, as done by the list endpoints. Every book has two authors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private final BooksMapper booksMapper = Mappers.getMapper(BooksMapper.class);
+    private final AuthorMapper authorMapper = Mappers.getMapper(AuthorMapper.class);
+    private List<Book> books;
+    private List<Author> authors;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        authors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Author author = Fixtures.newAuthor(random);
+            author.setId((long) i);
+            authors.add(author);
+        }
+        books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Book book = Fixtures.newBook(random);
+            book.setId((long) i);
+            book.addAuthor(authors.get(i));
+            book.addAuthor(authors.get((i + 1) % size));
+            books.add(book);
+        }
+    }
+
+    @Benchmark
+    public Collection<BookDTO> books() {
+        return booksMapper.entityToDTO(books);
+    }
+
+    @Benchmark
+    public Collection<AuthorDTO> authors() {
+        return authorMapper.entityToDTO(authors);
+    }
+}
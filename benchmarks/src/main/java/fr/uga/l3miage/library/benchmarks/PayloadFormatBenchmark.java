@@ -0,0 +1,120 @@
+package fr.uga.l3miage.library.benchmarks;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import fr.uga.l3miage.library.books.BookDTO;
+import fr.uga.l3miage.library.books.BooksMapper;
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.formats.ProtobufRecordConverter;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of a book list body in each negotiated format. Every book has two authors. The payload size
+ * of each format is printed by {@link #main(String[])}, apart from the measured runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadFormatBenchmark {
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    public String format;
+
+    @Param({"10000"})
+    public int size;
+
+    private Object body;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        List<Author> authors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Author author = Fixtures.newAuthor(random);
+            author.setId((long) i);
+            authors.add(author);
+        }
+        List<Book> entities = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Book book = Fixtures.newBook(random);
+            book.setId((long) i);
+            book.addAuthor(authors.get(i));
+            book.addAuthor(authors.get((i + 1) % size));
+            entities.add(book);
+        }
+        List<BookDTO> books = List.copyOf(Mappers.getMapper(BooksMapper.class).entityToDTO(entities));
+
+        ObjectMapper mapper = switch (format) {
+            case "json" -> new ObjectMapper();
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> null;
+        };
+        if (mapper != null) {
+            JavaType type = mapper.getTypeFactory().constructCollectionType(List.class, BookDTO.class);
+            writer = mapper.writerFor(type);
+            reader = mapper.readerFor(type);
+            body = books;
+        } else {
+            ProtobufRecordConverter converter = new ProtobufRecordConverter();
+            JavaType type = converter.javaType(new ParameterizedTypeReference<List<BookDTO>>() {}.getType());
+            writer = converter.writer(type);
+            reader = converter.reader(type);
+            // a protobuf message cannot be a list, as done by the converter
+            body = new ProtobufRecordConverter.Items<>(books);
+        }
+        payload = encode();
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    /**
+     * Prints the payload size of each format, for the number of books given as argument, 10000 by default.
+     */
+    public static void main(String[] args) throws IOException {
+        for (String format : new String[]{"json", "cbor", "smile", "protobuf"}) {
+            PayloadFormatBenchmark benchmark = new PayloadFormatBenchmark();
+            benchmark.format = format;
+            benchmark.size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+            benchmark.setUp();
+            System.out.printf("%d books as %s: %d bytes%n", benchmark.size, format, benchmark.payload.length);
+        }
+    }
+}
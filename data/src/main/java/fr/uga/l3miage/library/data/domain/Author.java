@@ -1,13 +1,18 @@
 package fr.uga.l3miage.library.data.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
-@Table(name = "Author")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author")
+@Table(name = "Author", indexes = @Index(name = "author_full_name_id_idx", columnList = "fullName, id"))
 public class Author {
     @Id
     @GeneratedValue
@@ -16,7 +21,18 @@ public class Author {
     @Column(name = "fullName", length = 50)
     private String fullName;
 
+    /**
+     * Incremented on every update, used for optimistic locking and as the ETag of the author
+     */
+    @Version
+    private long version;
+
     @ManyToMany
+    @JoinTable(name = "author_books",
+            joinColumns = @JoinColumn(name = "authors_id"),
+            inverseJoinColumns = @JoinColumn(name = "books_id"))
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "author-books")
     private Set<Book> books;
 
     public Long getId() {
@@ -35,6 +51,14 @@ public class Author {
         this.fullName = fullName;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public Set<Book> getBooks() {
         return books;
     }
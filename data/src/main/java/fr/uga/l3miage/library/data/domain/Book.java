@@ -1,13 +1,18 @@
 package fr.uga.l3miage.library.data.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
 
 @Entity
-@Table(name = "Book")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
+@Table(name = "Book", indexes = @Index(name = "book_title_id_idx", columnList = "title, id"))
 
 @NamedQueries({
         @NamedQuery(name = "all-books", query = "SELECT b FROM Book b ORDER BY b.title ASC"),
@@ -17,11 +22,21 @@ import java.util.Set;
         @NamedQuery(name = "find-books-by-authors-name", query = "SELECT b FROM Book b JOIN b.authors a WHERE LOWER(a.fullName) LIKE CONCAT('%', LOWER(:namePart), '%') ORDER BY b.title ASC"),
         @NamedQuery(name = "find-books-by-several-authors", query = "SELECT b FROM Book b WHERE SIZE(b.authors) > :count")
 })
+@NamedEntityGraph(name = Book.WITH_AUTHORS, attributeNodes = @NamedAttributeNode("authors"))
 
 public class Book {
 
+    /**
+     * Entity graph loading the authors along with the books, to use on unpaged list queries
+     */
+    public static final String WITH_AUTHORS = "book-with-authors";
+
+    /**
+     * Ids are allocated by blocks through the pooled optimizer, so that bulk imports do not hit the sequence per row
+     */
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 500)
     private Long id;
 
     @Basic(optional = false)
@@ -31,7 +46,7 @@ public class Book {
 
     private String publisher;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Borrow borrow;
 
     @Column(name = "annee")
@@ -40,7 +55,16 @@ public class Book {
     @Enumerated(value = EnumType.STRING)
     private Language language;
 
+    /**
+     * Incremented on every update, used for optimistic locking and as the ETag of the book. Also incremented when the
+     * authors of the book change, although the association is owned by {@link Author}
+     */
+    @Version
+    private long version;
+
     @ManyToMany(mappedBy = "books")
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book-authors")
     private Set<Author> authors;
 
     public Long getId() {
@@ -91,6 +115,14 @@ public class Book {
         this.language = language;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     public Set<Author> getAuthors() {
         return authors;
     }
@@ -10,6 +10,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Table(name = "Borrow")
@@ -19,6 +20,7 @@ public class Borrow {
     @GeneratedValue
     private Long id;
     @OneToMany(mappedBy = "borrow")
+    @BatchSize(size = 100)
     private List<Book> books;
     private Date start;
 
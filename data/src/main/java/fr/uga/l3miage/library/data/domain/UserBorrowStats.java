@@ -0,0 +1,77 @@
+package fr.uga.l3miage.library.data.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.util.Objects;
+
+/**
+ * Borrow counters of a user, a projection of the borrow table maintained along with it so that reading them is a
+ * primary key lookup
+ */
+@Entity
+@Table(name = "user_borrow_stats")
+public class UserBorrowStats {
+
+    @Id
+    private String userId;
+
+    private long total;
+
+    private long inProgress;
+
+    private long late;
+
+    protected UserBorrowStats() {
+        // for JPA
+    }
+
+    public UserBorrowStats(String userId, long total, long inProgress, long late) {
+        this.userId = userId;
+        this.total = total;
+        this.inProgress = inProgress;
+        this.late = late;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return number of borrows, finished or not
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return number of borrows in progress
+     */
+    public long getInProgress() {
+        return inProgress;
+    }
+
+    /**
+     * @return number of borrows in progress whose requested return date has passed
+     */
+    public long getLate() {
+        return late;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (o == null || getClass() != o.getClass())
+            return false;
+        UserBorrowStats that = (UserBorrowStats) o;
+        return total == that.total && inProgress == that.inProgress && late == that.late
+                && Objects.equals(userId, that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, total, inProgress, late);
+    }
+}
@@ -0,0 +1,37 @@
+package fr.uga.l3miage.library.data.repo;
+
+import fr.uga.l3miage.library.data.domain.Author;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Projection partielle d'un auteur, les champs non sélectionnés sont null
+ */
+public record AuthorFields(Long id, String fullName) {
+
+    static final Fields FIELDS = new Fields(List.of("id", "fullName"));
+
+    /**
+     * @return les champs à sélectionner pour une page dans l'ordre donné, l'id et la clé de tri étant toujours inclus
+     * @throws IllegalArgumentException si un champ demandé n'existe pas
+     */
+    public static List<String> select(Collection<String> requested, Sort.Order order) {
+        return FIELDS.select(requested, order);
+    }
+
+    static AuthorFields of(Object[] values) {
+        return new AuthorFields((Long) values[0], (String) values[1]);
+    }
+
+    /**
+     * Projette un auteur déjà chargé, comme le ferait {@link AuthorRepository#pageFields}
+     *
+     * @param selected les champs renvoyés par {@link #select(Collection, Sort.Order)}
+     */
+    public static AuthorFields of(Author author, List<String> selected) {
+        return new AuthorFields(author.getId(), selected.contains("fullName") ? author.getFullName() : null);
+    }
+}
@@ -4,14 +4,21 @@ import fr.uga.l3miage.library.data.domain.Author;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.TypedQuery;
 
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Repository
 public class AuthorRepository implements CRUDRepository<Long, Author> {
 
+    private static final String DELETE_BOOK_LINKS = "DELETE FROM author_books WHERE authors_id IN (:ids)";
+
     private final EntityManager entityManager;
 
     @Autowired
@@ -41,14 +48,99 @@ public class AuthorRepository implements CRUDRepository<Long, Author> {
      * @return une liste d'auteurs trié par nom
      */
     @Override
+    @QueryName("all-authors")
     public List<Author> all() {
         // requete pour obtenir le nom des authors triés par nom
-        String query = "select a FROM Author ORDER BY a.fullname ASC";
+        String query = "SELECT a FROM Author a ORDER BY a.fullName ASC";
 
         // retourne la liste des autheurs
         return entityManager.createQuery(query, Author.class).getResultList();
     }
 
+    /**
+     * Parcourt tous les auteurs par paquets, sans jamais les garder tous en mémoire
+     *
+     * @param action appelée pour chaque auteur
+     */
+    @QueryName("scroll-authors")
+    public void scroll(Consumer<? super Author> action) {
+        Chunks.forEach(entityManager, Author.class, "SELECT a FROM Author a", "a", Author::getId, action);
+    }
+
+    /**
+     * Renvoie une page d'auteurs, en reprenant après le dernier auteur de la page précédente
+     *
+     * @param order tri sur {@code fullName} ou {@code id}, l'id départage toujours les ex-aequo
+     * @param after position du dernier auteur de la page précédente, null pour la première page
+     * @param limit nombre maximum d'auteurs
+     * @return une liste d'auteurs
+     */
+    @QueryName("page-authors")
+    public List<Author> page(Sort.Order order, Keyset after, int limit) {
+        return Keyset.seek(entityManager, Author.class, "SELECT a FROM Author a", null, "a", "fullName", order, after, limit)
+                .getResultList();
+    }
+
+    /**
+     * Renvoie une page d'auteurs réduits aux champs demandés, sans charger les entités
+     *
+     * @param fields les champs demandés parmi ceux de {@link AuthorFields}
+     * @param order  tri sur {@code fullName} ou {@code id}, l'id départage toujours les ex-aequo
+     * @param after  position du dernier auteur de la page précédente, null pour la première page
+     * @param limit  nombre maximum d'auteurs
+     * @return une liste de projections, dont l'id et la clé de tri sont toujours renseignés
+     */
+    @QueryName("page-author-fields")
+    public List<AuthorFields> pageFields(Collection<String> fields, Sort.Order order, Keyset after, int limit) {
+        return AuthorFields.FIELDS.page(entityManager, "Author", "a", "fullName", fields, order, after, limit).stream()
+                .map(AuthorFields::of)
+                .toList();
+    }
+
+    /**
+     * Renvoie l'id et le nom de tous les auteurs, sans charger les entités
+     *
+     * @return une liste de paires [id, nom]
+     */
+    @QueryName("all-author-ids-and-names")
+    public List<Object[]> allIdsAndNames() {
+        return entityManager.createQuery("SELECT a.id, a.fullName FROM Author a", Object[].class).getResultList();
+    }
+
+    /**
+     * Renvoie les auteurs des ids donnés, dans leur ordre. Ceux déjà présents dans le contexte de persistance ou, si le mode
+     * de cache de la session le permet, dans le cache de second niveau n'en sont pas relus, les autres sont chargés par requêtes IN dont la taille est bornée par le
+     * dialecte, selon la limite de paramètres de la base
+     *
+     * @param ids les ids des auteurs, sans doublon
+     * @return une liste de même taille que {@code ids}, avec null à la place des auteurs qui n'existent pas
+     */
+    @QueryName("get-authors-by-ids")
+    public List<Author> getAll(List<Long> ids) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.byMultipleIds(Author.class)
+                .with(session.getCacheMode())
+                .enableSessionCheck(true)
+                .enableOrderedReturn(true)
+                .multiLoad(ids);
+    }
+
+    /**
+     * Renvoie les auteurs correspondant aux ids donnés, en une seule requête
+     *
+     * @param ids les ids des auteurs
+     * @return une liste d'auteurs, sans ceux qui n'existent pas
+     */
+    @QueryName("find-authors-by-ids")
+    public List<Author> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("SELECT a FROM Author a WHERE a.id IN :ids", Author.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
     /**
      * Recherche un auteur par nom (ou partie du nom) de façon insensible à la
      * casse.
@@ -56,6 +148,7 @@ public class AuthorRepository implements CRUDRepository<Long, Author> {
      * @param namePart tout ou partie du nomde l'auteur
      * @return une liste d'auteurs trié par nom
      */
+    @QueryName("search-authors-by-name")
     public List<Author> searchByName(String namePart) {
         TypedQuery<Author> query = entityManager.createQuery(
                 "SELECT a FROM Author a WHERE a.fullName LIKE CONCAT('%', :namePart, '%')",
@@ -69,6 +162,7 @@ public class AuthorRepository implements CRUDRepository<Long, Author> {
      *
      * @return true si l'auteur partage
      */
+    @QueryName("check-author-having-co-authored-books")
     public boolean checkAuthorByIdHavingCoAuthoredBooks(long authorId) {
 
         String query = "SELECT COUNT(*) FROM Book b JOIN b.authors a WHERE a.id = :authorId AND EXISTS (SELECT 1 FROM Book b2 JOIN b2.authors a2 WHERE a2.id <> a.id AND b2.id = b.id)";
@@ -80,4 +174,111 @@ public class AuthorRepository implements CRUDRepository<Long, Author> {
         return count > 0;
     }
 
-}
\ No newline at end of file
+    /**
+     * Renvoie la version d'un auteur sans le charger
+     *
+     * @param id id de l'auteur
+     * @return la version, ou null si l'auteur n'existe pas
+     */
+    @QueryName("find-author-version")
+    public Long findVersion(Long id) {
+        return entityManager.createQuery("SELECT a.version FROM Author a WHERE a.id = :id", Long.class)
+                .setParameter("id", id)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Renvoie, parmi les ids donnés, ceux des auteurs qui existent, sans charger les entités
+     *
+     * @param ids les ids des auteurs
+     * @return une liste d'ids
+     */
+    @QueryName("find-existing-author-ids")
+    public List<Long> findExistingIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("SELECT a.id FROM Author a WHERE a.id IN :ids", Long.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Version ensembliste de {@link #checkAuthorByIdHavingCoAuthoredBooks(long)} : une seule requête pour tous les
+     * auteurs donnés
+     *
+     * @param authorIds les ids des auteurs
+     * @return les ids de ceux qui ont au moins un livre co-écrit avec un autre auteur
+     */
+    @QueryName("find-authors-having-co-authored-books")
+    public List<Long> findIdsHavingCoAuthoredBooks(Collection<Long> authorIds) {
+        if (authorIds.isEmpty()) {
+            return List.of();
+        }
+        String query = "SELECT DISTINCT a.id FROM Book b JOIN b.authors a WHERE a.id IN :authorIds AND EXISTS (SELECT 1 FROM Book b2 JOIN b2.authors a2 WHERE a2.id <> a.id AND b2.id = b.id)";
+        return entityManager.createQuery(query, Long.class)
+                .setParameter("authorIds", authorIds)
+                .getResultList();
+    }
+
+    /**
+     * Renvoie les ids des livres des auteurs donnés, sans charger les entités
+     *
+     * @param authorIds les ids des auteurs
+     * @return une liste d'ids de livres, sans doublon
+     */
+    @QueryName("find-book-ids-of-authors")
+    public List<Long> findBookIds(Collection<Long> authorIds) {
+        if (authorIds.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("SELECT DISTINCT b.id FROM Author a JOIN a.books b WHERE a.id IN :authorIds", Long.class)
+                .setParameter("authorIds", authorIds)
+                .getResultList();
+    }
+
+    /**
+     * Comme {@link #findBookIds(Collection)}, avec l'ISBN de chaque livre
+     *
+     * @param authorIds les ids des auteurs
+     * @return une liste de paires [id, isbn], sans doublon
+     */
+    @QueryName("find-book-ids-and-isbns-of-authors")
+    public List<Object[]> findBookIdsAndIsbns(Collection<Long> authorIds) {
+        if (authorIds.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery("SELECT DISTINCT b.id, b.isbn FROM Author a JOIN a.books b WHERE a.id IN :authorIds", Object[].class)
+                .setParameter("authorIds", authorIds)
+                .getResultList();
+    }
+
+    /**
+     * Supprime des auteurs et leurs liens vers leurs livres en deux requêtes, quel que soit le nombre de lignes. Les
+     * livres eux-mêmes ne sont pas supprimés, voir {@link BookRepository#deleteAllById(List)}
+     * <p>
+     * Ces requêtes ne passent pas par le contexte de persistance : les entités déjà chargées ne sont pas mises à jour,
+     * seules les régions du cache de second niveau concernées sont invalidées
+     *
+     * @param ids les ids des auteurs
+     * @return le nombre d'auteurs supprimés
+     */
+    @QueryName("delete-authors-by-ids")
+    public int deleteAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        entityManager.createNativeQuery(DELETE_BOOK_LINKS)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace("author_books")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return entityManager.createQuery("DELETE FROM Author a WHERE a.id IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+}
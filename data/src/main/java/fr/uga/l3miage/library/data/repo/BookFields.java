@@ -0,0 +1,43 @@
+package fr.uga.l3miage.library.data.repo;
+
+import fr.uga.l3miage.library.data.domain.Book;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Projection partielle d'un livre, les champs non sélectionnés sont null
+ */
+public record BookFields(Long id, String title, Long isbn, String publisher, Short year, Book.Language language) {
+
+    static final Fields FIELDS = new Fields(List.of("id", "title", "isbn", "publisher", "year", "language"));
+
+    /**
+     * @return les champs à sélectionner pour une page dans l'ordre donné, l'id et la clé de tri étant toujours inclus
+     * @throws IllegalArgumentException si un champ demandé n'existe pas
+     */
+    public static List<String> select(Collection<String> requested, Sort.Order order) {
+        return FIELDS.select(requested, order);
+    }
+
+    static BookFields of(Object[] values) {
+        return new BookFields((Long) values[0], (String) values[1], (Long) values[2], (String) values[3],
+                (Short) values[4], (Book.Language) values[5]);
+    }
+
+    /**
+     * Projette un livre déjà chargé, comme le ferait {@link BookRepository#pageFields}
+     *
+     * @param selected les champs renvoyés par {@link #select(Collection, Sort.Order)}
+     */
+    public static BookFields of(Book book, List<String> selected) {
+        return new BookFields(book.getId(),
+                selected.contains("title") ? book.getTitle() : null,
+                selected.contains("isbn") ? book.getIsbn() : null,
+                selected.contains("publisher") ? book.getPublisher() : null,
+                selected.contains("year") ? book.getYear() : null,
+                selected.contains("language") ? book.getLanguage() : null);
+    }
+}
@@ -1,15 +1,46 @@
 package fr.uga.l3miage.library.data.repo;
 
+import fr.uga.l3miage.library.data.domain.Author;
 import fr.uga.l3miage.library.data.domain.Book;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Repository
 public class BookRepository implements CRUDRepository<Long, Book> {
 
+    /**
+     * Les requêtes paginées n'utilisent pas ce graphe (LIMIT et fetch de collection sont incompatibles), les auteurs
+     * y sont chargés par lots grâce à {@code @BatchSize}
+     */
+    static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+
+    /**
+     * Nombre de lignes ramenées par aller-retour lors des parcours en flux
+     */
+    static final String FETCH_SIZE = "org.hibernate.fetchSize";
+
+    /**
+     * Taille des lots JDBC pour l'insertion des liens auteur-livre, alignée sur {@code hibernate.jdbc.batch_size}
+     */
+    static final int BATCH_SIZE = 500;
+
+    private static final String SEARCH_ROWS = "SELECT b.id, b.title, b.publisher, a.fullName FROM Book b LEFT JOIN b.authors a";
+
+    private static final String INSERT_AUTHOR_LINK = "INSERT INTO author_books (authors_id, books_id) VALUES (?, ?)";
+
     private final EntityManager entityManager;
 
     @Autowired
@@ -23,6 +54,40 @@ public class BookRepository implements CRUDRepository<Long, Book> {
         return author;
     }
 
+    /**
+     * Enregistre des livres en masse. Les liens vers leurs auteurs sont insérés directement par lots JDBC, sans passer
+     * par les collections {@code Author.books} qu'il faudrait sinon charger entièrement
+     *
+     * @param books des livres nouveaux, dont les auteurs (existants) sont déjà renseignés
+     */
+    @QueryName("save-books")
+    public void saveAll(List<Book> books) {
+        books.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_AUTHOR_LINK)) {
+                int pending = 0;
+                for (Book book : books) {
+                    if (book.getAuthors() == null) {
+                        continue;
+                    }
+                    for (Author author : book.getAuthors()) {
+                        statement.setLong(1, author.getId());
+                        statement.setLong(2, book.getId());
+                        statement.addBatch();
+                        if (++pending == BATCH_SIZE) {
+                            statement.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+        });
+    }
+
     @Override
     public Book get(Long id) {
         return entityManager.find(Book.class, id);
@@ -33,13 +98,227 @@ public class BookRepository implements CRUDRepository<Long, Book> {
         entityManager.remove(author);
     }
 
+    /**
+     * Renvoie la version d'un livre sans le charger
+     *
+     * @param id id du livre
+     * @return la version, ou null si le livre n'existe pas
+     */
+    @QueryName("find-book-version")
+    public Long findVersion(Long id) {
+        return entityManager.createQuery("SELECT b.version FROM Book b WHERE b.id = :id", Long.class)
+                .setParameter("id", id)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Incrémente immédiatement la version d'un livre dont seuls les auteurs ont changé, l'association appartenant à
+     * {@link Author}. La ligne reste verrouillée jusqu'à la fin de la transaction
+     *
+     * @param book un livre chargé dans la transaction courante
+     */
+    @QueryName("increment-book-version")
+    public void incrementVersion(Book book) {
+        entityManager.lock(book, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+    }
+
+    /**
+     * Supprime des livres sans les charger, par lots de {@link #BATCH_SIZE} ids par requête. Les liens vers leurs
+     * auteurs doivent avoir été supprimés avant, voir {@link AuthorRepository#deleteAllById(Collection)}
+     *
+     * @param ids les ids des livres
+     * @return le nombre de livres supprimés
+     */
+    @QueryName("delete-books-by-ids")
+    public int deleteAllById(List<Long> ids) {
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            deleted += entityManager.createQuery("DELETE FROM Book b WHERE b.id IN :ids")
+                    .setParameter("ids", ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())))
+                    .executeUpdate();
+        }
+        return deleted;
+    }
+
     /**
      * Renvoie tous les auteurs par ordre alphabétique
      * 
      * @return une liste de livres
      */
+    @QueryName("all-books")
     public List<Book> all() {
-        return entityManager.createNamedQuery("all-books", Book.class).getResultList();
+        return entityManager.createNamedQuery("all-books", Book.class)
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph(Book.WITH_AUTHORS))
+                .getResultList();
+    }
+
+    /**
+     * Parcourt tous les livres par paquets, sans jamais les garder tous en mémoire
+     *
+     * @param action appelée pour chaque livre, dont les auteurs sont chargés par lots
+     */
+    @QueryName("scroll-books")
+    public void scroll(Consumer<? super Book> action) {
+        Chunks.forEach(entityManager, Book.class, "SELECT b FROM Book b", "b", Book::getId, action);
+    }
+
+    /**
+     * Renvoie une page de livres, en reprenant après le dernier livre de la page précédente
+     *
+     * @param order tri sur {@code title} ou {@code id}, l'id départage toujours les ex-aequo
+     * @param after position du dernier livre de la page précédente, null pour la première page
+     * @param limit nombre maximum de livres
+     * @return une liste de livres
+     */
+    @QueryName("page-books")
+    public List<Book> page(Sort.Order order, Keyset after, int limit) {
+        return Keyset.seek(entityManager, Book.class, "SELECT b FROM Book b", null, "b", "title", order, after, limit)
+                .getResultList();
+    }
+
+    /**
+     * Renvoie une page de livres réduits aux champs demandés, sans charger les entités
+     *
+     * @param fields les champs demandés parmi ceux de {@link BookFields}
+     * @param order  tri sur {@code title} ou {@code id}, l'id départage toujours les ex-aequo
+     * @param after  position du dernier livre de la page précédente, null pour la première page
+     * @param limit  nombre maximum de livres
+     * @return une liste de projections, dont l'id et la clé de tri sont toujours renseignés
+     */
+    @QueryName("page-book-fields")
+    public List<BookFields> pageFields(Collection<String> fields, Sort.Order order, Keyset after, int limit) {
+        return BookFields.FIELDS.page(entityManager, "Book", "b", "title", fields, order, after, limit).stream()
+                .map(BookFields::of)
+                .toList();
+    }
+
+    /**
+     * Renvoie une page des livres d'un auteur, en reprenant après le dernier livre de la page précédente
+     *
+     * @param authorId id de l'auteur
+     * @param order    tri sur {@code title} ou {@code id}, l'id départage toujours les ex-aequo
+     * @param after    position du dernier livre de la page précédente, null pour la première page
+     * @param limit    nombre maximum de livres
+     * @return une liste de livres
+     */
+    @QueryName("page-books-by-author")
+    public List<Book> pageByAuthor(Long authorId, Sort.Order order, Keyset after, int limit) {
+        return Keyset.seek(entityManager, Book.class, "SELECT b FROM Book b JOIN b.authors a", "a.id = :authorId", "b", "title", order, after, limit)
+                .setParameter("authorId", authorId)
+                .getResultList();
+    }
+
+    /**
+     * Renvoie l'id et le titre de tous les livres, sans charger les entités
+     *
+     * @return une liste de paires [id, titre]
+     */
+    @QueryName("all-book-ids-and-titles")
+    public List<Object[]> allIdsAndTitles() {
+        return entityManager.createQuery("SELECT b.id, b.title FROM Book b", Object[].class).getResultList();
+    }
+
+    /**
+     * Parcourt l'ISBN et l'id de tous les livres ayant un ISBN, en flux, sans charger les entités ni garder toutes les
+     * lignes en mémoire
+     *
+     * @param action appelée avec l'ISBN et l'id de chaque livre
+     */
+    @QueryName("scroll-book-isbns")
+    public void scrollIsbns(BiConsumer<Long, Long> action) {
+        try (Stream<Object[]> rows = entityManager.createQuery("SELECT b.isbn, b.id FROM Book b WHERE b.isbn <> 0", Object[].class)
+                .setHint(FETCH_SIZE, BATCH_SIZE)
+                .getResultStream()) {
+            rows.forEach(row -> action.accept((Long) row[0], (Long) row[1]));
+        }
+    }
+
+    /**
+     * Parcourt la langue, l'année et l'éditeur de tous les livres, en flux, sans charger les entités ni garder toutes
+     * les lignes en mémoire
+     *
+     * @param action appelée avec une ligne [id, langue, année, éditeur] par livre
+     */
+    @QueryName("scroll-book-facets")
+    public void scrollFacets(Consumer<Object[]> action) {
+        try (Stream<Object[]> rows = entityManager.createQuery("SELECT b.id, b.language, b.year, b.publisher FROM Book b", Object[].class)
+                .setHint(FETCH_SIZE, BATCH_SIZE)
+                .getResultStream()) {
+            rows.forEach(action);
+        }
+    }
+
+    /**
+     * Renvoie les champs indexés en plein texte des livres donnés, sans charger les entités : une ligne [id, titre,
+     * éditeur, nom d'auteur] par auteur, ou une seule ligne sans nom pour un livre sans auteur
+     *
+     * @param ids les ids des livres
+     * @return les lignes, groupées par livre
+     */
+    @QueryName("book-search-rows")
+    public List<Object[]> searchRows(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return entityManager.createQuery(SEARCH_ROWS + " WHERE b.id IN :ids ORDER BY b.id", Object[].class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Parcourt les champs indexés en plein texte de tous les livres, en flux, comme {@link #searchRows(Collection)}
+     *
+     * @param action appelée pour chaque ligne, les lignes d'un même livre se suivant
+     */
+    @QueryName("scroll-book-search-rows")
+    public void scrollSearchRows(Consumer<Object[]> action) {
+        try (Stream<Object[]> rows = entityManager.createQuery(SEARCH_ROWS + " ORDER BY b.id", Object[].class)
+                .setHint(FETCH_SIZE, BATCH_SIZE)
+                .getResultStream()) {
+            rows.forEach(action);
+        }
+    }
+
+    /**
+     * Renvoie les livres des ids donnés, dans leur ordre. Ceux déjà présents dans le contexte de persistance ou, si le mode
+     * de cache de la session le permet, dans le cache de second niveau n'en sont pas relus, les autres sont chargés par requêtes IN dont la taille est bornée par le
+     * dialecte, selon la limite de paramètres de la base
+     *
+     * @param ids les ids des livres, sans doublon
+     * @return une liste de même taille que {@code ids}, avec null à la place des livres qui n'existent pas
+     */
+    @QueryName("get-books-by-ids")
+    public List<Book> getAll(List<Long> ids) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.byMultipleIds(Book.class)
+                .with(session.getCacheMode())
+                .enableSessionCheck(true)
+                .enableOrderedReturn(true)
+                .multiLoad(ids);
+    }
+
+    /**
+     * Renvoie les livres correspondant aux ids donnés par ordre alphabétique. Les ids sont découpés en paquets de
+     * {@link #BATCH_SIZE}, pour rester sous la limite de paramètres de la base quel que soit leur nombre
+     *
+     * @param ids les ids des livres
+     * @return une liste de livres
+     */
+    @QueryName("find-books-by-ids")
+    public List<Book> findAllById(Collection<Long> ids) {
+        List<Long> all = List.copyOf(ids);
+        List<Book> books = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += BATCH_SIZE) {
+            books.addAll(entityManager.createQuery("SELECT b FROM Book b WHERE b.id IN :ids", Book.class)
+                    .setHint(FETCH_GRAPH, entityManager.getEntityGraph(Book.WITH_AUTHORS))
+                    .setParameter("ids", all.subList(from, Math.min(from + BATCH_SIZE, all.size())))
+                    .getResultList());
+        }
+        books.sort(Comparator.comparing(Book::getTitle, Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+        return books;
     }
 
     /**
@@ -49,10 +328,11 @@ public class BookRepository implements CRUDRepository<Long, Book> {
      * @param titlePart tout ou partie du titre
      * @return une liste de livres
      */
+    @QueryName("find-books-by-title")
     public List<Book> findByContainingTitle(String titlePart) {
 
         return entityManager.createNamedQuery("find-books-by-title", Book.class)
-
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph(Book.WITH_AUTHORS))
                 .setParameter("titlePart", titlePart)
                 .getResultList();
     }
@@ -65,6 +345,7 @@ public class BookRepository implements CRUDRepository<Long, Book> {
      * @param titlePart tout ou partie d'un titre de livré
      * @return une liste de livres
      */
+    @QueryName("find-books-by-author-and-title")
     public List<Book> findByAuthorIdAndContainingTitle(Long authorId, String titlePart) {
         return entityManager.createNamedQuery("find-books-by-author-and-title", Book.class)
 
@@ -80,8 +361,10 @@ public class BookRepository implements CRUDRepository<Long, Book> {
      * @param namePart tout ou partie du nom
      * @return une liste de livres
      */
+    @QueryName("find-books-by-authors-name")
     public List<Book> findBooksByAuthorContainingName(String namePart) {
         return entityManager.createNamedQuery("find-books-by-authors-name", Book.class)
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph(Book.WITH_AUTHORS))
                 .setParameter("namePart", namePart)
                 .getResultList();
     }
@@ -92,6 +375,7 @@ public class BookRepository implements CRUDRepository<Long, Book> {
      * @param count le compte minimum d'auteurs
      * @return une liste de livres
      */
+    @QueryName("find-books-by-several-authors")
     public List<Book> findBooksHavingAuthorCountGreaterThan(int count) {
         return entityManager.createNamedQuery("find-books-by-several-authors", Book.class)
                 .setParameter("count", count)
@@ -9,9 +9,10 @@ import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Repository
-public class BorrowRepository implements CRUDRepository<String, Borrow> {
+public class BorrowRepository implements CRUDRepository<Long, Borrow> {
 
     private final EntityManager entityManager;
 
@@ -27,7 +28,7 @@ public class BorrowRepository implements CRUDRepository<String, Borrow> {
     }
 
     @Override
-    public Borrow get(String id) {
+    public Borrow get(Long id) {
         return entityManager.find(Borrow.class, id);
     }
 
@@ -37,16 +38,42 @@ public class BorrowRepository implements CRUDRepository<String, Borrow> {
     }
 
     @Override
+    @QueryName("all-borrows")
     public List<Borrow> all() {
         return entityManager.createQuery("from Borrow", Borrow.class).getResultList();
     }
 
+    /**
+     * Parcourt tous les emprunts par paquets, sans jamais les garder tous en mémoire
+     *
+     * @param action appelée pour chaque emprunt, avec son emprunteur et son bibliothécaire
+     */
+    @QueryName("scroll-borrows")
+    public void scroll(Consumer<? super Borrow> action) {
+        Chunks.forEach(entityManager, Borrow.class,
+                "SELECT b FROM Borrow b LEFT JOIN FETCH b.borrower LEFT JOIN FETCH b.librarian", "b", Borrow::getId, action);
+    }
+
+    /**
+     * Renvoie l'id et la date de retour prévue de tous les emprunts en cours, sans charger les entités
+     *
+     * @return une liste de paires [id, date de retour prévue]
+     */
+    @QueryName("all-open-borrow-ids-and-requested-returns")
+    public List<Object[]> allOpenIdsAndRequestedReturns() {
+        return entityManager.createQuery(
+                        "SELECT b.id, b.requestedReturn FROM Borrow b WHERE b.finished = false AND b.requestedReturn IS NOT NULL",
+                        Object[].class)
+                .getResultList();
+    }
+
     /**
      * Trouver des emprunts en cours pour un emprunteur donné
      *
      * @param userId l'id de l'emprunteur
      * @return la liste des emprunts en cours
      */
+    @QueryName("find-borrows-in-progress-by-user")
     public List<Borrow> findInProgressByUser(String userId) {
         // String query1 = "FROM Borrow b JOIN b.copy c JOIN c.book bk JOIN b.user u
         // WHERE u.id = :userId AND b.returnDate IS NULL";
@@ -64,6 +91,7 @@ public class BorrowRepository implements CRUDRepository<String, Borrow> {
      * @param userId l'id de l'emprunteur
      * @return le nombre de livre
      */
+    @QueryName("count-borrowed-books-by-user")
     public int countBorrowedBooksByUser(String userId) {
         String query1 = "SELECT COUNT(*) FROM Book b LEFT JOIN Borrow b LEFT JOIN User u where u.id = :userId ";
         var query = entityManager.createQuery(query1, Long.class).setParameter("userId", userId);
@@ -77,6 +105,7 @@ public class BorrowRepository implements CRUDRepository<String, Borrow> {
      * @param userId l'id de l'emprunteur
      * @return le nombre de livre
      */
+    @QueryName("count-current-borrowed-books-by-user")
     public int countCurrentBorrowedBooksByUser(String userId) {
         List<Borrow> inProgressBorrows = findInProgressByUser(userId);
         return inProgressBorrows.size();
@@ -87,6 +116,7 @@ public class BorrowRepository implements CRUDRepository<String, Borrow> {
      *
      * @return la liste des emprunt en retard
      */
+    @QueryName("found-all-late-borrows")
     public List<Borrow> foundAllLateBorrow() {
         var query = entityManager.createQuery(
                 "SELECT b FROM Borrow b WHERE b.returnDate IS NULL AND b.dueDate < CURRENT_TIMESTAMP ORDER BY b.dueDate",
@@ -101,6 +131,7 @@ public class BorrowRepository implements CRUDRepository<String, Borrow> {
      * 
      * @return les emprunt qui sont bientôt en retard
      */
+    @QueryName("find-borrows-late-within")
     public List<Borrow> findAllBorrowThatWillLateWithin(int days) {
         String query = "SELECT b FROM Borrow b WHERE b.requestedReturn <= :date";
         return entityManager
@@ -109,6 +140,7 @@ public class BorrowRepository implements CRUDRepository<String, Borrow> {
                 .getResultList();
     }
 
+    @QueryName("find-all-late-borrows")
     public List<Borrow> findAllLateBorrow() {
         String query = "SELECT b FROM Borrow b WHERE b.requestedReturn < :date";
 
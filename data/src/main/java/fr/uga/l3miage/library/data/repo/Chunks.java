@@ -0,0 +1,42 @@
+package fr.uga.l3miage.library.data.repo;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Forward-only iteration over a whole table, one keyset chunk at a time.
+ * <p>
+ * Each chunk is read in id order after the last id of the previous one, handed to the action, then the persistence
+ * context is cleared: the heap stays flat whatever the size of the table, and lazy associations of a chunk can still
+ * be batch fetched while it is processed. Rows are neither dirty-checked nor put in the second level cache.
+ */
+final class Chunks {
+
+    static final int SIZE = 500;
+
+    private Chunks() {
+        // to hide the public one
+    }
+
+    static <E> void forEach(EntityManager entityManager, Class<E> type, String from, String alias,
+                            Function<E, Long> id, Consumer<? super E> action) {
+        Keyset after = null;
+        List<E> chunk;
+        do {
+            chunk = Keyset.seek(entityManager, type, from, null, alias, Keyset.ID, Sort.Order.asc(Keyset.ID), after, SIZE)
+                    .setHint("org.hibernate.readOnly", true)
+                    .setHint("jakarta.persistence.cache.storeMode", CacheStoreMode.BYPASS)
+                    .getResultList();
+            chunk.forEach(action);
+            if (!chunk.isEmpty()) {
+                after = new Keyset(null, id.apply(chunk.get(chunk.size() - 1)));
+            }
+            entityManager.clear();
+        } while (chunk.size() == SIZE);
+    }
+}
@@ -0,0 +1,67 @@
+package fr.uga.l3miage.library.data.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Projection partielle d'une entité ({@code fields=}) : seules les colonnes demandées sont sélectionnées, les lignes
+ * sont lues en {@link Tuple} sans hydrater d'entité ni rien attacher au contexte de persistance.
+ *
+ * @param names tous les champs projetables, dans l'ordre des composants du record de projection
+ */
+record Fields(List<String> names) {
+
+    /**
+     * Choisit les champs à sélectionner : l'id et la clé de tri sont toujours inclus, pour l'identité des lignes et
+     * le curseur de la page suivante.
+     *
+     * @param requested les champs demandés
+     * @param order     l'ordre de la page
+     * @return les champs, dans l'ordre de {@link #names()}
+     * @throws IllegalArgumentException si un champ demandé n'existe pas
+     */
+    List<String> select(Collection<String> requested, Sort.Order order) {
+        Set<String> selected = new LinkedHashSet<>(requested);
+        selected.add(Keyset.ID);
+        selected.add(order.getProperty());
+        for (String field : selected) {
+            if (!names.contains(field)) {
+                throw new IllegalArgumentException("unknown field " + field);
+            }
+        }
+        return names.stream().filter(selected::contains).toList();
+    }
+
+    /**
+     * Renvoie une page projetée, voir {@link Keyset#seek}
+     *
+     * @param entity le nom de l'entité
+     * @param alias  son alias
+     * @return pour chaque ligne, la valeur de chacun des {@link #names()}, null pour les champs non sélectionnés
+     */
+    List<Object[]> page(EntityManager entityManager, String entity, String alias, String keyProperty,
+                        Collection<String> requested, Sort.Order order, Keyset after, int limit) {
+        List<String> selected = select(requested, order);
+        String from = selected.stream()
+                .map(field -> alias + "." + field)
+                .collect(Collectors.joining(", ", "SELECT ", " FROM " + entity + " " + alias));
+        return Keyset.seek(entityManager, Tuple.class, from, null, alias, keyProperty, order, after, limit)
+                .getResultList()
+                .stream()
+                .map(tuple -> {
+                    Object[] values = new Object[names.size()];
+                    for (int i = 0; i < selected.size(); i++) {
+                        values[names.indexOf(selected.get(i))] = tuple.get(i);
+                    }
+                    return values;
+                })
+                .toList();
+    }
+}
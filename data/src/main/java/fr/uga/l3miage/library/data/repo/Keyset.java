@@ -0,0 +1,70 @@
+package fr.uga.l3miage.library.data.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position of the last row of a page, used to seek the next page without OFFSET.
+ *
+ * @param key value of the sort column of the last row, null when sorting on id
+ * @param id  id of the last row, always used as tie-breaker so the order is stable
+ */
+public record Keyset(String key, Long id) {
+
+    static final String ID = "id";
+
+    /**
+     * Builds a keyset query: rows strictly after {@code after} in the given order, at most {@code limit} rows.
+     * The seek predicate is written as {@code key >= :k AND (key > :k OR id > :id)} so that the database can
+     * range-scan the index on (key, id).
+     *
+     * @param from        the select and from clause, e.g. {@code SELECT b FROM Book b}
+     * @param where       an optional where condition (without the WHERE keyword), may be null
+     * @param alias       the alias of the paged entity
+     * @param keyProperty the only sortable property besides {@code id}
+     */
+    static <E> TypedQuery<E> seek(EntityManager entityManager, Class<E> type, String from, String where, String alias,
+                                  String keyProperty, Sort.Order order, Keyset after, int limit) {
+        boolean byId = ID.equals(order.getProperty());
+        if (!byId && !keyProperty.equals(order.getProperty())) {
+            throw new IllegalArgumentException("cannot sort on " + order.getProperty());
+        }
+        if (!byId && after != null && after.key() == null) {
+            throw new IllegalArgumentException("no " + keyProperty + " to seek after");
+        }
+        String key = alias + "." + keyProperty;
+        String id = alias + "." + ID;
+        String cmp = order.isAscending() ? ">" : "<";
+        String direction = order.isAscending() ? "ASC" : "DESC";
+
+        StringBuilder jpql = new StringBuilder(from);
+        String conjunction = " WHERE ";
+        if (where != null) {
+            jpql.append(conjunction).append(where);
+            conjunction = " AND ";
+        }
+        if (after != null) {
+            jpql.append(conjunction);
+            if (byId) {
+                jpql.append("%s %s :afterId".formatted(id, cmp));
+            } else {
+                jpql.append("%1$s %3$s= :afterKey AND (%1$s %3$s :afterKey OR %2$s %3$s :afterId)".formatted(key, id, cmp));
+            }
+        }
+        jpql.append(" ORDER BY ");
+        if (!byId) {
+            jpql.append(key).append(' ').append(direction).append(", ");
+        }
+        jpql.append(id).append(' ').append(direction);
+
+        TypedQuery<E> query = entityManager.createQuery(jpql.toString(), type).setMaxResults(limit);
+        if (after != null) {
+            query.setParameter("afterId", after.id());
+            if (!byId) {
+                query.setParameter("afterKey", after.key());
+            }
+        }
+        return query;
+    }
+}
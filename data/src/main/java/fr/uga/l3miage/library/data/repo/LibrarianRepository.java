@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 @Repository
@@ -35,6 +36,7 @@ public class LibrarianRepository implements CRUDRepository<String, Librarian> {
     }
 
     @Override
+    @QueryName("all-librarians")
     public List<Librarian> all() {
         return entityManager.createQuery("from Librarian", Librarian.class).getResultList();
     }
@@ -44,6 +46,7 @@ public class LibrarianRepository implements CRUDRepository<String, Librarian> {
      * 
      * @return les bibliothéquaires les plus actif
      */
+    @QueryName("top3-working-librarians")
     public List<Librarian> top3WorkingLibrarians() {
         String query = "SELECT b.librarian, COUNT(b) FROM Borrow b GROUP BY b.librarian ORDER BY COUNT(b) DESC";
         List<Object[]> resultList = entityManager.createQuery(query).setMaxResults(3).getResultList();
@@ -57,4 +60,33 @@ public class LibrarianRepository implements CRUDRepository<String, Librarian> {
         return top3;
     }
 
+    /**
+     * Compte les prêts enregistrés par chaque bibliothécaire, depuis toujours
+     *
+     * @return une liste de paires [id du bibliothécaire, nombre de prêts]
+     */
+    @QueryName("count-borrows-by-librarian")
+    public List<Object[]> countBorrowsByLibrarian() {
+        return entityManager.createQuery(
+                        "SELECT b.librarian.id, COUNT(b) FROM Borrow b WHERE b.librarian IS NOT NULL GROUP BY b.librarian.id",
+                        Object[].class)
+                .getResultList();
+    }
+
+    /**
+     * Renvoie le bibliothécaire et la date de début des prêts commencés depuis une date donnée, sans charger les
+     * entités
+     *
+     * @param since date de début minimale
+     * @return une liste de paires [id du bibliothécaire, date de début]
+     */
+    @QueryName("borrow-starts-since")
+    public List<Object[]> borrowStartsSince(Date since) {
+        return entityManager.createQuery(
+                        "SELECT b.librarian.id, b.start FROM Borrow b WHERE b.librarian IS NOT NULL AND b.start >= :since",
+                        Object[].class)
+                .setParameter("since", since)
+                .getResultList();
+    }
+
 }
@@ -0,0 +1,20 @@
+package fr.uga.l3miage.library.data.repo;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Nom de la requête exécutée par une méthode de repository, nommée ou non, repris dans les métriques de la méthode.
+ * Sans cette annotation, comme pour les opérations élémentaires save, get et delete, c'est le nom de la méthode qui est
+ * utilisé.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface QueryName {
+
+    String value();
+}
@@ -0,0 +1,124 @@
+package fr.uga.l3miage.library.data.repo;
+
+import fr.uga.l3miage.library.data.domain.UserBorrowStats;
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public class UserBorrowStatsRepository implements CRUDRepository<String, UserBorrowStats> {
+
+    private static final String UPSERT = "MERGE INTO user_borrow_stats s "
+            + "USING (VALUES (CAST(:userId AS VARCHAR(255)), CAST(:total AS BIGINT), CAST(:inProgress AS BIGINT), CAST(:late AS BIGINT))) "
+            + "AS d (user_id, total, in_progress, late) ON s.user_id = d.user_id "
+            + "WHEN MATCHED THEN UPDATE SET total = s.total + d.total, in_progress = s.in_progress + d.in_progress, late = s.late + d.late "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, total, in_progress, late) VALUES (d.user_id, d.total, d.in_progress, d.late)";
+
+    private static final String UPSERT_MYSQL = "INSERT INTO user_borrow_stats (user_id, total, in_progress, late) "
+            + "VALUES (:userId, :total, :inProgress, :late) "
+            + "ON DUPLICATE KEY UPDATE total = total + VALUES(total), in_progress = in_progress + VALUES(in_progress), late = late + VALUES(late)";
+
+    private static final String COUNTERS = "SELECT p.id AS user_id, COUNT(b.id) AS total, "
+            + "SUM(CASE WHEN b.finished = FALSE THEN 1 ELSE 0 END) AS in_progress, "
+            + "SUM(CASE WHEN b.finished = FALSE AND b.requested_return < :now THEN 1 ELSE 0 END) AS late "
+            + "FROM person p LEFT JOIN borrow b ON b.borrower_id = p.id WHERE p.id IN (:userIds) GROUP BY p.id";
+
+    private static final String RECOMPUTE = "MERGE INTO user_borrow_stats s USING (" + COUNTERS + ") AS d "
+            + "ON s.user_id = d.user_id "
+            + "WHEN MATCHED THEN UPDATE SET total = d.total, in_progress = d.in_progress, late = d.late "
+            + "WHEN NOT MATCHED THEN INSERT (user_id, total, in_progress, late) VALUES (d.user_id, d.total, d.in_progress, d.late)";
+
+    private static final String RECOMPUTE_MYSQL = "INSERT INTO user_borrow_stats (user_id, total, in_progress, late) "
+            + COUNTERS + " "
+            + "ON DUPLICATE KEY UPDATE total = VALUES(total), in_progress = VALUES(in_progress), late = VALUES(late)";
+
+    private final EntityManager entityManager;
+
+    @Autowired
+    public UserBorrowStatsRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public UserBorrowStats save(UserBorrowStats entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    @Override
+    public UserBorrowStats get(String userId) {
+        return entityManager.find(UserBorrowStats.class, userId);
+    }
+
+    @Override
+    public void delete(UserBorrowStats entity) {
+        entityManager.remove(entity);
+    }
+
+    @Override
+    @QueryName("all-user-borrow-stats")
+    public List<UserBorrowStats> all() {
+        return entityManager.createQuery("SELECT s FROM UserBorrowStats s", UserBorrowStats.class).getResultList();
+    }
+
+    /**
+     * Ajoute des deltas aux compteurs d'un utilisateur, en une seule requête d'upsert sans lire la ligne : la ligne est
+     * créée si l'utilisateur n'en a pas encore, de façon atomique, si bien que deux premiers prêts simultanés ne se
+     * heurtent pas à la clé primaire
+     *
+     * @param userId     id de l'utilisateur
+     * @param total      delta du nombre de prêts
+     * @param inProgress delta du nombre de prêts en cours
+     * @param late       delta du nombre de prêts en retard
+     */
+    @QueryName("add-user-borrow-stats")
+    public void add(String userId, long total, long inProgress, long late) {
+        entityManager.createNativeQuery(isMySQL() ? UPSERT_MYSQL : UPSERT)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(UserBorrowStats.class)
+                .setParameter("userId", userId)
+                .setParameter("total", total)
+                .setParameter("inProgress", inProgress)
+                .setParameter("late", late)
+                .executeUpdate();
+    }
+
+    /**
+     * MySQL et MariaDB n'ont pas de MERGE, mais leur INSERT peut se replier sur une mise à jour
+     */
+    private boolean isMySQL() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof MySQLDialect;
+    }
+
+    /**
+     * Recalcule les compteurs des utilisateurs donnés à partir des prêts, en une seule requête d'upsert qui écrit des
+     * valeurs absolues : les lignes existantes sont écrasées ligne à ligne plutôt que supprimées puis recréées, si bien
+     * qu'un {@link #add} concurrent ne se heurte pas à la clé primaire. Les utilisateurs sans prêt ont des compteurs nuls
+     *
+     * @param userIds les ids des utilisateurs
+     * @param now     date à laquelle un prêt en cours est considéré en retard
+     */
+    @QueryName("recompute-user-borrow-stats")
+    public void recompute(Collection<String> userIds, Date now) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        entityManager.createNativeQuery(isMySQL() ? RECOMPUTE_MYSQL : RECOMPUTE)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(UserBorrowStats.class)
+                .setParameter("userIds", userIds)
+                .setParameter("now", now)
+                .executeUpdate();
+    }
+
+}
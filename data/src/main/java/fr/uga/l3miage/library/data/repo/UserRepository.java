@@ -38,16 +38,28 @@ public class UserRepository implements CRUDRepository<String, User> {
     }
 
     @Override
+    @QueryName("all-users")
     public List<User> all() {
         return entityManager.createQuery("findAll", User.class).getResultList();
     }
 
+    /**
+     * Renvoie les ids de tous les utilisateurs, sans charger les entités
+     *
+     * @return une liste d'ids triés
+     */
+    @QueryName("all-user-ids")
+    public List<String> allIds() {
+        return entityManager.createQuery("SELECT u.id FROM User u ORDER BY u.id", String.class).getResultList();
+    }
+
     /**
      * Trouve tous les utilisateurs ayant plus de l'age passé
      * 
      * @param age l'age minimum de l'utilisateur
      * @return
      */
+    @QueryName("find-users-older-than")
     public List<User> findAllOlderThan(int age) {
         Date anneeMin = Date.from(ZonedDateTime.now().minus(age, ChronoUnit.YEARS).toInstant());
         String query = "SELECT u FROM User u WHERE u.birth <= :anneeMin";
@@ -4,6 +4,7 @@ import fr.uga.l3miage.library.data.domain.Author;
 import fr.uga.l3miage.library.data.domain.Book;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 
@@ -14,7 +15,11 @@ class AuthorRepositoryTest extends Base {
     @Autowired
     AuthorRepository authorRepository;
 
+    @Autowired
+    BookRepository bookRepository;
+
     @Test
+    @QueryBudget(selects = 1)
     void searchByName() {
 
         Author a1 = Fixtures.newAuthor();
@@ -33,6 +38,30 @@ class AuthorRepositoryTest extends Base {
     }
 
     @Test
+    @QueryBudget(selects = 2)
+    void page() {
+
+        Author a1 = Fixtures.newAuthor();
+        a1.setFullName("Victor Hugo");
+        Author a2 = Fixtures.newAuthor();
+        a2.setFullName("Albert Camus");
+        Author a3 = Fixtures.newAuthor();
+        a3.setFullName("Emile Zola");
+        entityManager.persist(a1);
+        entityManager.persist(a2);
+        entityManager.persist(a3);
+        entityManager.flush();
+
+        List<Author> first = authorRepository.page(Sort.Order.asc("fullName"), null, 2);
+        assertThat(first).containsExactly(a2, a3);
+
+        List<Author> second = authorRepository.page(Sort.Order.asc("fullName"), new Keyset(a3.getFullName(), a3.getId()), 2);
+        assertThat(second).containsExactly(a1);
+
+    }
+
+    @Test
+    @QueryBudget(selects = 2)
     void findAuthorByIdHavingCoAuthoredBooks() {
 
         Author a1 = Fixtures.newAuthor();
@@ -57,4 +86,50 @@ class AuthorRepositoryTest extends Base {
 
     }
 
+    @Test
+    @QueryBudget(selects = 10, deletes = 5, collectionFetches = 2)
+    void deleteAllById() {
+
+        Author a1 = Fixtures.newAuthor();
+        Author a2 = Fixtures.newAuthor();
+        Author a3 = Fixtures.newAuthor();
+        Book b1 = Fixtures.newBook();
+        Book b2 = Fixtures.newBook();
+        Book b3 = Fixtures.newBook();
+        a1.addBook(b1);
+        a2.addBook(b2);
+        a2.addBook(b3);
+        a3.addBook(b3);
+        entityManager.persist(a1);
+        entityManager.persist(a2);
+        entityManager.persist(a3);
+        b1.addAuthor(a1);
+        b2.addAuthor(a2);
+        b3.addAuthor(a2);
+        b3.addAuthor(a3);
+        entityManager.persist(b1);
+        entityManager.persist(b2);
+        entityManager.persist(b3);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(authorRepository.findExistingIds(List.of(a1.getId(), -1L))).containsExactly(a1.getId());
+        assertThat(authorRepository.findIdsHavingCoAuthoredBooks(List.of(a1.getId(), a2.getId()))).containsExactly(a2.getId());
+        assertThat(authorRepository.findBookIds(List.of(a1.getId(), a2.getId())))
+                .containsExactlyInAnyOrder(b1.getId(), b2.getId(), b3.getId());
+
+        assertThat(authorRepository.findBookIdsAndIsbns(List.of(a1.getId())))
+                .containsExactly(new Object[]{b1.getId(), b1.getIsbn()});
+
+        List<Long> bookIds = authorRepository.findBookIds(List.of(a1.getId()));
+        assertThat(authorRepository.deleteAllById(List.of(a1.getId()))).isEqualTo(1);
+        assertThat(bookRepository.deleteAllById(bookIds)).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(entityManager.find(Author.class, a1.getId())).isNull();
+        assertThat(entityManager.find(Book.class, b1.getId())).isNull();
+        assertThat(entityManager.find(Author.class, a2.getId()).getBooks()).hasSize(2);
+
+    }
+
 }
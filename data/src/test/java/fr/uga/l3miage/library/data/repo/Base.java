@@ -3,11 +3,18 @@ package fr.uga.l3miage.library.data.repo;
 import fr.uga.l3miage.library.TestApp;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
 @SpringBootTest(classes = TestApp.class, webEnvironment = SpringBootTest.WebEnvironment.NONE,
-        properties = "spring.jpa.show-sql=true")
+        properties = {
+                "spring.jpa.show-sql=true",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + "fr.uga.l3miage.library.data.repo.CountingStatementInspector"})
+@ExtendWith(QueryBudgetExtension.class)
+@QueryBudget(entityFetches = 0, collectionFetches = 0)
 @Transactional
 abstract class Base {
 
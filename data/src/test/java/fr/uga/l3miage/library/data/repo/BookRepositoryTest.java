@@ -3,12 +3,20 @@ package fr.uga.l3miage.library.data.repo;
 import fr.uga.l3miage.library.data.domain.Author;
 import fr.uga.l3miage.library.data.domain.Book;
 import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
 
 class BookRepositoryTest extends Base {
 
@@ -19,6 +27,7 @@ class BookRepositoryTest extends Base {
     BookRepository bookRepository;
 
     @Test
+    @QueryBudget(selects = 1)
     void all() {
 
         Book b1 = Fixtures.newBook();
@@ -45,6 +54,324 @@ class BookRepositoryTest extends Base {
     }
 
     @Test
+    @QueryBudget(selects = 1)
+    void allFetchesAuthors() {
+
+        Author a1 = Fixtures.newAuthor();
+        Book b1 = Fixtures.newBook();
+        Book b2 = Fixtures.newBook();
+        a1.addBook(b1);
+        a1.addBook(b2);
+        entityManager.persist(a1);
+        b1.addAuthor(a1);
+        b2.addAuthor(a1);
+        entityManager.persist(b1);
+        entityManager.persist(b2);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        var util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        List<Book> books = bookRepository.all();
+        assertThat(books)
+                .hasSize(2)
+                .allMatch(book -> util.isLoaded(book, "authors"))
+                .allMatch(book -> book.getAuthors().size() == 1);
+
+    }
+
+    @Test
+    // two chunks, the authors of each being fetched by batches of 100 books: 5 batches, then 1
+    @QueryBudget(selects = 2 + 6, collectionFetches = 6)
+    void scroll() {
+
+        Author a1 = Fixtures.newAuthor();
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < Chunks.SIZE + 2; i++) {
+            Book book = Fixtures.newBook();
+            a1.addBook(book);
+            book.addAuthor(a1);
+            books.add(book);
+        }
+        entityManager.persist(a1);
+        books.forEach(entityManager::persist);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> visited = new ArrayList<>();
+        bookRepository.scroll(book -> {
+            assertThat(book.getAuthors()).hasSize(1);
+            visited.add(book.getId());
+        });
+        assertThat(visited)
+                .isSorted()
+                .containsExactlyElementsOf(books.stream().map(Book::getId).toList());
+
+    }
+
+    @Test
+    @QueryBudget(selects = 1)
+    void scrollIsbns() {
+
+        Book b1 = Fixtures.newBook();
+        b1.setIsbn(9780000000001L);
+        Book b2 = Fixtures.newBook();
+        b2.setIsbn(0);
+        Book b3 = Fixtures.newBook();
+        b3.setIsbn(9780000000002L);
+        entityManager.persist(b1);
+        entityManager.persist(b2);
+        entityManager.persist(b3);
+        entityManager.flush();
+        entityManager.clear();
+
+        Map<Long, Long> isbns = new HashMap<>();
+        bookRepository.scrollIsbns(isbns::put);
+        assertThat(isbns).containsOnly(
+                entry(9780000000001L, b1.getId()),
+                entry(9780000000002L, b3.getId()));
+
+    }
+
+    @Test
+    @QueryBudget(selects = 2, updates = 2)
+    void searchRows() {
+
+        Author a1 = Fixtures.newAuthor();
+        Author a2 = Fixtures.newAuthor();
+        Book b1 = Fixtures.newBook();
+        Book b2 = Fixtures.newBook();
+        entityManager.persist(a1);
+        entityManager.persist(a2);
+        entityManager.persist(b1);
+        entityManager.persist(b2);
+        a1.addBook(b1);
+        a2.addBook(b1);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Object[]> rows = bookRepository.searchRows(List.of(b1.getId(), b2.getId()));
+        assertThat(rows)
+                .extracting(row -> row[0], row -> row[3])
+                .containsExactlyInAnyOrder(
+                        tuple(b1.getId(), a1.getFullName()),
+                        tuple(b1.getId(), a2.getFullName()),
+                        tuple(b2.getId(), null));
+        assertThat(rows).extracting(row -> row[0]).isSorted();
+
+        List<Object[]> scrolled = new ArrayList<>();
+        bookRepository.scrollSearchRows(scrolled::add);
+        assertThat(scrolled).hasSize(3);
+
+    }
+
+    @Test
+    @QueryBudget(selects = 1)
+    void scrollFacets() {
+
+        Book b1 = Fixtures.newBook();
+        b1.setLanguage(Book.Language.ENGLISH);
+        b1.setYear((short) 1869);
+        b1.setPublisher(null);
+        entityManager.persist(b1);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Object[]> rows = new ArrayList<>();
+        bookRepository.scrollFacets(rows::add);
+        assertThat(rows).singleElement()
+                .isEqualTo(new Object[]{b1.getId(), Book.Language.ENGLISH, (short) 1869, null});
+
+    }
+
+    @Test
+    @QueryBudget(selects = 4, updates = 3)
+    void findVersion() {
+
+        Author a1 = Fixtures.newAuthor();
+        Book b1 = Fixtures.newBook();
+        entityManager.persist(a1);
+        entityManager.persist(b1);
+        entityManager.flush();
+        assertThat(bookRepository.findVersion(b1.getId())).isZero();
+        assertThat(bookRepository.findVersion(b1.getId() + 1)).isNull();
+
+        b1.setTitle("changed");
+        entityManager.flush();
+        assertThat(bookRepository.findVersion(b1.getId())).isEqualTo(1);
+
+        // the authors of a book are owned by the other side, its version is incremented explicitly
+        a1.addBook(b1);
+        b1.addAuthor(a1);
+        bookRepository.incrementVersion(b1);
+        entityManager.flush();
+        assertThat(bookRepository.findVersion(b1.getId())).isEqualTo(2);
+
+    }
+
+    @Test
+    // 2 authors and 501 books inserted, the author links going through JDBC; then a1 and its books, whose authors
+    // are fetched by 6 batches as Book.hashCode reads them, and the books of a2, already loaded as their author
+    @QueryBudget(inserts = 2 + 501, selects = 2 + 6 + 1, collectionFetches = 1 + 6 + 1)
+    void saveAll() {
+
+        Author a1 = Fixtures.newAuthor();
+        Author a2 = Fixtures.newAuthor();
+        entityManager.persist(a1);
+        entityManager.persist(a2);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < BookRepository.BATCH_SIZE + 1; i++) {
+            Book book = Fixtures.newBook();
+            book.addAuthor(a1);
+            if (i % 2 == 0) {
+                book.addAuthor(a2);
+            }
+            books.add(book);
+        }
+
+        bookRepository.saveAll(books);
+        entityManager.clear();
+
+        assertThat(books).allMatch(book -> book.getId() != null);
+        assertThat(entityManager.find(Author.class, a1.getId()).getBooks()).hasSize(BookRepository.BATCH_SIZE + 1);
+        assertThat(entityManager.find(Author.class, a2.getId()).getBooks()).hasSize(BookRepository.BATCH_SIZE / 2 + 1);
+        assertThat(entityManager.find(Book.class, books.get(0).getId()).getAuthors())
+                .extracting("id")
+                .containsExactlyInAnyOrder(a1.getId(), a2.getId());
+
+    }
+
+    @Test
+    @QueryBudget(selects = 4)
+    void page() {
+
+        Book b1 = Fixtures.newBook();
+        b1.setTitle("b");
+        Book b2 = Fixtures.newBook();
+        b2.setTitle("a");
+        Book b3 = Fixtures.newBook();
+        b3.setTitle("b");
+        Book b4 = Fixtures.newBook();
+        b4.setTitle("c");
+        entityManager.persist(b1);
+        entityManager.persist(b2);
+        entityManager.persist(b3);
+        entityManager.persist(b4);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        var byTitle = Sort.Order.asc("title");
+        List<Book> first = bookRepository.page(byTitle, null, 2);
+        assertThat(first)
+                .extracting("id")
+                .containsExactly(b2.getId(), b1.getId());
+
+        Book last = first.get(1);
+        List<Book> second = bookRepository.page(byTitle, new Keyset(last.getTitle(), last.getId()), 2);
+        assertThat(second)
+                .extracting("id")
+                .containsExactly(b3.getId(), b4.getId());
+
+        List<Book> descending = bookRepository.page(Sort.Order.desc("title"), new Keyset(b3.getTitle(), b3.getId()), 10);
+        assertThat(descending)
+                .extracting("id")
+                .containsExactly(b1.getId(), b2.getId());
+
+        List<Book> byId = bookRepository.page(Sort.Order.asc("id"), new Keyset(null, b2.getId()), 10);
+        assertThat(byId)
+                .extracting("id")
+                .containsExactly(b3.getId(), b4.getId());
+
+    }
+
+    @Test
+    @QueryBudget(selects = 2)
+    void pageFields() {
+
+        Book b1 = Fixtures.newBook();
+        b1.setTitle("b");
+        Book b2 = Fixtures.newBook();
+        b2.setTitle("a");
+        Book b3 = Fixtures.newBook();
+        b3.setTitle("c");
+        entityManager.persist(b1);
+        entityManager.persist(b2);
+        entityManager.persist(b3);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<BookFields> first = bookRepository.pageFields(List.of("isbn"), Sort.Order.asc("title"), null, 2);
+        assertThat(first)
+                .containsExactly(new BookFields(b2.getId(), "a", b2.getIsbn(), null, null, null),
+                        new BookFields(b1.getId(), "b", b1.getIsbn(), null, null, null));
+
+        List<BookFields> second = bookRepository.pageFields(List.of("year", "language"), Sort.Order.asc("id"), new Keyset(null, b2.getId()), 10);
+        assertThat(second)
+                .containsExactly(new BookFields(b3.getId(), null, null, null, b3.getYear(), b3.getLanguage()));
+
+        // nothing is loaded in the persistence context
+        assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+
+        // translated by the repository proxy
+        assertThatThrownBy(() -> bookRepository.pageFields(List.of("authors"), Sort.Order.asc("title"), null, 2))
+                .hasCauseInstanceOf(IllegalArgumentException.class);
+
+    }
+
+    @Test
+    @QueryBudget(selects = 3)
+    void findAllByIdInChunks() {
+
+        Book b1 = Fixtures.newBook();
+        b1.setTitle("b");
+        Book b2 = Fixtures.newBook();
+        b2.setTitle("a");
+        entityManager.persist(b1);
+        entityManager.persist(b2);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> ids = new ArrayList<>();
+        ids.add(b1.getId());
+        for (long id = -1; id > -2 * BookRepository.BATCH_SIZE; id--) {
+            ids.add(id);
+        }
+        ids.add(b2.getId());
+
+        // one query per chunk of ids, the books of all chunks sorted by title together
+        assertThat(bookRepository.findAllById(ids))
+                .extracting(Book::getId)
+                .containsExactly(b2.getId(), b1.getId());
+
+    }
+
+    @Test
+    @QueryBudget(selects = 1, entityLoads = 2)
+    void getAll() {
+
+        Book b1 = Fixtures.newBook();
+        Book b2 = Fixtures.newBook();
+        Book b3 = Fixtures.newBook();
+        entityManager.persist(b1);
+        entityManager.persist(b2);
+        entityManager.persist(b3);
+        entityManager.flush();
+        entityManager.detach(b2);
+        entityManager.detach(b3);
+
+        // b1 is still managed, only b2 and b3 are read, in a single query
+        List<Book> books = bookRepository.getAll(List.of(b3.getId(), -1L, b1.getId(), b2.getId()));
+        assertThat(books)
+                .extracting(book -> book == null ? null : book.getId())
+                .containsExactly(b3.getId(), null, b1.getId(), b2.getId());
+        assertThat(books.get(2)).isSameAs(b1);
+
+    }
+
+    @Test
+    @QueryBudget(selects = 1)
     void findByContainingTitle() {
 
         Book b1 = Fixtures.newBook();
@@ -72,6 +399,7 @@ class BookRepositoryTest extends Base {
     }
 
     @Test
+    @QueryBudget(selects = 1)
     void findByAuthorIdAndContainingTitle() {
         Book b1 = Fixtures.newBook();
         b1.setTitle("Hello world");
@@ -110,6 +438,7 @@ class BookRepositoryTest extends Base {
     }
 
     @Test
+    @QueryBudget(selects = 1)
     void findBooksByAuthorContainingName() {
 
         Book b1 = Fixtures.newBook();
@@ -152,6 +481,7 @@ class BookRepositoryTest extends Base {
     }
 
     @Test
+    @QueryBudget(selects = 1)
     void findBooksHavingAuthorCountGreaterThan() {
 
         Author a1 = Fixtures.newAuthor();
@@ -9,6 +9,7 @@ import org.springframework.test.annotation.DirtiesContext;
 
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -64,6 +65,7 @@ class BorrowRepositoryTest extends Base {
     }
 
     @Test
+    @QueryBudget(selects = 1)
     void findInProgressByUser() {
 
         Borrow inProgress = Fixtures.newBorrow(u1, l1, b1, b2);
@@ -80,6 +82,24 @@ class BorrowRepositoryTest extends Base {
     }
 
     @Test
+    @QueryBudget(selects = 1)
+    void scroll() {
+
+        Borrow borrow1 = Fixtures.newBorrow(u1, l1, b1);
+        Borrow borrow2 = Fixtures.newBorrow(u2, l1, b2);
+        entityManager.persist(borrow1);
+        entityManager.persist(borrow2);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> borrowers = new ArrayList<>();
+        repository.scroll(borrow -> borrowers.add(borrow.getBorrower().getId()));
+        assertThat(borrowers).containsExactly(u1.getId(), u2.getId());
+
+    }
+
+    @Test
+    @QueryBudget(selects = 1)
     void countCurrentBorrowedBooksByUser() {
         Borrow borrow1 = Fixtures.newBorrow(u1, l1, b1, b2);
         Borrow borrow2 = Fixtures.newBorrow(u1, l1, b3);
@@ -90,6 +110,7 @@ class BorrowRepositoryTest extends Base {
     }
 
     @Test
+    @QueryBudget(selects = 1)
     void countBorrowedBooksByUser() {
 
         // TODO
@@ -97,6 +118,7 @@ class BorrowRepositoryTest extends Base {
     }
 
     @Test
+    @QueryBudget(selects = 1)
     void foundAllLateBorrow() {
 
         Borrow late1DayAgo = Fixtures.newBorrow(u1, l1, b1);
@@ -116,6 +138,7 @@ class BorrowRepositoryTest extends Base {
     }
 
     @Test
+    @QueryBudget(selects = 1)
     void foundAllBorrowThatWillBeLateInDays() {
 
         Borrow lateIn5Days = Fixtures.newBorrow(u1, l1, b1);
@@ -135,4 +158,24 @@ class BorrowRepositoryTest extends Base {
 
     }
 
+    @Test
+    @QueryBudget(selects = 1)
+    void allOpenIdsAndRequestedReturns() {
+
+        Borrow inProgress = Fixtures.newBorrow(u1, l1, b1);
+        Borrow finished = Fixtures.newBorrow(u2, l1, b2);
+        finished.setFinished(true);
+        entityManager.persist(inProgress);
+        entityManager.persist(finished);
+        entityManager.flush();
+
+        assertThat(repository.allOpenIdsAndRequestedReturns())
+                .singleElement()
+                .satisfies(row -> {
+                    assertThat(row[0]).isEqualTo(inProgress.getId());
+                    assertThat(((Date) row[1]).getTime()).isEqualTo(inProgress.getRequestedReturn().getTime());
+                });
+
+    }
+
 }
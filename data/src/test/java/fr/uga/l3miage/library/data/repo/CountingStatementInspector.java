@@ -0,0 +1,55 @@
+package fr.uga.l3miage.library.data.repo;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the statements prepared by Hibernate during the current test, for {@link QueryBudgetExtension}. Declared by
+ * {@link Base}, instantiated by Hibernate.
+ */
+public class CountingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+    private static final Pattern COMMENTS = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern SEQUENCE = Pattern.compile("\\bnext value for\\b|\\bnextval\\b");
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    static List<String> statements() {
+        synchronized (STATEMENTS) {
+            return List.copyOf(STATEMENTS);
+        }
+    }
+
+    static void clear() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    /**
+     * @return the first keyword of the statement in lower case, {@code sequence} for the read of a sequence value
+     */
+    static String kind(String sql) {
+        String statement = COMMENTS.matcher(sql).replaceAll(" ").strip().toLowerCase(Locale.ROOT);
+        if (SEQUENCE.matcher(statement).find()) {
+            return "sequence";
+        }
+        int end = 0;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        String keyword = statement.substring(0, end);
+        return keyword.equals("with") ? "select" : keyword;
+    }
+}
@@ -11,6 +11,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 class PersonRepositoryTest extends Base {
 
@@ -21,6 +22,7 @@ class PersonRepositoryTest extends Base {
     UserRepository userRepository;
 
     @Test
+    @QueryBudget(selects = 1)
     void top3WorkingLibrarians() {
 
         Librarian l1 = Fixtures.newLibrarian();
@@ -99,6 +101,38 @@ class PersonRepositoryTest extends Base {
     }
 
     @Test
+    @QueryBudget(selects = 2)
+    void countBorrowsByLibrarian() {
+
+        Librarian l1 = Fixtures.newLibrarian();
+        Librarian l2 = Fixtures.newLibrarian();
+        User u1 = Fixtures.newUser();
+        entityManager.persist(l1);
+        entityManager.persist(l2);
+        entityManager.persist(u1);
+
+        Borrow recent = Fixtures.newBorrow(u1, l1);
+        recent.setStart(Date.from(ZonedDateTime.now().minus(1, ChronoUnit.DAYS).toInstant()));
+        Borrow old = Fixtures.newBorrow(u1, l1);
+        old.setStart(Date.from(ZonedDateTime.now().minus(60, ChronoUnit.DAYS).toInstant()));
+        Borrow other = Fixtures.newBorrow(u1, l2);
+        other.setStart(Date.from(ZonedDateTime.now().minus(90, ChronoUnit.DAYS).toInstant()));
+        entityManager.persist(recent);
+        entityManager.persist(old);
+        entityManager.persist(other);
+        entityManager.flush();
+
+        assertThat(librarianRepository.countBorrowsByLibrarian())
+                .extracting(row -> row[0], row -> row[1])
+                .containsExactlyInAnyOrder(tuple(l1.getId(), 2L), tuple(l2.getId(), 1L));
+        assertThat(librarianRepository.borrowStartsSince(Date.from(ZonedDateTime.now().minus(30, ChronoUnit.DAYS).toInstant())))
+                .extracting(row -> row[0])
+                .containsExactly(l1.getId());
+
+    }
+
+    @Test
+    @QueryBudget(selects = 1)
     void findAllOlderThan() {
 
         User u1 = Fixtures.newUser();
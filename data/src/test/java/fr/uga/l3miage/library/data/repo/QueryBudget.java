@@ -0,0 +1,51 @@
+package fr.uga.l3miage.library.data.repo;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements and loads a test may run, so that an N+1 regression fails the build. Checked by
+ * {@link QueryBudgetExtension} for the tests extending {@link Base}.
+ * <p>
+ * Everything the test does through Hibernate counts, fixtures included: {@code insert} statements are counted apart
+ * from {@code select} ones, and sequence values are not selects. A statement counts each time Hibernate prepares it,
+ * that is once per row written since the tests do not enable JDBC batching; statements run on the bare connection,
+ * through {@code Session.doWork} for instance, are not seen. Negative attributes are not checked. On a class, sets the
+ * attributes left unset by the budget of each test.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface QueryBudget {
+
+    /**
+     * All the statements issued by Hibernate
+     */
+    int statements() default -1;
+
+    int selects() default -1;
+
+    int inserts() default -1;
+
+    int updates() default -1;
+
+    int deletes() default -1;
+
+    /**
+     * Entities loaded from the database, by a query or by id
+     */
+    int entityLoads() default -1;
+
+    /**
+     * Entities loaded on their own, when a proxy or an association is initialized
+     */
+    int entityFetches() default -1;
+
+    /**
+     * Collections loaded on their own, when first read
+     */
+    int collectionFetches() default -1;
+}
@@ -0,0 +1,85 @@
+package fr.uga.l3miage.library.data.repo;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Fails a test that exceeds its {@link QueryBudget}, with the statements it ran.
+ * <p>
+ * The budget of the method is completed by the one of its class, attribute by attribute. Statements are counted by
+ * {@link CountingStatementInspector}, loads and fetches by the Hibernate statistics, both being cleared before each
+ * test. Runs before the rollback of the test transaction, which therefore does not count.
+ */
+public class QueryBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        statistics(context).clear();
+        CountingStatementInspector.clear();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        QueryBudget method = AnnotatedElementUtils.findMergedAnnotation(context.getRequiredTestMethod(), QueryBudget.class);
+        QueryBudget type = AnnotatedElementUtils.findMergedAnnotation(context.getRequiredTestClass(), QueryBudget.class);
+        if (method == null && type == null) {
+            return;
+        }
+        List<String> statements = CountingStatementInspector.statements();
+        Map<String, Long> kinds = new LinkedHashMap<>();
+        for (String statement : statements) {
+            kinds.merge(CountingStatementInspector.kind(statement), 1L, Long::sum);
+        }
+        Statistics statistics = statistics(context);
+
+        List<String> exceeded = new ArrayList<>();
+        check(exceeded, "statements", budget(QueryBudget::statements, method, type), statements.size());
+        check(exceeded, "selects", budget(QueryBudget::selects, method, type), kinds.getOrDefault("select", 0L));
+        check(exceeded, "inserts", budget(QueryBudget::inserts, method, type), kinds.getOrDefault("insert", 0L));
+        check(exceeded, "updates", budget(QueryBudget::updates, method, type), kinds.getOrDefault("update", 0L));
+        check(exceeded, "deletes", budget(QueryBudget::deletes, method, type), kinds.getOrDefault("delete", 0L));
+        check(exceeded, "entityLoads", budget(QueryBudget::entityLoads, method, type),
+                statistics.getEntityLoadCount());
+        check(exceeded, "entityFetches", budget(QueryBudget::entityFetches, method, type),
+                statistics.getEntityFetchCount());
+        check(exceeded, "collectionFetches", budget(QueryBudget::collectionFetches, method, type),
+                statistics.getCollectionFetchCount());
+        if (!exceeded.isEmpty()) {
+            throw new AssertionError("query budget exceeded: " + String.join(", ", exceeded)
+                    + "\n\t" + String.join("\n\t", statements));
+        }
+    }
+
+    /**
+     * @return the attribute of the budget of the method if set, of the class otherwise
+     */
+    private static int budget(ToIntFunction<QueryBudget> attribute, QueryBudget method, QueryBudget type) {
+        int budget = method == null ? -1 : attribute.applyAsInt(method);
+        return budget < 0 && type != null ? attribute.applyAsInt(type) : budget;
+    }
+
+    private static void check(List<String> exceeded, String name, int budget, long actual) {
+        if (budget >= 0 && actual > budget) {
+            exceeded.add("%s %d > %d".formatted(name, actual, budget));
+        }
+    }
+
+    private static Statistics statistics(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context)
+                .getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+}
@@ -0,0 +1,40 @@
+package fr.uga.l3miage.library.data.repo;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryNameTest {
+
+    private static final Set<String> PRIMITIVES = Set.of("save", "get", "delete");
+
+    @Test
+    void everyQueryMethodIsNamed() {
+        List<String> unnamed = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        List<String> duplicates = new ArrayList<>();
+        for (Class<?> repository : List.of(AuthorRepository.class, BookRepository.class, BorrowRepository.class,
+                LibrarianRepository.class, UserRepository.class, UserBorrowStatsRepository.class)) {
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!Modifier.isPublic(method.getModifiers()) || method.isBridge() || PRIMITIVES.contains(method.getName())) {
+                    continue;
+                }
+                QueryName name = method.getAnnotation(QueryName.class);
+                if (name == null) {
+                    unnamed.add(repository.getSimpleName() + "." + method.getName());
+                } else if (!names.add(name.value())) {
+                    duplicates.add(name.value());
+                }
+            }
+        }
+        assertThat(unnamed).isEmpty();
+        assertThat(duplicates).isEmpty();
+    }
+}
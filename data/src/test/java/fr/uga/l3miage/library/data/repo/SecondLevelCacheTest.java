@@ -0,0 +1,95 @@
+package fr.uga.l3miage.library.data.repo;
+
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.domain.Book;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The multi-gets with the second level cache of the application. Runs outside of a test transaction: the entities are
+ * cached when the transaction persisting them commits, and a read-write entry is only visible to the transactions
+ * started after it was cached.
+ */
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider="
+                + "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create"})
+@Transactional(Transactional.TxType.NOT_SUPPORTED)
+class SecondLevelCacheTest extends Base {
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    AuthorRepository authorRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanup() {
+        transaction().executeWithoutResult(status -> {
+            entityManager.createQuery("delete from Book").executeUpdate();
+            entityManager.createQuery("delete from Author").executeUpdate();
+        });
+    }
+
+    @Test
+    @QueryBudget(selects = 0, entityLoads = 0)
+    void getAllBooksFromTheCache() {
+
+        List<Book> committed = transaction().execute(status -> {
+            Book b1 = Fixtures.newBook();
+            Book b2 = Fixtures.newBook();
+            entityManager.persist(b1);
+            entityManager.persist(b2);
+            return List.of(b1, b2);
+        });
+
+        List<Book> books = transaction().execute(status -> {
+            entityManager.clear();
+            return bookRepository.getAll(List.of(committed.get(1).getId(), committed.get(0).getId()));
+        });
+        assertThat(books)
+                .extracting(Book::getTitle)
+                .containsExactly(committed.get(1).getTitle(), committed.get(0).getTitle());
+
+    }
+
+    @Test
+    @QueryBudget(selects = 0, entityLoads = 0)
+    void getAllAuthorsFromTheCache() {
+
+        List<Author> committed = transaction().execute(status -> {
+            Author a1 = Fixtures.newAuthor();
+            Author a2 = Fixtures.newAuthor();
+            entityManager.persist(a1);
+            entityManager.persist(a2);
+            return List.of(a1, a2);
+        });
+
+        List<Author> authors = transaction().execute(status -> {
+            entityManager.clear();
+            return authorRepository.getAll(List.of(committed.get(1).getId(), committed.get(0).getId()));
+        });
+        assertThat(authors)
+                .extracting(Author::getFullName)
+                .containsExactly(committed.get(1).getFullName(), committed.get(0).getFullName());
+
+    }
+
+    private TransactionTemplate transaction() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
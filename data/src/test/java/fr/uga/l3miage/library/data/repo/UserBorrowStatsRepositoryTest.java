@@ -0,0 +1,68 @@
+package fr.uga.l3miage.library.data.repo;
+
+import fr.uga.l3miage.library.data.domain.Borrow;
+import fr.uga.l3miage.library.data.domain.Librarian;
+import fr.uga.l3miage.library.data.domain.User;
+import fr.uga.l3miage.library.data.domain.UserBorrowStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserBorrowStatsRepositoryTest extends Base {
+
+    @Autowired
+    UserBorrowStatsRepository repository;
+
+    @Test
+    @QueryBudget(statements = 4, selects = 1)
+    void add() {
+
+        repository.add("u1", 1, 1, 0);
+        repository.add("u1", 1, 1, 1);
+        repository.add("u1", 0, -1, -1);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(repository.get("u1")).isEqualTo(new UserBorrowStats("u1", 2, 1, 0));
+
+    }
+
+    @Test
+    @QueryBudget(selects = 2, updates = 0, deletes = 0)
+    void recompute() {
+
+        User u1 = Fixtures.newUser();
+        User u2 = Fixtures.newUser();
+        Librarian l1 = Fixtures.newLibrarian();
+        entityManager.persist(u1);
+        entityManager.persist(u2);
+        entityManager.persist(l1);
+
+        Borrow late = Fixtures.newBorrow(u1, l1);
+        late.setRequestedReturn(Date.from(ZonedDateTime.now().minus(1, ChronoUnit.DAYS).toInstant()));
+        Borrow inProgress = Fixtures.newBorrow(u1, l1);
+        inProgress.setRequestedReturn(Date.from(ZonedDateTime.now().plus(1, ChronoUnit.DAYS).toInstant()));
+        Borrow finished = Fixtures.newBorrow(u1, l1);
+        finished.setFinished(true);
+        entityManager.persist(late);
+        entityManager.persist(inProgress);
+        entityManager.persist(finished);
+        repository.add(u2.getId(), 5, 5, 5);
+        entityManager.flush();
+
+        repository.recompute(List.of(u1.getId(), u2.getId()), new Date());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(repository.get(u1.getId())).isEqualTo(new UserBorrowStats(u1.getId(), 3, 2, 1));
+        assertThat(repository.get(u2.getId())).isEqualTo(new UserBorrowStats(u2.getId(), 0, 0, 0));
+
+    }
+
+}
@@ -3,11 +3,26 @@ package fr.uga.l3miage.library.service;
 import fr.uga.l3miage.library.data.domain.Author;
 import fr.uga.l3miage.library.data.domain.Book;
 import fr.uga.l3miage.library.data.repo.AuthorRepository;
-import jakarta.transaction.Transactional;
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import fr.uga.l3miage.library.data.repo.AuthorFields;
+import fr.uga.l3miage.library.data.repo.Keyset;
+import fr.uga.l3miage.library.service.base.Found;
+import fr.uga.l3miage.library.service.cache.CatalogCache;
+import fr.uga.l3miage.library.service.index.AuthorNameTrie;
+import fr.uga.l3miage.library.service.index.BookFacets;
+import fr.uga.l3miage.library.service.index.IsbnIndex;
+import fr.uga.l3miage.library.service.index.TitleTrigramIndex;
+import fr.uga.l3miage.library.service.search.CatalogSearchSync;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -17,71 +32,166 @@ import java.util.Set;
 public class AuthorServiceImpl implements AuthorService {
 
     private final AuthorRepository authorRepository;
-    private final BookService bookService;
+    private final BookRepository bookRepository;
+    private final AuthorNameTrie nameTrie;
+    private final IsbnIndex isbnIndex;
+    private final TitleTrigramIndex titleIndex;
+    private final BookFacets facets;
+    private final CatalogSearchSync searchSync;
+    private final CatalogCache catalogCache;
 
     @Autowired
-    public AuthorServiceImpl(AuthorRepository authorRepository, BookService bookService) {
+    public AuthorServiceImpl(AuthorRepository authorRepository, BookRepository bookRepository, AuthorNameTrie nameTrie,
+                             IsbnIndex isbnIndex, TitleTrigramIndex titleIndex, BookFacets facets,
+                             CatalogSearchSync searchSync, CatalogCache catalogCache) {
         this.authorRepository = authorRepository;
-        this.bookService = bookService;
+        this.bookRepository = bookRepository;
+        this.nameTrie = nameTrie;
+        this.isbnIndex = isbnIndex;
+        this.titleIndex = titleIndex;
+        this.facets = facets;
+        this.searchSync = searchSync;
+        this.catalogCache = catalogCache;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<Author> searchByName(String name) {
         return authorRepository.searchByName(name);
     }
 
 
+    /**
+     * Served by the in memory trie only, outside of any transaction so that no connection is taken.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Collection<Author> suggest(String prefix, int limit) {
+        return nameTrie.suggest(prefix, limit)
+                .entrySet()
+                .stream()
+                .map(entry -> {
+                    Author author = new Author();
+                    author.setId(entry.getKey());
+                    author.setFullName(entry.getValue());
+                    return author;
+                })
+                .toList();
+    }
+
     @Override
     public Author save(Author author) {
-        return authorRepository.save(author);
+        var saved = authorRepository.save(author);
+        nameTrie.putAfterCommit(saved.getId(), saved.getFullName());
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Author get(Long id) throws EntityNotFoundException {
-        return authorRepository.get(id);
+        return Optional.ofNullable(authorRepository.get(id))
+                .orElseThrow(() -> new EntityNotFoundException("author with id=%d not found".formatted(id)));
+    }
+
+    /**
+     * Resolves the authors of the persistence context, then those of the second level cache under the session's cache
+     * mode, the others are read by {@link AuthorRepository#getAll(List)}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Found<Author, Long> getAll(Collection<Long> ids) {
+        List<Long> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        return Found.of(distinct, authorRepository.getAll(distinct));
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<Author> list() {
         return authorRepository.all();
     }
 
     @Override
-    public Author update(Author author) throws EntityNotFoundException {
-        return authorRepository.save(author);
+    @Transactional(readOnly = true)
+    public Collection<Author> list(Sort.Order order, Keyset after, int limit) {
+        return authorRepository.page(order, after, limit);
     }
 
     @Override
-    public void delete(Long id) throws EntityNotFoundException, DeleteAuthorException {
-        Author author = get(id);
-        if (author == null) {
-            throw new EntityNotFoundException("author with id=%d not found".formatted(id));
-        }
-        Set<Book> books = author
-                .getBooks();
-        if (books != null) {
-
-            Optional<Integer> bookWithManyAuthor = books.stream()
-                    .map(Book::getAuthors)
-                    .filter(Objects::nonNull)
-                    .map(Collection::size)
-                    .filter(s -> s > 1)
-                    .findFirst();
-
-            if (bookWithManyAuthor.isPresent()) {
-                throw new DeleteAuthorException("cannot delete author, one or several books are co-authored");
-            }
+    @Transactional(readOnly = true)
+    public Collection<AuthorFields> list(Collection<String> fields, Sort.Order order, Keyset after, int limit) {
+        return authorRepository.pageFields(fields, order, after, limit);
+    }
 
-            for (Book book : books) {
-                bookService.delete(book.getId());
-            }
+    @Override
+    @Transactional(readOnly = true)
+    public long version(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(authorRepository.findVersion(id))
+                .orElseThrow(() -> new EntityNotFoundException("author with id=%d not found".formatted(id)));
+    }
 
+    /**
+     * Copies the name onto the stored author, provided it still has the version of the given one. The books of a
+     * renamed author get a new version too, as their representation embeds the name.
+     */
+    @Override
+    public Author update(Author author) throws EntityNotFoundException {
+        Author stored = get(author.getId());
+        if (stored.getVersion() != author.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Author.class, author.getId());
+        }
+        if (!Objects.equals(stored.getFullName(), author.getFullName())) {
+            stored.setFullName(author.getFullName());
+            if (stored.getBooks() != null) {
+                for (Book book : stored.getBooks()) {
+                    bookRepository.incrementVersion(book);
+                    catalogCache.evictAuthorsOf(book.getId());
+                }
+            }
         }
+        nameTrie.putAfterCommit(stored.getId(), stored.getFullName());
+        catalogCache.evictAuthor(stored.getId());
+        return stored;
+    }
 
-        authorRepository.delete(author);
+    @Override
+    public void delete(Long id) throws EntityNotFoundException, DeleteAuthorException {
+        delete(List.of(id));
+    }
 
+    /**
+     * Checks and deletes the whole set with a fixed number of statements: the authors, their books and the join table
+     * rows are removed by bulk deletes, without loading any entity.
+     */
+    @Override
+    public void delete(Collection<Long> ids) throws EntityNotFoundException, DeleteAuthorException {
+        Set<Long> missing = new LinkedHashSet<>(ids);
+        authorRepository.findExistingIds(missing).forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw new EntityNotFoundException("authors with ids=%s not found".formatted(missing));
+        }
+        List<Long> coAuthors = authorRepository.findIdsHavingCoAuthoredBooks(ids);
+        if (!coAuthors.isEmpty()) {
+            throw new DeleteAuthorException("cannot delete authors %s, one or several books are co-authored".formatted(coAuthors));
+        }
 
+        List<Object[]> books = authorRepository.findBookIdsAndIsbns(ids);
+        List<Long> bookIds = books.stream().map(book -> (Long) book[0]).toList();
+        authorRepository.deleteAllById(ids);
+        bookRepository.deleteAllById(bookIds);
+        searchSync.booksChanged(bookIds);
+
+        for (Object[] book : books) {
+            Long bookId = (Long) book[0];
+            isbnIndex.removeAfterCommit((Long) book[1], bookId);
+            titleIndex.removeAfterCommit(bookId);
+            facets.removeAfterCommit(bookId);
+            catalogCache.evictBook(bookId);
+        }
+        for (Long id : ids) {
+            nameTrie.removeAfterCommit(id);
+            catalogCache.evictAuthor(id);
+        }
     }
 
 }
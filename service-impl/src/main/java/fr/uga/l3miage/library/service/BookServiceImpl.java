@@ -2,74 +2,256 @@ package fr.uga.l3miage.library.service;
 
 import fr.uga.l3miage.library.data.domain.Author;
 import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.repo.AuthorRepository;
 import fr.uga.l3miage.library.data.repo.BookRepository;
-import jakarta.transaction.Transactional;
+import fr.uga.l3miage.library.data.repo.BookFields;
+import fr.uga.l3miage.library.data.repo.Keyset;
+import fr.uga.l3miage.library.service.base.Found;
+import fr.uga.l3miage.library.service.cache.CatalogCache;
+import fr.uga.l3miage.library.service.index.BookFacets;
+import fr.uga.l3miage.library.service.index.IsbnIndex;
+import fr.uga.l3miage.library.service.index.TitleTrigramIndex;
+import fr.uga.l3miage.library.service.search.CatalogSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class BookServiceImpl implements BookService {
 
     private final AuthorService authorService;
+    private final AuthorRepository authorRepository;
     private final BookRepository bookRepository;
+    private final TitleTrigramIndex titleIndex;
+    private final IsbnIndex isbnIndex;
+    private final BookFacets facets;
+    private final CatalogSearchIndex searchIndex;
+    private final CatalogCache catalogCache;
 
     @Autowired
-    public BookServiceImpl(AuthorService authorService, BookRepository bookRepository) {
+    public BookServiceImpl(AuthorService authorService, AuthorRepository authorRepository, BookRepository bookRepository,
+                           TitleTrigramIndex titleIndex, IsbnIndex isbnIndex, BookFacets facets,
+                           CatalogSearchIndex searchIndex, CatalogCache catalogCache) {
         this.authorService = authorService;
+        this.authorRepository = authorRepository;
         this.bookRepository = bookRepository;
+        this.titleIndex = titleIndex;
+        this.isbnIndex = isbnIndex;
+        this.facets = facets;
+        this.searchIndex = searchIndex;
+        this.catalogCache = catalogCache;
     }
 
     @Override
     public Book save(Long authorId, Book book) throws EntityNotFoundException {
         bookRepository.save(book);
         bind(authorId, book);
+        titleIndex.putAfterCommit(book.getId(), book.getTitle());
+        isbnIndex.putAfterCommit(book.getIsbn(), book.getId());
+        facets.putAfterCommit(book);
         return book;
     }
 
+    @Override
+    public List<Book> saveAll(List<BookImport> imports) {
+        Set<Long> authorIds = imports.stream()
+                .flatMap(item -> item.authorIds().stream())
+                .collect(Collectors.toSet());
+        Map<Long, Author> authors = authorRepository.findAllById(authorIds).stream()
+                .collect(Collectors.toMap(Author::getId, Function.identity()));
+
+        List<Book> results = new ArrayList<>(imports.size());
+        List<Book> books = new ArrayList<>(imports.size());
+        for (BookImport item : imports) {
+            if (authors.keySet().containsAll(item.authorIds())) {
+                // only the inverse side is set, the association rows are inserted in bulk by the repository
+                item.authorIds().forEach(authorId -> item.book().addAuthor(authors.get(authorId)));
+                books.add(item.book());
+                results.add(item.book());
+            } else {
+                results.add(null);
+            }
+        }
+
+        bookRepository.saveAll(books);
+        books.forEach(book -> {
+            titleIndex.putAfterCommit(book.getId(), book.getTitle());
+            isbnIndex.putAfterCommit(book.getIsbn(), book.getId());
+            facets.putAfterCommit(book);
+        });
+        authors.keySet().forEach(catalogCache::evictBooksOf);
+        return results;
+    }
+
 
     @Override
+    @Transactional(readOnly = true)
     public Book get(Long id) throws EntityNotFoundException {
         return Optional.ofNullable(bookRepository.get(id))
                 .orElseThrow(() -> new EntityNotFoundException("Cannot find book with id: " + id));
     }
 
+    /**
+     * Resolves the books of the persistence context, then those of the second level cache under the session's cache
+     * mode, the others are read by {@link BookRepository#getAll(List)}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Found<Book, Long> getAll(Collection<Long> ids) {
+        List<Long> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        return Found.of(distinct, bookRepository.getAll(distinct));
+    }
+
     @Override
+    @Transactional(readOnly = true)
+    public Book getByIsbn(long isbn) throws EntityNotFoundException {
+        return isbnIndex.find(isbn).stream()
+                .mapToObj(bookRepository::get)
+                .filter(book -> book != null && book.getIsbn() == isbn)
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find book with isbn: " + isbn));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Collection<Book> list() {
         return bookRepository.all();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<Book> list(Sort.Order order, Keyset after, int limit) {
+        return bookRepository.page(order, after, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Collection<BookFields> list(Collection<String> fields, Sort.Order order, Keyset after, int limit) {
+        return bookRepository.pageFields(fields, order, after, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long version(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(bookRepository.findVersion(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find book with id: " + id));
+    }
+
+    /**
+     * Copies the fields of the given book onto the stored one, provided it still has the version of the given one.
+     * The authors and the borrow of the book are left unchanged.
+     */
     @Override
     public Book update(Book book) throws EntityNotFoundException {
-        return bookRepository.save(book);
+        Book stored = get(book.getId());
+        if (stored.getVersion() != book.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Book.class, book.getId());
+        }
+        long previousIsbn = stored.getIsbn();
+        stored.setTitle(book.getTitle());
+        stored.setIsbn(book.getIsbn());
+        stored.setPublisher(book.getPublisher());
+        stored.setYear(book.getYear());
+        stored.setLanguage(book.getLanguage());
+        titleIndex.putAfterCommit(stored.getId(), stored.getTitle());
+        if (previousIsbn != stored.getIsbn()) {
+            isbnIndex.removeAfterCommit(previousIsbn, stored.getId());
+        }
+        isbnIndex.putAfterCommit(stored.getIsbn(), stored.getId());
+        facets.putAfterCommit(stored);
+        catalogCache.evictBook(stored.getId());
+        return stored;
     }
 
     public Book addAuthor(Long bookId, Long authorId) throws EntityNotFoundException {
         var book = get(bookId);
         bind(authorId, book);
+        bookRepository.incrementVersion(book);
         return book;
     }
 
     @Override
     public void delete(Long id) throws EntityNotFoundException {
         Book book = get(id);
+        if (book.getAuthors() != null) {
+            book.getAuthors().forEach(author -> catalogCache.evictBooksOf(author.getId()));
+        }
         bookRepository.delete(book);
+        titleIndex.removeAfterCommit(id);
+        isbnIndex.removeAfterCommit(book.getIsbn(), id);
+        facets.removeAfterCommit(id);
+        catalogCache.evictBook(id);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Collection<Book> findByTitle(String title) {
-        return bookRepository.findByContainingTitle(title);
+        return titleIndex.search(title)
+                .map(bookRepository::findAllById)
+                .orElseGet(() -> bookRepository.findByContainingTitle(title));
     }
 
+    /**
+     * Ranks through the full-text index, then loads the found books with their authors in a single query.
+     */
     @Override
+    @Transactional(readOnly = true)
+    public List<Book> search(String query, int limit) {
+        List<Long> ids = searchIndex.search(query, limit);
+        Map<Long, Book> books = bookRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        return ids.stream()
+                .map(books::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Counts in memory through the facet columns, the candidates of a title filter being found as in
+     * {@link #findByTitle(String)}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<Facet> facets(Collection<String> names, String titlePart) {
+        if (titlePart == null) {
+            return facets.count(names, null);
+        }
+        Facet.requireKnown(names);
+        Collection<Long> candidates = titleIndex.search(titlePart)
+                .<Collection<Long>>map(ids -> ids)
+                .orElseGet(() -> bookRepository.findByContainingTitle(titlePart).stream().map(Book::getId).toList());
+        return facets.count(names, candidates);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Collection<Book> getByAuthor(Long authorId) throws EntityNotFoundException {
         return authorService.get(authorId).getBooks();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Collection<Book> getByAuthor(Long authorId, Sort.Order order, Keyset after, int limit) throws EntityNotFoundException {
+        authorService.get(authorId);
+        return bookRepository.pageByAuthor(authorId, order, after, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Collection<Book> findByAuthor(Long authorId, String title) throws EntityNotFoundException {
         return bookRepository.findByAuthorIdAndContainingTitle(authorId, title);
     }
@@ -79,6 +261,8 @@ public class BookServiceImpl implements BookService {
         Author author = authorService.get(authorId);
         author.addBook(book);
         book.addAuthor(author);
+        catalogCache.evictBooksOf(authorId);
+        catalogCache.evictAuthorsOf(book.getId());
     }
 
 
@@ -0,0 +1,95 @@
+package fr.uga.l3miage.library.service;
+
+import fr.uga.l3miage.library.data.domain.Borrow;
+import fr.uga.l3miage.library.data.domain.UserBorrowStats;
+import fr.uga.l3miage.library.data.repo.BorrowRepository;
+import fr.uga.l3miage.library.data.repo.UserBorrowStatsRepository;
+import fr.uga.l3miage.library.service.leaderboard.LibrarianLeaderboard;
+import fr.uga.l3miage.library.service.schedule.DueDateWheel;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@Transactional
+public class BorrowServiceImpl implements BorrowService {
+
+    private final BorrowRepository borrowRepository;
+    private final DueDateWheel dueDates;
+    private final LibrarianLeaderboard leaderboard;
+    private final UserBorrowStatsRepository statsRepository;
+
+    @Autowired
+    public BorrowServiceImpl(BorrowRepository borrowRepository, DueDateWheel dueDates, LibrarianLeaderboard leaderboard,
+                             UserBorrowStatsRepository statsRepository) {
+        this.borrowRepository = borrowRepository;
+        this.dueDates = dueDates;
+        this.leaderboard = leaderboard;
+        this.statsRepository = statsRepository;
+    }
+
+    @Override
+    public Borrow get(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(borrowRepository.get(id))
+                .orElseThrow(() -> new EntityNotFoundException("borrow with id=%d not found".formatted(id)));
+    }
+
+    @Override
+    public Borrow save(Borrow borrow) {
+        var saved = borrowRepository.save(borrow);
+        if (!saved.isFinished() && saved.getRequestedReturn() != null) {
+            dueDates.scheduleAfterCommit(saved.getId(), saved.getRequestedReturn());
+        }
+        if (saved.getLibrarian() != null) {
+            leaderboard.addAfterCommit(saved.getLibrarian().getId(), saved.getStart());
+        }
+        if (saved.getBorrower() != null) {
+            boolean inProgress = !saved.isFinished();
+            boolean late = inProgress && saved.getRequestedReturn() != null && !saved.getRequestedReturn().after(new Date());
+            statsRepository.add(saved.getBorrower().getId(), 1, inProgress ? 1 : 0, late ? 1 : 0);
+        }
+        return saved;
+    }
+
+    @Override
+    public Borrow finish(Long id) throws EntityNotFoundException {
+        Borrow borrow = get(id);
+        if (!borrow.isFinished() && borrow.getBorrower() != null) {
+            statsRepository.add(borrow.getBorrower().getId(), 0, -1, dueDates.overdue().contains(id) ? -1 : 0);
+        }
+        borrow.setFinished(true);
+        dueDates.cancelAfterCommit(id);
+        return borrow;
+    }
+
+    @Override
+    public void delete(Long id) throws EntityNotFoundException {
+        Borrow borrow = get(id);
+        borrowRepository.delete(borrow);
+        if (borrow.getBorrower() != null) {
+            boolean inProgress = !borrow.isFinished();
+            boolean late = inProgress && dueDates.overdue().contains(id);
+            statsRepository.add(borrow.getBorrower().getId(), -1, inProgress ? -1 : 0, late ? -1 : 0);
+        }
+        dueDates.cancelAfterCommit(id);
+        if (borrow.getLibrarian() != null) {
+            leaderboard.removeAfterCommit(borrow.getLibrarian().getId(), borrow.getStart());
+        }
+    }
+
+    @Override
+    public Set<Long> overdue() {
+        return dueDates.overdue();
+    }
+
+    @Override
+    public UserBorrowStats stats(String userId) {
+        return Optional.ofNullable(statsRepository.get(userId))
+                .orElseGet(() -> new UserBorrowStats(userId, 0, 0, 0));
+    }
+
+}
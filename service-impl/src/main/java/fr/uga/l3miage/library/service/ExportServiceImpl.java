@@ -0,0 +1,45 @@
+package fr.uga.l3miage.library.service;
+
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.domain.Borrow;
+import fr.uga.l3miage.library.data.repo.AuthorRepository;
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import fr.uga.l3miage.library.data.repo.BorrowRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Consumer;
+
+@Service
+@Transactional
+public class ExportServiceImpl implements ExportService {
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final BorrowRepository borrowRepository;
+
+    @Autowired
+    public ExportServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository, BorrowRepository borrowRepository) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.borrowRepository = borrowRepository;
+    }
+
+    @Override
+    public void books(Consumer<Book> action) {
+        bookRepository.scroll(action);
+    }
+
+    @Override
+    public void authors(Consumer<Author> action) {
+        authorRepository.scroll(action);
+    }
+
+    @Override
+    public void borrows(Consumer<Borrow> action) {
+        borrowRepository.scroll(action);
+    }
+
+}
@@ -0,0 +1,66 @@
+package fr.uga.l3miage.library.service.cache;
+
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.service.support.AfterCommit;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Explicit invalidation of the second level cache regions of the catalog.
+ * <p>
+ * Hibernate keeps the entity regions and the owning side of the Author/Book association ({@code Author.books})
+ * up to date on its own, but not the inverse side ({@code Book.authors}), and a cached collection keeps ids of
+ * deleted entities. The services call these methods on every write so that no stale association can be read.
+ * All evictions happen after commit.
+ */
+@Component
+public class CatalogCache {
+
+    static final String AUTHOR_BOOKS = Author.class.getName() + ".books";
+    static final String BOOK_AUTHORS = Book.class.getName() + ".authors";
+
+    private final Cache cache;
+
+    @Autowired
+    public CatalogCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Evicts a book and its authors collection.
+     */
+    public void evictBook(Long bookId) {
+        AfterCommit.run(() -> {
+            cache.evictEntityData(Book.class, bookId);
+            cache.evictCollectionData(BOOK_AUTHORS, bookId);
+        });
+    }
+
+    /**
+     * Evicts an author and its books collection.
+     */
+    public void evictAuthor(Long authorId) {
+        AfterCommit.run(() -> {
+            cache.evictEntityData(Author.class, authorId);
+            cache.evictCollectionData(AUTHOR_BOOKS, authorId);
+        });
+    }
+
+    /**
+     * Evicts the books collection of an author, after one of its books was added or removed.
+     */
+    public void evictBooksOf(Long authorId) {
+        AfterCommit.run(() -> cache.evictCollectionData(AUTHOR_BOOKS, authorId));
+    }
+
+    /**
+     * Evicts the authors collection of a book, after one of its authors was added or removed.
+     */
+    public void evictAuthorsOf(Long bookId) {
+        AfterCommit.run(() -> cache.evictCollectionData(BOOK_AUTHORS, bookId));
+    }
+}
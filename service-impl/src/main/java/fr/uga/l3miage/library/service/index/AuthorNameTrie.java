@@ -0,0 +1,315 @@
+package fr.uga.l3miage.library.service.index;
+
+import fr.uga.l3miage.library.data.repo.AuthorRepository;
+import fr.uga.l3miage.library.service.support.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In memory radix trie of author names, used for prefix autocompletion without touching the database.
+ * <p>
+ * Names are folded (lower case, accents removed) and inserted once per word, from that word to the end of the
+ * name, so that both "hug" and "victor h" suggest "Victor Hugo". Chains of nodes having a single child and no id are
+ * merged into one edge labelled with their characters, so the tail of a name, which few others share, takes one node
+ * instead of one per character. Children of a node are kept in sorted arrays by the first character of their label,
+ * so a depth first walk yields suggestions in alphabetical order and stops as soon as enough ids have been
+ * collected.
+ */
+@Component
+public class AuthorNameTrie {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private final AuthorRepository authorRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, String> names = new HashMap<>();
+    private Node root = new Node();
+
+    @Autowired
+    public AuthorNameTrie(AuthorRepository authorRepository) {
+        this.authorRepository = authorRepository;
+    }
+
+    /**
+     * Loads all names from the database, replacing the current content.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            root = new Node();
+            names.clear();
+            for (Object[] row : authorRepository.allIdsAndNames()) {
+                doPut((Long) row[0], (String) row[1]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes an author name, replacing the previous one if any.
+     */
+    public void put(Long id, String fullName) {
+        lock.writeLock().lock();
+        try {
+            doRemove(id);
+            doPut(id, fullName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            doRemove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #put(Long, String)} but deferred after the commit of the current transaction, if any.
+     */
+    public void putAfterCommit(Long id, String fullName) {
+        AfterCommit.run(() -> put(id, fullName));
+    }
+
+    /**
+     * Same as {@link #remove(Long)} but deferred after the commit of the current transaction, if any.
+     */
+    public void removeAfterCommit(Long id) {
+        AfterCommit.run(() -> remove(id));
+    }
+
+    /**
+     * Suggests authors having a word of their name starting with the given prefix, ignoring case and accents.
+     *
+     * @param prefix the typed prefix
+     * @param limit  maximum number of suggestions
+     * @return id to full name of at most {@code limit} authors, in alphabetical order of the matched words
+     */
+    public Map<Long, String> suggest(String prefix, int limit) {
+        Map<Long, String> found = new LinkedHashMap<>();
+        String folded = fold(prefix);
+        lock.readLock().lock();
+        try {
+            Node node = find(folded);
+            if (node != null) {
+                collect(node, found, limit);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    /**
+     * @return the node of the prefix, or the one whose edge the prefix ends in, null if no word starts with it
+     */
+    private Node find(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            int common = common(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                return child;
+            }
+            if (common < child.label.length()) {
+                return null;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+
+    private void collect(Node node, Map<Long, String> found, int limit) {
+        if (node.ids != null) {
+            for (Long id : node.ids) {
+                if (found.size() == limit) {
+                    return;
+                }
+                found.putIfAbsent(id, names.get(id));
+            }
+        }
+        for (int i = 0; i < node.size && found.size() < limit; i++) {
+            collect(node.children[i], found, limit);
+        }
+    }
+
+    private void doPut(Long id, String fullName) {
+        if (fullName == null) {
+            return;
+        }
+        names.put(id, fullName);
+        for (String word : keys(fullName)) {
+            Node node = root;
+            int i = 0;
+            while (i < word.length()) {
+                Node child = node.child(word.charAt(i));
+                if (child == null) {
+                    child = new Node(word.substring(i));
+                    node.add(child);
+                    node = child;
+                    break;
+                }
+                int common = common(child.label, word, i);
+                if (common < child.label.length()) {
+                    // the word leaves the edge midway: split it
+                    Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.add(child);
+                    node.replace(middle);
+                    child = middle;
+                }
+                node = child;
+                i += common;
+            }
+            if (node.ids == null) {
+                node.ids = new TreeSet<>();
+            }
+            node.ids.add(id);
+        }
+    }
+
+    private void doRemove(Long id) {
+        String previous = names.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String word : keys(previous)) {
+            remove(root, word, 0, id);
+        }
+    }
+
+    /**
+     * @return true if the node became empty and can be pruned
+     */
+    private static boolean remove(Node node, String word, int depth, Long id) {
+        if (depth == word.length()) {
+            if (node.ids != null) {
+                node.ids.remove(id);
+                if (node.ids.isEmpty()) {
+                    node.ids = null;
+                }
+            }
+        } else {
+            Node child = node.child(word.charAt(depth));
+            if (child != null && word.startsWith(child.label, depth)) {
+                if (remove(child, word, depth + child.label.length(), id)) {
+                    node.remove(child);
+                } else if (child.ids == null && child.size == 1) {
+                    // no longer a fork: merge it with its only child
+                    Node only = child.children[0];
+                    only.label = child.label + only.label;
+                    node.replace(only);
+                }
+            }
+        }
+        return node.ids == null && node.size == 0;
+    }
+
+    /**
+     * @return the length of the common prefix of the label and of the word from {@code from}
+     */
+    private static int common(String label, String word, int from) {
+        int max = Math.min(label.length(), word.length() - from);
+        int i = 0;
+        while (i < max && label.charAt(i) == word.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static List<String> keys(String fullName) {
+        String folded = fold(fullName);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < folded.length(); i++) {
+            if (i == 0 || folded.charAt(i - 1) == ' ') {
+                keys.add(folded.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    static String fold(String text) {
+        String unaccented = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(unaccented.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Trie node, reached through an edge labelled with one or more characters. Children are in a sorted array of
+     * the first characters of their labels, binary searched on lookup, as no two of them start alike.
+     */
+    private static final class Node {
+        private String label;
+        private char[] firsts = new char[0];
+        private Node[] children = new Node[0];
+        private int size;
+        private TreeSet<Long> ids;
+
+        Node() {
+            this("");
+        }
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(firsts, 0, size, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        void add(Node child) {
+            int at = -Arrays.binarySearch(firsts, 0, size, child.label.charAt(0)) - 1;
+            if (size == firsts.length) {
+                int capacity = Math.max(2, size * 2);
+                firsts = Arrays.copyOf(firsts, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(firsts, at, firsts, at + 1, size - at);
+            System.arraycopy(children, at, children, at + 1, size - at);
+            firsts[at] = child.label.charAt(0);
+            children[at] = child;
+            size++;
+        }
+
+        /**
+         * Replaces the child whose label starts like the one of the given node.
+         */
+        void replace(Node child) {
+            children[Arrays.binarySearch(firsts, 0, size, child.label.charAt(0))] = child;
+        }
+
+        void remove(Node child) {
+            int i = Arrays.binarySearch(firsts, 0, size, child.label.charAt(0));
+            System.arraycopy(firsts, i + 1, firsts, i, size - i - 1);
+            System.arraycopy(children, i + 1, children, i, size - i - 1);
+            size--;
+            children[size] = null;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package fr.uga.l3miage.library.service.index;
+
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import fr.uga.l3miage.library.service.Facet;
+import fr.uga.l3miage.library.service.support.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.IntStream;
+
+/**
+ * In memory columnar copy of the faceted attributes of the books, see {@link Facet#NAMES}.
+ * <p>
+ * Each attribute is a column of dictionary codes indexed by book id, ids being dense as they come from a sequence.
+ * The number of books per code is kept up to date, so that counting over the whole catalog costs nothing. Counting over
+ * a set of candidate books either intersects the candidate bitset with the bitset of each value, 64 books per
+ * popcount, or reads the code of each candidate when there are few candidates or too many values to keep bitsets.
+ * <p>
+ * Writes are exclusive, counts share a read lock.
+ */
+@Component
+public class BookFacets {
+
+    static final int INITIAL_ROWS = 1 << 10;
+
+    /**
+     * Number of distinct values above which a column drops its bitsets: languages and decades stay below, publishers
+     * do not
+     */
+    static final int MAX_BITSETS = 64;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxValues;
+    private final StampedLock lock = new StampedLock();
+
+    private Column[] columns = newColumns();
+
+    @Autowired
+    public BookFacets(BookRepository bookRepository, PlatformTransactionManager transactionManager,
+                      @Value("${library.facets.max-values:20}") int maxValues) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxValues = maxValues;
+    }
+
+    /**
+     * Loads the attributes of all books from the database into new columns, then replaces the current ones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        BookFacets loaded = new BookFacets(null, null, maxValues);
+        transactionTemplate.executeWithoutResult(status -> bookRepository.scrollFacets(row -> loaded.put(
+                (Long) row[0], (Book.Language) row[1], (Short) row[2], (String) row[3])));
+        long stamp = lock.writeLock();
+        try {
+            columns = loaded.columns;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Sets the attributes of a book, replacing the previous ones if any.
+     */
+    public void put(long id, Book.Language language, short year, String publisher) {
+        String[] values = Facet.valuesOf(language, year, publisher);
+        int row = Math.toIntExact(id);
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].set(row, values[i]);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(long id) {
+        int row = Math.toIntExact(id);
+        long stamp = lock.writeLock();
+        try {
+            for (Column column : columns) {
+                column.set(row, null);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Same as {@link #put(long, Book.Language, short, String)} with the current attributes of the book, but deferred
+     * after the commit of the current transaction, if any.
+     */
+    public void putAfterCommit(Book book) {
+        long id = book.getId();
+        Book.Language language = book.getLanguage();
+        short year = book.getYear();
+        String publisher = book.getPublisher();
+        AfterCommit.run(() -> put(id, language, year, publisher));
+    }
+
+    /**
+     * Same as {@link #remove(long)} but deferred after the commit of the current transaction, if any.
+     */
+    public void removeAfterCommit(long id) {
+        AfterCommit.run(() -> remove(id));
+    }
+
+    /**
+     * Counts the books per value of the given attributes.
+     *
+     * @param names      attributes among {@link Facet#NAMES}
+     * @param candidates the ids of the books to count, null for all books
+     * @return one facet per name, each with at most {@code library.facets.max-values} values
+     * @throws IllegalArgumentException if one of the names is not a facet
+     */
+    public List<Facet> count(Collection<String> names, Collection<Long> candidates) {
+        Facet.requireKnown(names);
+        BitSet rows = null;
+        if (candidates != null) {
+            rows = new BitSet();
+            for (Long id : candidates) {
+                rows.set(Math.toIntExact(id));
+            }
+        }
+        List<Facet> facets = new ArrayList<>(names.size());
+        long stamp = lock.readLock();
+        try {
+            for (String name : names) {
+                facets.add(new Facet(name, columns[Facet.NAMES.indexOf(name)].count(rows, maxValues)));
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return facets;
+    }
+
+    private static Column[] newColumns() {
+        Column[] columns = new Column[Facet.NAMES.size()];
+        Arrays.setAll(columns, i -> new Column());
+        return columns;
+    }
+
+    /**
+     * One attribute: its dictionary, the code of each row, the number of rows per code and, while the dictionary is
+     * small, the bitset of the rows of each code.
+     */
+    private static final class Column {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private int[] totals = new int[8];
+        // code + 1 of each row, 0 for a row without value
+        private int[] rows = new int[INITIAL_ROWS];
+        private List<long[]> bitsets = new ArrayList<>();
+
+        void set(int row, String value) {
+            if (row >= rows.length) {
+                grow(row + 1);
+            }
+            int previous = rows[row] - 1;
+            if (previous >= 0) {
+                totals[previous]--;
+                if (bitsets != null) {
+                    bitsets.get(previous)[row >>> 6] &= ~(1L << row);
+                }
+            }
+            if (value == null) {
+                rows[row] = 0;
+                return;
+            }
+            int code = codes.computeIfAbsent(value, this::newCode);
+            rows[row] = code + 1;
+            totals[code]++;
+            if (bitsets != null) {
+                bitsets.get(code)[row >>> 6] |= 1L << row;
+            }
+        }
+
+        List<Facet.Count> count(BitSet candidates, int limit) {
+            long[] counts = new long[values.size()];
+            if (candidates == null) {
+                for (int code = 0; code < counts.length; code++) {
+                    counts[code] = totals[code];
+                }
+            } else if (bitsets != null && (long) counts.length * (rows.length >>> 6) < candidates.cardinality()) {
+                long[] words = candidates.toLongArray();
+                for (int code = 0; code < counts.length; code++) {
+                    long[] bitset = bitsets.get(code);
+                    int length = Math.min(words.length, bitset.length);
+                    long count = 0;
+                    for (int i = 0; i < length; i++) {
+                        count += Long.bitCount(words[i] & bitset[i]);
+                    }
+                    counts[code] = count;
+                }
+            } else {
+                for (int row = candidates.nextSetBit(0); row >= 0 && row < rows.length; row = candidates.nextSetBit(row + 1)) {
+                    int code = rows[row] - 1;
+                    if (code >= 0) {
+                        counts[code]++;
+                    }
+                }
+            }
+            return IntStream.range(0, counts.length)
+                    .filter(code -> counts[code] > 0)
+                    .boxed()
+                    .sorted(Comparator.<Integer>comparingLong(code -> counts[code]).reversed()
+                            .thenComparing(values::get))
+                    .limit(limit)
+                    .map(code -> new Facet.Count(values.get(code), counts[code]))
+                    .toList();
+        }
+
+        private int newCode(String value) {
+            int code = values.size();
+            values.add(value);
+            if (code == totals.length) {
+                totals = Arrays.copyOf(totals, 2 * code);
+            }
+            if (bitsets != null) {
+                if (code < MAX_BITSETS) {
+                    bitsets.add(new long[rows.length >>> 6]);
+                } else {
+                    bitsets = null;
+                }
+            }
+            return code;
+        }
+
+        private void grow(int minRows) {
+            int length = rows.length;
+            while (length < minRows) {
+                length *= 2;
+            }
+            rows = Arrays.copyOf(rows, length);
+            if (bitsets != null) {
+                bitsets.replaceAll(bitset -> Arrays.copyOf(bitset, rows.length >>> 6));
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package fr.uga.l3miage.library.service.index;
+
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import fr.uga.l3miage.library.service.support.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.OptionalLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In memory index of the books by ISBN, an open addressing hash map from {@code long} to {@code long}.
+ * <p>
+ * Entries are stored inline in a single {@code long[]}, the ISBN of a slot followed by the book id, so that neither
+ * keys nor values are boxed: 16 bytes per slot, slots being kept at most 3/4 full. Collisions are resolved by linear
+ * probing, and removals shift the following entries back instead of leaving tombstones. ISBN 0 marks an empty slot,
+ * books without ISBN are not indexed.
+ * <p>
+ * Writes are exclusive; lookups are optimistic and only take the read lock if a write happened meanwhile. An ISBN
+ * shared by several books points to the last one saved; once that book is deleted, or given another ISBN, the others
+ * cannot be found by ISBN until the next {@link #rebuild()}.
+ */
+@Component
+public class IsbnIndex {
+
+    static final int INITIAL_CAPACITY = 1 << 10;
+
+    private static final long EMPTY = 0;
+
+    private final BookRepository bookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StampedLock lock = new StampedLock();
+
+    private long[] table = new long[2 * INITIAL_CAPACITY];
+    private int size;
+
+    @Autowired
+    public IsbnIndex(BookRepository bookRepository, PlatformTransactionManager transactionManager) {
+        this.bookRepository = bookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Loads all ISBNs from the database into a new table, then replaces the current one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        IsbnIndex loaded = new IsbnIndex(null, null);
+        transactionTemplate.executeWithoutResult(status -> bookRepository.scrollIsbns(loaded::put));
+        long stamp = lock.writeLock();
+        try {
+            table = loaded.table;
+            size = loaded.size;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Finds the id of the book having the given ISBN.
+     *
+     * @return the book id, or empty if no book has this ISBN
+     */
+    public OptionalLong find(long isbn) {
+        if (isbn == EMPTY) {
+            return OptionalLong.empty();
+        }
+        long stamp = lock.tryOptimisticRead();
+        long[] current = table;
+        int slot = probe(current, isbn);
+        long id = slot < 0 ? 0 : current[slot + 1];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                current = table;
+                slot = probe(current, isbn);
+                id = slot < 0 ? 0 : current[slot + 1];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return slot < 0 ? OptionalLong.empty() : OptionalLong.of(id);
+    }
+
+    /**
+     * Indexes a book under its ISBN, replacing the book previously indexed under it if any.
+     */
+    public void put(long isbn, long id) {
+        if (isbn == EMPTY) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (4L * (size + 1) > 3L * capacity()) {
+                resize(2 * capacity());
+            }
+            int slot = slotOf(table, isbn);
+            while (table[slot] != EMPTY && table[slot] != isbn) {
+                slot = next(table, slot);
+            }
+            if (table[slot] == EMPTY) {
+                table[slot] = isbn;
+                size++;
+            }
+            table[slot + 1] = id;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Unindexes a book, if it is still the one indexed under the given ISBN.
+     */
+    public void remove(long isbn, long id) {
+        if (isbn == EMPTY) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            int slot = probe(table, isbn);
+            if (slot < 0 || table[slot + 1] != id) {
+                return;
+            }
+            // shift back the entries of the probe sequence that would no longer be reachable
+            int hole = slot;
+            int current = next(table, hole);
+            while (table[current] != EMPTY) {
+                int home = slotOf(table, table[current]);
+                if (distance(table, home, current) >= distance(table, hole, current)) {
+                    table[hole] = table[current];
+                    table[hole + 1] = table[current + 1];
+                    hole = current;
+                }
+                current = next(table, current);
+            }
+            table[hole] = EMPTY;
+            table[hole + 1] = 0;
+            size--;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Same as {@link #put(long, long)} but deferred after the commit of the current transaction, if any.
+     */
+    public void putAfterCommit(long isbn, long id) {
+        AfterCommit.run(() -> put(isbn, id));
+    }
+
+    /**
+     * Same as {@link #remove(long, long)} but deferred after the commit of the current transaction, if any.
+     */
+    public void removeAfterCommit(long isbn, long id) {
+        AfterCommit.run(() -> remove(isbn, id));
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    int capacity() {
+        return table.length / 2;
+    }
+
+    private void resize(int capacity) {
+        long[] previous = table;
+        table = new long[2 * capacity];
+        for (int i = 0; i < previous.length; i += 2) {
+            if (previous[i] != EMPTY) {
+                int slot = slotOf(table, previous[i]);
+                while (table[slot] != EMPTY) {
+                    slot = next(table, slot);
+                }
+                table[slot] = previous[i];
+                table[slot + 1] = previous[i + 1];
+            }
+        }
+    }
+
+    /**
+     * @return the index of the slot holding the ISBN, or -1. May be wrong if the table is written concurrently, but
+     * always terminates.
+     */
+    private static int probe(long[] table, long isbn) {
+        int slot = slotOf(table, isbn);
+        for (int i = 0; i < table.length / 2; i++) {
+            long key = table[slot];
+            if (key == isbn) {
+                return slot;
+            }
+            if (key == EMPTY) {
+                return -1;
+            }
+            slot = next(table, slot);
+        }
+        return -1;
+    }
+
+    private static int slotOf(long[] table, long isbn) {
+        // ISBNs are mostly sequential, mix their bits before masking (finalizer of MurmurHash3)
+        long h = isbn;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) (h & (table.length / 2 - 1)) * 2;
+    }
+
+    private static int next(long[] table, int slot) {
+        return (slot + 2) & (table.length - 1);
+    }
+
+    private static int distance(long[] table, int from, int to) {
+        return ((to - from) & (table.length - 1)) / 2;
+    }
+}
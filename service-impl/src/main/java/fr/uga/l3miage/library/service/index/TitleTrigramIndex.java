@@ -0,0 +1,216 @@
+package fr.uga.l3miage.library.service.index;
+
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import fr.uga.l3miage.library.service.support.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In memory trigram index of book titles, used for case-insensitive substring search.
+ * <p>
+ * Every 3-gram of a lower-cased title points to the ids of the books containing it. A search intersects the posting
+ * lists of the 3-grams of the searched text, starting with the smallest, then verifies the remaining candidates
+ * against the indexed titles. Searches shorter than 3 characters cannot be answered by the index, nor the ones made
+ * before it is first loaded.
+ * <p>
+ * Writes are exclusive and searches share a read lock. A rebuild loads the titles into new maps without the lock,
+ * then swaps them in once the writes made meanwhile are replayed on them.
+ */
+@Component
+public class TitleTrigramIndex {
+
+    public static final int GRAM = 3;
+
+    private final BookRepository bookRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    private Map<Long, String> titles = new HashMap<>();
+    private boolean ready;
+    // writes made during a rebuild, a null title for a removal
+    private Map<Long, String> changes;
+
+    @Autowired
+    public TitleTrigramIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Loads all titles from the database, replacing the current content.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changes = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        TitleTrigramIndex loaded = new TitleTrigramIndex(null);
+        try {
+            for (Object[] row : bookRepository.allIdsAndTitles()) {
+                loaded.doPut((Long) row[0], (String) row[1]);
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            changes.forEach((id, title) -> {
+                loaded.doRemove(id);
+                loaded.doPut(id, title);
+            });
+            changes = null;
+            postings = loaded.postings;
+            titles = loaded.titles;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a book title, replacing the previous one if any.
+     */
+    public void put(Long id, String title) {
+        lock.writeLock().lock();
+        try {
+            doRemove(id);
+            doPut(id, title);
+            if (changes != null) {
+                changes.put(id, title);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            doRemove(id);
+            if (changes != null) {
+                changes.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Same as {@link #put(Long, String)} but deferred after the commit of the current transaction, if any.
+     */
+    public void putAfterCommit(Long id, String title) {
+        AfterCommit.run(() -> put(id, title));
+    }
+
+    /**
+     * Same as {@link #remove(Long)} but deferred after the commit of the current transaction, if any.
+     */
+    public void removeAfterCommit(Long id) {
+        AfterCommit.run(() -> remove(id));
+    }
+
+    /**
+     * Finds the ids of the books whose title contains the given text, ignoring case.
+     *
+     * @param titlePart the searched text
+     * @return the matching ids, or empty if the text is too short to be searched through the index or if the index is
+     * not loaded yet
+     */
+    public Optional<Set<Long>> search(String titlePart) {
+        String normalized = normalize(titlePart);
+        if (normalized.length() < GRAM) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return Optional.empty();
+            }
+            List<Set<Long>> lists = new ArrayList<>();
+            for (String gram : grams(normalized)) {
+                Set<Long> ids = postings.get(gram);
+                if (ids == null) {
+                    return Optional.of(Set.of());
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+
+            Set<Long> found = new HashSet<>();
+            for (Long id : lists.get(0)) {
+                if (inAll(id, lists) && titles.getOrDefault(id, "").contains(normalized)) {
+                    found.add(id);
+                }
+            }
+            return Optional.of(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void doPut(Long id, String title) {
+        if (title == null) {
+            return;
+        }
+        String normalized = normalize(title);
+        titles.put(id, normalized);
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(id);
+        }
+    }
+
+    private void doRemove(Long id) {
+        String previous = titles.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            postings.computeIfPresent(gram, (g, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static boolean inAll(Long id, List<Set<Long>> lists) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    static Set<String> grams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,240 @@
+package fr.uga.l3miage.library.service.leaderboard;
+
+import fr.uga.l3miage.library.data.repo.LibrarianRepository;
+import fr.uga.l3miage.library.service.LeaderboardService;
+import fr.uga.l3miage.library.service.LibrarianRanking;
+import fr.uga.l3miage.library.service.support.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In memory leaderboard of the librarians, replacing the GROUP BY over the whole borrow table.
+ * <p>
+ * Every librarian has a ring of daily counters over the last {@value #DAYS} days plus an all time counter, updated
+ * after commit when a borrow is saved or deleted. For each window, librarians are kept sorted by count in a tree, and
+ * the first {@code size} entries are copied to an immutable snapshot after every change: reads cost O(K) and never
+ * lock. Counters leaving the 30 days window are dropped when the day changes.
+ * <p>
+ * The counters are reloaded from the database at startup and periodically, to correct the writes that did not go
+ * through the services.
+ */
+@Component
+public class LibrarianLeaderboard implements LeaderboardService {
+
+    static final int DAYS = 30;
+
+    private static final Comparator<LibrarianRanking> MOST_ACTIVE_FIRST = Comparator
+            .comparingLong(LibrarianRanking::borrows).reversed()
+            .thenComparing(LibrarianRanking::librarianId);
+
+    private final LibrarianRepository librarianRepository;
+    private final Clock clock;
+    private final int size;
+
+    private final Map<String, Counters> counters = new HashMap<>();
+    private final Map<Window, TreeSet<LibrarianRanking>> rankings = new EnumMap<>(Window.class);
+    private final Map<Window, List<LibrarianRanking>> tops = new ConcurrentHashMap<>();
+    private volatile LocalDate today;
+
+    @Autowired
+    public LibrarianLeaderboard(LibrarianRepository librarianRepository,
+                                @Value("${library.leaderboard.size:10}") int size) {
+        this(librarianRepository, Clock.systemDefaultZone(), size);
+    }
+
+    LibrarianLeaderboard(LibrarianRepository librarianRepository, Clock clock, int size) {
+        this.librarianRepository = librarianRepository;
+        this.clock = clock;
+        this.size = size;
+        this.today = LocalDate.now(clock);
+        for (Window window : Window.values()) {
+            rankings.put(window, new TreeSet<>(MOST_ACTIVE_FIRST));
+            tops.put(window, List.of());
+        }
+    }
+
+    @Override
+    public List<LibrarianRanking> top(Window window, int limit) {
+        if (!LocalDate.now(clock).equals(today)) {
+            roll();
+        }
+        List<LibrarianRanking> top = tops.get(window);
+        return top.subList(0, Math.min(Math.max(limit, 0), top.size()));
+    }
+
+    /**
+     * Counts a new borrow.
+     */
+    public synchronized void add(String librarianId, Date start) {
+        update(librarianId, start, 1);
+    }
+
+    /**
+     * Uncounts a deleted borrow.
+     */
+    public synchronized void remove(String librarianId, Date start) {
+        update(librarianId, start, -1);
+    }
+
+    /**
+     * Same as {@link #add(String, Date)} but deferred after the commit of the current transaction, if any.
+     */
+    public void addAfterCommit(String librarianId, Date start) {
+        AfterCommit.run(() -> add(librarianId, start));
+    }
+
+    /**
+     * Same as {@link #remove(String, Date)} but deferred after the commit of the current transaction, if any.
+     */
+    public void removeAfterCommit(String librarianId, Date start) {
+        AfterCommit.run(() -> remove(librarianId, start));
+    }
+
+    /**
+     * Drops the daily counters that left the 30 days window, if the day changed.
+     */
+    @Scheduled(cron = "${library.leaderboard.roll:0 0 0 * * *}")
+    public synchronized void roll() {
+        LocalDate now = LocalDate.now(clock);
+        long elapsed = now.toEpochDay() - today.toEpochDay();
+        if (elapsed <= 0) {
+            return;
+        }
+        for (Counters c : counters.values()) {
+            for (long day = today.toEpochDay() + 1; day <= today.toEpochDay() + Math.min(elapsed, DAYS); day++) {
+                c.last30 -= c.days[index(day)];
+                c.days[index(day)] = 0;
+            }
+        }
+        today = now;
+        rerank();
+    }
+
+    /**
+     * Reloads all counters from the database. A borrow committed while the queries run may be counted twice or
+     * missed until the next reconciliation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${library.leaderboard.reconcile:PT15M}", initialDelayString = "${library.leaderboard.reconcile:PT15M}")
+    public void reconcile() {
+        LocalDate now = LocalDate.now(clock);
+        Date since = Date.from(now.minusDays(DAYS - 1).atStartOfDay(clock.getZone()).toInstant());
+        List<Object[]> totals = librarianRepository.countBorrowsByLibrarian();
+        List<Object[]> starts = librarianRepository.borrowStartsSince(since);
+        synchronized (this) {
+            counters.clear();
+            today = now;
+            for (Object[] row : totals) {
+                counters.computeIfAbsent((String) row[0], id -> new Counters()).total = (Long) row[1];
+            }
+            for (Object[] row : starts) {
+                long day = dayOf((Date) row[1]);
+                if (inWindow(day)) {
+                    Counters c = counters.computeIfAbsent((String) row[0], id -> new Counters());
+                    c.days[index(day)]++;
+                    c.last30++;
+                }
+            }
+            rerank();
+        }
+    }
+
+    private void update(String librarianId, Date start, int delta) {
+        if (librarianId == null) {
+            return;
+        }
+        roll();
+        Counters c = counters.computeIfAbsent(librarianId, id -> new Counters());
+        unrank(librarianId, c);
+        c.total += delta;
+        long day = start != null ? dayOf(start) : today.toEpochDay();
+        if (inWindow(day)) {
+            c.days[index(day)] += delta;
+            c.last30 += delta;
+        }
+        rank(librarianId, c);
+        for (Window window : Window.values()) {
+            snapshot(window);
+        }
+    }
+
+    private void rerank() {
+        rankings.values().forEach(TreeSet::clear);
+        counters.forEach(this::rank);
+        for (Window window : Window.values()) {
+            snapshot(window);
+        }
+    }
+
+    private void rank(String librarianId, Counters c) {
+        for (Window window : Window.values()) {
+            long count = c.count(window, today);
+            if (count > 0) {
+                rankings.get(window).add(new LibrarianRanking(librarianId, count));
+            }
+        }
+    }
+
+    private void unrank(String librarianId, Counters c) {
+        for (Window window : Window.values()) {
+            rankings.get(window).remove(new LibrarianRanking(librarianId, c.count(window, today)));
+        }
+    }
+
+    private void snapshot(Window window) {
+        List<LibrarianRanking> top = new ArrayList<>(size);
+        for (LibrarianRanking ranking : rankings.get(window)) {
+            if (top.size() == size) {
+                break;
+            }
+            top.add(ranking);
+        }
+        tops.put(window, List.copyOf(top));
+    }
+
+    private boolean inWindow(long day) {
+        return day <= today.toEpochDay() && day > today.toEpochDay() - DAYS;
+    }
+
+    private long dayOf(Date date) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(date.getTime()), clock.getZone()).toEpochDay();
+    }
+
+    private static int index(long day) {
+        return (int) Math.floorMod(day, DAYS);
+    }
+
+    /**
+     * Borrow counters of one librarian, the daily ones indexed by epoch day modulo {@value #DAYS}.
+     */
+    private static final class Counters {
+        private final long[] days = new long[DAYS];
+        private long last30;
+        private long total;
+
+        long count(Window window, LocalDate today) {
+            return switch (window) {
+                case TODAY -> days[index(today.toEpochDay())];
+                case LAST_30_DAYS -> last30;
+                case ALL_TIME -> total;
+            };
+        }
+    }
+}
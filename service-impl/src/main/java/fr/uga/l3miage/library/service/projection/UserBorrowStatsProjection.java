@@ -0,0 +1,98 @@
+package fr.uga.l3miage.library.service.projection;
+
+import fr.uga.l3miage.library.data.domain.Borrow;
+import fr.uga.l3miage.library.data.repo.BorrowRepository;
+import fr.uga.l3miage.library.data.repo.UserBorrowStatsRepository;
+import fr.uga.l3miage.library.data.repo.UserRepository;
+import fr.uga.l3miage.library.service.BorrowOverdueEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Maintenance of the {@code user_borrow_stats} projection outside of the borrow service transactions.
+ * <p>
+ * Borrows become late with time rather than with a write: the late counter follows the {@link BorrowOverdueEvent}s
+ * of the due date wheel. The rebuild job recomputes the whole projection from the borrow table, one aggregate upsert
+ * per chunk of users, the chunks running in parallel in their own transactions. The rebuild counts as late the borrows
+ * whose requested return date is before its start, so the overdue events of these borrows are ignored once it started.
+ * A borrow whose transaction commits while its chunk is upserted may be counted only by the next rebuild.
+ */
+@Component
+public class UserBorrowStatsProjection {
+
+    static final int CHUNK_SIZE = 500;
+
+    private final UserBorrowStatsRepository statsRepository;
+    private final UserRepository userRepository;
+    private final BorrowRepository borrowRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int threads;
+    private volatile Date rebuiltAt;
+
+    @Autowired
+    public UserBorrowStatsProjection(UserBorrowStatsRepository statsRepository, UserRepository userRepository,
+                                     BorrowRepository borrowRepository, PlatformTransactionManager transactionManager,
+                                     @Value("${library.borrow-stats.rebuild-threads:4}") int threads) {
+        this.statsRepository = statsRepository;
+        this.userRepository = userRepository;
+        this.borrowRepository = borrowRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.threads = threads;
+    }
+
+    @EventListener
+    public void onOverdue(BorrowOverdueEvent event) {
+        Date rebuiltAt = this.rebuiltAt;
+        if (rebuiltAt != null && event.requestedReturn().before(rebuiltAt)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            Borrow borrow = borrowRepository.get(event.borrowId());
+            if (borrow != null && !borrow.isFinished() && borrow.getBorrower() != null) {
+                statsRepository.add(borrow.getBorrower().getId(), 0, 0, 1);
+            }
+        });
+    }
+
+    /**
+     * Recomputes the counters of every user. A failed chunk does not stop the others, its error is thrown once they
+     * have all run.
+     *
+     * @return the number of users recomputed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${library.borrow-stats.rebuild:0 30 3 * * *}")
+    public int rebuild() {
+        Date now = new Date();
+        rebuiltAt = now;
+        List<String> userIds = transactionTemplate.execute(status -> userRepository.allIds());
+        List<CompletableFuture<Integer>> chunks = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int from = 0; from < userIds.size(); from += CHUNK_SIZE) {
+                List<String> chunk = userIds.subList(from, Math.min(from + CHUNK_SIZE, userIds.size()));
+                chunks.add(CompletableFuture.supplyAsync(() -> {
+                    transactionTemplate.executeWithoutResult(status -> statsRepository.recompute(chunk, now));
+                    return chunk.size();
+                }, executor));
+            }
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+            return chunks.stream().mapToInt(CompletableFuture::join).sum();
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
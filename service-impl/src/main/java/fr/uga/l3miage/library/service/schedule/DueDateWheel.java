@@ -0,0 +1,270 @@
+package fr.uga.l3miage.library.service.schedule;
+
+import fr.uga.l3miage.library.data.repo.BorrowRepository;
+import fr.uga.l3miage.library.service.BorrowDueSoonEvent;
+import fr.uga.l3miage.library.service.BorrowOverdueEvent;
+import fr.uga.l3miage.library.service.support.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hierarchical timing wheel of the requested return dates of the borrows in progress, so that late borrows are
+ * known without scanning the borrow table.
+ * <p>
+ * Every borrow has two timers, "due soon" and "overdue", counted in ticks. A timer sits in the level holding the
+ * highest group of {@value #BITS} bits that differs between its deadline and the current tick, in the slot given by
+ * that group of its deadline. Each tick fires the current slot of level 0; when the lower levels wrap, the current
+ * slot of the upper level is cascaded down first. Scheduling and cancelling are O(1), and a timer moves down at most
+ * once per level before it fires.
+ * <p>
+ * Deadlines that have already passed when a borrow is scheduled, at startup for instance, do not fire events: the
+ * borrow is put straight in the overdue set.
+ */
+@Component
+public class DueDateWheel {
+
+    static final int BITS = 6;
+    static final int SLOTS = 1 << BITS;
+    static final int LEVELS = 5;
+
+    private final BorrowRepository borrowRepository;
+    private final ApplicationEventPublisher publisher;
+    private final Clock clock;
+    private final long tickMillis;
+    private final long dueSoonMillis;
+
+    private final Timer[][] wheel = new Timer[LEVELS][SLOTS];
+    private final Map<Long, Timer[]> timers = new HashMap<>();
+    private final Set<Long> overdue = ConcurrentHashMap.newKeySet();
+    private long currentTick;
+
+    @Autowired
+    public DueDateWheel(BorrowRepository borrowRepository, ApplicationEventPublisher publisher,
+                        @Value("${library.borrows.tick:PT1M}") Duration tick,
+                        @Value("${library.borrows.due-soon:P2D}") Duration dueSoon) {
+        this(borrowRepository, publisher, Clock.systemUTC(), tick, dueSoon);
+    }
+
+    DueDateWheel(BorrowRepository borrowRepository, ApplicationEventPublisher publisher, Clock clock, Duration tick,
+                 Duration dueSoon) {
+        this.borrowRepository = borrowRepository;
+        this.publisher = publisher;
+        this.clock = clock;
+        this.tickMillis = tick.toMillis();
+        this.dueSoonMillis = dueSoon.toMillis();
+        this.currentTick = clock.millis() / tickMillis;
+    }
+
+    /**
+     * Loads the borrows in progress from the database, replacing the current content.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Object[]> rows = borrowRepository.allOpenIdsAndRequestedReturns();
+        synchronized (this) {
+            for (Timer[] slots : wheel) {
+                Arrays.fill(slots, null);
+            }
+            timers.clear();
+            overdue.clear();
+            currentTick = clock.millis() / tickMillis;
+            for (Object[] row : rows) {
+                doSchedule((Long) row[0], (Date) row[1]);
+            }
+        }
+    }
+
+    /**
+     * Tracks the requested return date of a borrow, replacing the previous one if any.
+     */
+    public synchronized void schedule(Long borrowId, Date requestedReturn) {
+        doCancel(borrowId);
+        doSchedule(borrowId, requestedReturn);
+    }
+
+    /**
+     * Stops tracking a borrow, which leaves the overdue set.
+     */
+    public synchronized void cancel(Long borrowId) {
+        doCancel(borrowId);
+    }
+
+    /**
+     * Same as {@link #schedule(Long, Date)} but deferred after the commit of the current transaction, if any.
+     */
+    public void scheduleAfterCommit(Long borrowId, Date requestedReturn) {
+        AfterCommit.run(() -> schedule(borrowId, requestedReturn));
+    }
+
+    /**
+     * Same as {@link #cancel(Long)} but deferred after the commit of the current transaction, if any.
+     */
+    public void cancelAfterCommit(Long borrowId) {
+        AfterCommit.run(() -> cancel(borrowId));
+    }
+
+    /**
+     * @return ids of the tracked borrows whose requested return date has passed, an unmodifiable view
+     */
+    public Set<Long> overdue() {
+        return Collections.unmodifiableSet(overdue);
+    }
+
+    /**
+     * Moves the wheel up to the current time, one tick at a time, then publishes the events of the fired timers
+     * outside of the lock.
+     */
+    @Scheduled(fixedDelayString = "${library.borrows.tick:PT1M}")
+    public void advance() {
+        List<Object> events = new ArrayList<>();
+        synchronized (this) {
+            long target = clock.millis() / tickMillis;
+            while (currentTick < target) {
+                currentTick++;
+                for (int level = LEVELS - 1; level > 0; level--) {
+                    if ((currentTick & ((1L << (level * BITS)) - 1)) == 0) {
+                        cascade(level, slot(currentTick, level));
+                    }
+                }
+                expire(events);
+            }
+        }
+        events.forEach(publisher::publishEvent);
+    }
+
+    private void cascade(int level, int slot) {
+        Timer timer = wheel[level][slot];
+        wheel[level][slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void expire(List<Object> events) {
+        int slot = slot(currentTick, 0);
+        Timer timer = wheel[0][slot];
+        wheel[0][slot] = null;
+        while (timer != null) {
+            Timer next = timer.next;
+            if (timer.deadline > currentTick) {
+                insert(timer);
+            } else if (timer.overdue) {
+                timers.remove(timer.borrowId);
+                overdue.add(timer.borrowId);
+                events.add(new BorrowOverdueEvent(timer.borrowId, timer.requestedReturn));
+            } else {
+                Timer[] pair = timers.get(timer.borrowId);
+                if (pair != null) {
+                    pair[0] = null;
+                }
+                events.add(new BorrowDueSoonEvent(timer.borrowId, timer.requestedReturn));
+            }
+            timer = next;
+        }
+    }
+
+    private void doSchedule(Long borrowId, Date requestedReturn) {
+        long now = clock.millis();
+        long due = requestedReturn.getTime();
+        if (due <= now) {
+            overdue.add(borrowId);
+            return;
+        }
+        Timer[] pair = new Timer[2];
+        if (due - dueSoonMillis > now) {
+            pair[0] = insert(new Timer(borrowId, requestedReturn, false, deadline(due - dueSoonMillis)));
+        }
+        pair[1] = insert(new Timer(borrowId, requestedReturn, true, deadline(due)));
+        timers.put(borrowId, pair);
+    }
+
+    private void doCancel(Long borrowId) {
+        overdue.remove(borrowId);
+        Timer[] pair = timers.remove(borrowId);
+        if (pair != null) {
+            for (Timer timer : pair) {
+                if (timer != null) {
+                    unlink(timer);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the first tick at or after the given time, never the current one
+     */
+    private long deadline(long millis) {
+        return Math.max(-Math.floorDiv(-millis, tickMillis), currentTick + 1);
+    }
+
+    private Timer insert(Timer timer) {
+        long diff = timer.deadline ^ currentTick;
+        int level = diff == 0 ? 0 : Math.min((63 - Long.numberOfLeadingZeros(diff)) / BITS, LEVELS - 1);
+        timer.level = level;
+        timer.slot = slot(timer.deadline, level);
+        timer.prev = null;
+        timer.next = wheel[level][timer.slot];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        wheel[level][timer.slot] = timer;
+        return timer;
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else if (wheel[timer.level][timer.slot] == timer) {
+            wheel[timer.level][timer.slot] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) (tick >>> (level * BITS)) & (SLOTS - 1);
+    }
+
+    /**
+     * Entry of the doubly linked list of a slot, so that a cancelled timer is unlinked in constant time.
+     */
+    private static final class Timer {
+        private final Long borrowId;
+        private final Date requestedReturn;
+        private final boolean overdue;
+        private final long deadline;
+        private int level;
+        private int slot;
+        private Timer prev;
+        private Timer next;
+
+        Timer(Long borrowId, Date requestedReturn, boolean overdue, long deadline) {
+            this.borrowId = borrowId;
+            this.requestedReturn = requestedReturn;
+            this.overdue = overdue;
+            this.deadline = deadline;
+        }
+    }
+}
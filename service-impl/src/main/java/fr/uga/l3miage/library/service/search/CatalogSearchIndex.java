@@ -0,0 +1,325 @@
+package fr.uga.l3miage.library.service.search;
+
+import fr.uga.l3miage.library.data.repo.AuthorRepository;
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.fr.FrenchAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.util.ElisionFilter;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Full-text index of the catalog, stored on disk: one Lucene document per book, holding its title, its publisher and
+ * the names of its authors.
+ * <p>
+ * Text is tokenized, lower-cased, stripped of French elisions and folded to ASCII, so that "miserables" finds
+ * "Les Misérables" and "amour" finds "L'Amour fou". Every word of a search must match one of the fields; results are
+ * ranked by BM25, a match in the title weighing more than in an author name, itself weighing more than in the
+ * publisher.
+ * <p>
+ * Writes go through a single {@link IndexWriter}. Searches use a {@link SearcherManager} opened on that writer:
+ * changes are searchable as soon as the manager is refreshed, without waiting for them to be committed to disk (near
+ * real time). Commits only make the index durable and run periodically. Writes, refreshes and commits wait for a
+ * running {@link #rebuild()}, so that neither searches nor the disk see an index half rebuilt.
+ */
+@Component
+public class CatalogSearchIndex {
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String PUBLISHER = "publisher";
+    static final String AUTHORS = "authors";
+    static final String ALL = "all";
+
+    static final int CHUNK_SIZE = 500;
+
+    private static final Map<String, Float> WEIGHTS = Map.of(TITLE, 3f, AUTHORS, 2f, PUBLISHER, 1f);
+
+    private final BookRepository bookRepository;
+    private final AuthorRepository authorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rebuildOnStartup;
+    private final Analyzer analyzer = new CatalogAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    @Autowired
+    public CatalogSearchIndex(BookRepository bookRepository, AuthorRepository authorRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${library.search.directory:search-index}") Path path,
+                              @Value("${library.search.rebuild-on-startup:true}") boolean rebuildOnStartup) throws IOException {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        // re-indexing runs after the commit of the writing transaction, while its resources are still bound
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.directory = FSDirectory.open(path);
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (rebuildOnStartup || size() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Re-indexes every book from the database. Searches keep seeing the previous content until it is done.
+     *
+     * @return the number of indexed books
+     */
+    public synchronized int rebuild() {
+        try {
+            writer.deleteAll();
+            Grouping rows = new Grouping();
+            transactionTemplate.executeWithoutResult(status -> bookRepository.scrollSearchRows(rows));
+            rows.flush();
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            return rows.count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the given books and the books of the given authors again from the database, removes the given books
+     * that no longer exist, then refreshes searches.
+     */
+    public synchronized void reindex(Collection<Long> bookIds, Collection<Long> authorIds) {
+        Set<Long> missing = new HashSet<>(bookIds);
+        Grouping rows = new Grouping();
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> affected = new HashSet<>(bookIds);
+            affected.addAll(authorRepository.findBookIds(authorIds));
+            List<Long> ids = new ArrayList<>(affected);
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                for (Object[] row : bookRepository.searchRows(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())))) {
+                    missing.remove((Long) row[0]);
+                    rows.accept(row);
+                }
+            }
+        });
+        rows.flush();
+        missing.forEach(this::remove);
+        refresh();
+    }
+
+    /**
+     * Indexes a book, replacing its previous document if any. Not searchable before the next {@link #refresh()}.
+     */
+    public synchronized void put(long id, String title, String publisher, Collection<String> authors) {
+        Document document = new Document();
+        document.add(new StringField(ID, Long.toString(id), Field.Store.YES));
+        if (title != null) {
+            document.add(new TextField(TITLE, title, Field.Store.NO));
+        }
+        if (publisher != null) {
+            document.add(new TextField(PUBLISHER, publisher, Field.Store.NO));
+        }
+        for (String author : authors) {
+            document.add(new TextField(AUTHORS, author, Field.Store.NO));
+        }
+        for (String text : new String[]{title, publisher}) {
+            if (text != null) {
+                document.add(new TextField(ALL, text, Field.Store.NO));
+            }
+        }
+        for (String author : authors) {
+            document.add(new TextField(ALL, author, Field.Store.NO));
+        }
+        try {
+            writer.updateDocument(new Term(ID, Long.toString(id)), document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Unindexes a book. Still searchable until the next {@link #refresh()}.
+     */
+    public synchronized void remove(long id) {
+        try {
+            writer.deleteDocuments(new Term(ID, Long.toString(id)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes the changes written so far searchable, waiting for a concurrent refresh if there is one.
+     */
+    public synchronized void refresh() {
+        try {
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the pending changes to disk, so that they survive a restart.
+     */
+    @Scheduled(fixedDelayString = "${library.search.commit-interval:PT30S}")
+    public synchronized void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finds the books matching every word of the given text, in their title, publisher or author names. The text may
+     * use the simple query syntax: {@code "quoted phrases"}, {@code -excluded} words, {@code prefix*}, {@code a | b}.
+     *
+     * @return the ids of at most {@code limit} books, the most relevant first
+     */
+    public List<Long> search(String text, int limit) {
+        // matching is a conjunction of terms of the single field holding all texts, which skips through the
+        // posting lists much faster than a conjunction of disjunctions of the fields; the weighted fields only score
+        // the books found
+        SimpleQueryParser matching = new SimpleQueryParser(analyzer, ALL);
+        matching.setDefaultOperator(BooleanClause.Occur.MUST);
+        SimpleQueryParser scoring = new SimpleQueryParser(analyzer, WEIGHTS);
+        Query query = new BooleanQuery.Builder()
+                .add(matching.parse(text), BooleanClause.Occur.FILTER)
+                .add(scoring.parse(text), BooleanClause.Occur.SHOULD)
+                .build();
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                List<Long> ids = new ArrayList<>(limit);
+                for (ScoreDoc hit : searcher.search(query, limit).scoreDocs) {
+                    ids.add(Long.valueOf(searcher.doc(hit.doc, Set.of(ID)).get(ID)));
+                }
+                return ids;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the number of indexed books, including the ones not searchable yet
+     */
+    public int size() {
+        return writer.getDocStats().numDocs;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Turns rows of {@link BookRepository#searchRows(Collection)}, one per author, back into one document per book.
+     */
+    private final class Grouping implements Consumer<Object[]> {
+
+        private Long id;
+        private String title;
+        private String publisher;
+        private List<String> authors = new ArrayList<>();
+        private int count;
+
+        @Override
+        public void accept(Object[] row) {
+            if (!row[0].equals(id)) {
+                flush();
+                id = (Long) row[0];
+                title = (String) row[1];
+                publisher = (String) row[2];
+                authors = new ArrayList<>();
+            }
+            if (row[3] != null) {
+                authors.add((String) row[3]);
+            }
+        }
+
+        void flush() {
+            if (id != null) {
+                put(id, title, publisher, authors);
+                count++;
+                id = null;
+            }
+        }
+    }
+
+    /**
+     * Standard tokenization, then lower case, French elisions and accents removed. Values of a multi-valued field are
+     * kept apart, so that a phrase cannot span two author names.
+     */
+    private static final class CatalogAnalyzer extends Analyzer {
+
+        @Override
+        public int getPositionIncrementGap(String fieldName) {
+            return 100;
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            return new TokenStreamComponents(tokenizer, normalize(fieldName, tokenizer));
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            TokenStream stream = new LowerCaseFilter(in);
+            stream = new ElisionFilter(stream, FrenchAnalyzer.DEFAULT_ARTICLES);
+            return new ASCIIFoldingFilter(stream);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package fr.uga.l3miage.library.service.search;
+
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.domain.Book;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the {@link CatalogSearchIndex} in sync with the database through Hibernate events.
+ * <p>
+ * Inserts, updates and deletes of books, updates of authors and changes of the books of an author only record ids in
+ * the current transaction. Once it commits, the affected books are read again and re-indexed together, so that a
+ * rollback leaves the index untouched and an import costs a query per chunk of books rather than one per book.
+ * <p>
+ * Bulk statements do not raise any event: their callers report the books they touch with {@link #booksChanged}.
+ */
+@Component
+public class CatalogSearchSync implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionRecreateEventListener, PostCollectionUpdateEventListener {
+
+    static final String AUTHOR_BOOKS = Author.class.getName() + ".books";
+
+    private final CatalogSearchIndex index;
+
+    @Autowired
+    public CatalogSearchSync(EntityManagerFactory entityManagerFactory, CatalogSearchIndex index) {
+        this.index = index;
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+    }
+
+    /**
+     * Re-indexes the given books after the commit of the current transaction, if any.
+     */
+    public void booksChanged(Collection<Long> bookIds) {
+        changed(bookIds, List.of());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        entityChanged(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        entityChanged(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        entityChanged(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        if (AUTHOR_BOOKS.equals(event.getCollection().getRole())) {
+            entityChanged(event.getAffectedOwnerOrNull(), event.getAffectedOwnerIdOrNull());
+        }
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        if (AUTHOR_BOOKS.equals(event.getCollection().getRole())) {
+            entityChanged(event.getAffectedOwnerOrNull(), event.getAffectedOwnerIdOrNull());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void entityChanged(Object entity, Object id) {
+        if (entity instanceof Book) {
+            changed(List.of((Long) id), List.of());
+        } else if (entity instanceof Author) {
+            changed(List.of(), List.of((Long) id));
+        }
+    }
+
+    /**
+     * Records the changed ids in the current transaction, or re-indexes at once if there is none.
+     */
+    private void changed(Collection<Long> bookIds, Collection<Long> authorIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            index.reindex(bookIds, authorIds);
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.bookIds.addAll(bookIds);
+        pending.authorIds.addAll(authorIds);
+    }
+
+    private final class Pending implements TransactionSynchronization {
+
+        private final Set<Long> bookIds = new HashSet<>();
+        private final Set<Long> authorIds = new HashSet<>();
+
+        @Override
+        public void afterCommit() {
+            index.reindex(bookIds, authorIds);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(CatalogSearchSync.this);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package fr.uga.l3miage.library.service.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in memory index and cache maintenance until the current transaction commits, so that a rollback leaves
+ * them untouched and a concurrent reader cannot re-populate a cache with data about to change.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+        // to hide the public one
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
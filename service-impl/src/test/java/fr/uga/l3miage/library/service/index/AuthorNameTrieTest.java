@@ -0,0 +1,57 @@
+package fr.uga.l3miage.library.service.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorNameTrieTest {
+
+    AuthorNameTrie trie = new AuthorNameTrie(null);
+
+    @Test
+    void suggest() {
+        trie.put(1L, "Victor Hugo");
+        trie.put(2L, "Émile Zola");
+        trie.put(3L, "Victoria Hislop");
+
+        assertThat(trie.suggest("vic", 10)).containsOnlyKeys(1L, 3L);
+        assertThat(trie.suggest("HUG", 10)).containsOnlyKeys(1L);
+        assertThat(trie.suggest("emi", 10)).containsEntry(2L, "Émile Zola");
+        assertThat(trie.suggest("victor h", 10)).containsOnlyKeys(1L);
+        assertThat(trie.suggest("vic", 1)).containsOnlyKeys(1L);
+        assertThat(trie.suggest("x", 10)).isEmpty();
+    }
+
+    @Test
+    void updateAndRemove() {
+        trie.put(1L, "Victor Hugo");
+        trie.put(1L, "Albert Camus");
+
+        assertThat(trie.suggest("vic", 10)).isEmpty();
+        assertThat(trie.suggest("cam", 10)).containsEntry(1L, "Albert Camus");
+
+        trie.remove(1L);
+        assertThat(trie.suggest("a", 10)).isEmpty();
+    }
+
+    @Test
+    void splitAndMergeEdges() {
+        trie.put(1L, "Victor Hugo");
+        trie.put(2L, "Victoria Hislop");
+        trie.put(3L, "Vic");
+
+        assertThat(trie.suggest("victo", 10)).containsOnlyKeys(1L, 2L);
+        assertThat(trie.suggest("victori", 10)).containsOnlyKeys(2L);
+        assertThat(trie.suggest("vic", 10)).containsOnlyKeys(3L, 1L, 2L);
+
+        trie.remove(2L);
+        trie.remove(3L);
+        assertThat(trie.suggest("vic", 10)).containsOnlyKeys(1L);
+        assertThat(trie.suggest("victor hugo", 10)).containsOnlyKeys(1L);
+        assertThat(trie.suggest("victori", 10)).isEmpty();
+
+        trie.put(2L, "Victoria Hislop");
+        assertThat(trie.suggest("victoria", 10)).containsOnlyKeys(2L);
+        assertThat(trie.suggest("hi", 10)).containsOnlyKeys(2L);
+    }
+}
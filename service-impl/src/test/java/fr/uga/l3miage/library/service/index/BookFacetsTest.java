@@ -0,0 +1,71 @@
+package fr.uga.l3miage.library.service.index;
+
+import fr.uga.l3miage.library.data.domain.Book.Language;
+import fr.uga.l3miage.library.service.Facet;
+import fr.uga.l3miage.library.service.Facet.Count;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookFacetsTest {
+
+    BookFacets facets = new BookFacets(null, null, 3);
+
+    @Test
+    void countAll() {
+        facets.put(1, Language.FRENCH, (short) 1862, "Folio");
+        facets.put(2, Language.FRENCH, (short) 1831, "Folio");
+        facets.put(3, Language.ENGLISH, (short) 1869, null);
+        facets.put(4, Language.FRENCH, (short) 1865, "Pocket");
+
+        assertThat(facets.count(List.of("language", "year", "publisher"), null)).containsExactly(
+                new Facet("language", List.of(new Count("french", 3), new Count("english", 1))),
+                new Facet("year", List.of(new Count("1860", 3), new Count("1830", 1))),
+                new Facet("publisher", List.of(new Count("Folio", 2), new Count("Pocket", 1))));
+    }
+
+    @Test
+    void updateAndRemove() {
+        facets.put(1, Language.FRENCH, (short) 1862, "Folio");
+        facets.put(2, Language.FRENCH, (short) 1831, "Folio");
+        facets.put(2, Language.ENGLISH, (short) 1831, "Folio");
+        facets.remove(1);
+        facets.remove(5000);
+
+        assertThat(facets.count(List.of("language", "publisher"), null)).containsExactly(
+                new Facet("language", List.of(new Count("english", 1))),
+                new Facet("publisher", List.of(new Count("Folio", 1))));
+    }
+
+    @Test
+    void countCandidates() {
+        // the language column keeps bitsets, the publisher one has too many values and is scanned
+        for (long id = 1; id <= 10_000; id++) {
+            facets.put(id, id % 4 == 0 ? Language.ENGLISH : Language.FRENCH, (short) 2000, "publisher " + id % 100);
+        }
+
+        List<Long> few = List.of(4L, 8L, 9L);
+        assertThat(facets.count(List.of("language", "publisher"), few)).containsExactly(
+                new Facet("language", List.of(new Count("english", 2), new Count("french", 1))),
+                new Facet("publisher", List.of(new Count("publisher 4", 1), new Count("publisher 8", 1),
+                        new Count("publisher 9", 1))));
+
+        List<Long> many = LongStream.rangeClosed(1, 8_000).boxed().toList();
+        assertThat(facets.count(List.of("language", "publisher"), many)).containsExactly(
+                new Facet("language", List.of(new Count("french", 6_000), new Count("english", 2_000))),
+                new Facet("publisher", List.of(new Count("publisher 0", 80), new Count("publisher 1", 80),
+                        new Count("publisher 10", 80))));
+
+        assertThat(facets.count(List.of("year"), List.of())).containsExactly(new Facet("year", List.of()));
+    }
+
+    @Test
+    void unknownFacet() {
+        assertThatThrownBy(() -> facets.count(List.of("title"), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,62 @@
+package fr.uga.l3miage.library.service.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IsbnIndexTest {
+
+    IsbnIndex index = new IsbnIndex(null, null);
+
+    @Test
+    void putAndFind() {
+        index.put(9780000000001L, 1);
+        index.put(9780000000002L, 2);
+        index.put(9780000000001L, 3);
+        index.put(0, 4);
+
+        assertThat(index.find(9780000000001L)).hasValue(3);
+        assertThat(index.find(9780000000002L)).hasValue(2);
+        assertThat(index.find(9780000000003L)).isEmpty();
+        assertThat(index.find(0)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @Test
+    void removeOnlyTheIndexedBook() {
+        index.put(9780000000001L, 1);
+        index.remove(9780000000001L, 2);
+        assertThat(index.find(9780000000001L)).hasValue(1);
+
+        index.remove(9780000000001L, 1);
+        assertThat(index.find(9780000000001L)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void growsAndRemovesWithoutLosingCollidingEntries() {
+        Random random = new Random(42);
+        Map<Long, Long> expected = new HashMap<>();
+        for (long id = 1; id <= 10 * IsbnIndex.INITIAL_CAPACITY; id++) {
+            long isbn = 9780000000000L + random.nextInt(1_000_000);
+            index.put(isbn, id);
+            expected.put(isbn, id);
+        }
+        int removed = 0;
+        for (var entry : Map.copyOf(expected).entrySet()) {
+            if (removed++ % 3 == 0) {
+                index.remove(entry.getKey(), entry.getValue());
+                expected.remove(entry.getKey());
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(expected.size());
+        assertThat(index.capacity()).isGreaterThan(expected.size());
+        expected.forEach((isbn, id) -> assertThat(index.find(isbn)).hasValue(id));
+        assertThat(index.find(9780000000000L + 1_000_001)).isEmpty();
+    }
+}
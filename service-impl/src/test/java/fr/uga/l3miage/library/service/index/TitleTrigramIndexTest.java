@@ -0,0 +1,80 @@
+package fr.uga.l3miage.library.service.index;
+
+import fr.uga.l3miage.library.data.repo.BookRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TitleTrigramIndexTest {
+
+    List<Object[]> rows = new ArrayList<>();
+    Runnable whileLoading = () -> {
+    };
+
+    TitleTrigramIndex index = new TitleTrigramIndex(new BookRepository(null) {
+        @Override
+        public List<Object[]> allIdsAndTitles() {
+            whileLoading.run();
+            return rows;
+        }
+    });
+
+    @Test
+    void search() {
+        index.rebuild();
+        index.put(1L, "Hello world");
+        index.put(2L, "Please say hello!");
+        index.put(3L, "I'm an old smock");
+
+        assertThat(index.search("HELLO")).hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 2L));
+        assertThat(index.search("old s")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(3L));
+        assertThat(index.search("lloh")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+        assertThat(index.search("he")).isEmpty();
+    }
+
+    @Test
+    void updateAndRemove() {
+        index.rebuild();
+        index.put(1L, "Hello world");
+        index.put(1L, "Goodbye world");
+        index.put(2L, "Hello again");
+
+        assertThat(index.search("hello")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(2L));
+        assertThat(index.search("world")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L));
+
+        index.remove(1L);
+        assertThat(index.search("world")).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    void notLoadedYet() {
+        index.put(1L, "Hello world");
+        assertThat(index.search("hello")).isEmpty();
+
+        rows.add(new Object[]{2L, "Hello again"});
+        index.rebuild();
+        assertThat(index.search("hello")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(2L));
+    }
+
+    @Test
+    void rebuildKeepsTheWritesMadeWhileLoading() {
+        rows.add(new Object[]{1L, "Hello world"});
+        rows.add(new Object[]{2L, "Hello again"});
+        index.rebuild();
+
+        // searches see the previous content while loading, and the writes meanwhile are not lost by the swap
+        whileLoading = () -> {
+            index.put(1L, "Goodbye world");
+            index.remove(2L);
+            index.put(3L, "Hello there");
+            assertThat(index.search("hello")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(3L));
+        };
+        index.rebuild();
+
+        assertThat(index.search("hello")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(3L));
+        assertThat(index.search("goodbye")).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L));
+    }
+}
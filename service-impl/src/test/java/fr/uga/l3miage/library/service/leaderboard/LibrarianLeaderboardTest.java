@@ -0,0 +1,74 @@
+package fr.uga.l3miage.library.service.leaderboard;
+
+import fr.uga.l3miage.library.service.LeaderboardService.Window;
+import fr.uga.l3miage.library.service.LibrarianRanking;
+import fr.uga.l3miage.library.service.support.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LibrarianLeaderboardTest {
+
+    MutableClock clock = new MutableClock(Instant.parse("2023-03-01T10:00:00Z"));
+    LibrarianLeaderboard leaderboard = new LibrarianLeaderboard(null, clock, 2);
+
+    @Test
+    void top() {
+        leaderboard.add("a", daysAgo(0));
+        leaderboard.add("b", daysAgo(0));
+        leaderboard.add("b", daysAgo(5));
+        leaderboard.add("c", daysAgo(40));
+        leaderboard.add("c", daysAgo(50));
+        leaderboard.add("c", daysAgo(60));
+
+        assertThat(leaderboard.top(Window.TODAY, 10))
+                .containsExactly(new LibrarianRanking("a", 1), new LibrarianRanking("b", 1));
+        assertThat(leaderboard.top(Window.LAST_30_DAYS, 10))
+                .containsExactly(new LibrarianRanking("b", 2), new LibrarianRanking("a", 1));
+        assertThat(leaderboard.top(Window.ALL_TIME, 10))
+                .containsExactly(new LibrarianRanking("c", 3), new LibrarianRanking("b", 2));
+        assertThat(leaderboard.top(Window.ALL_TIME, 1))
+                .containsExactly(new LibrarianRanking("c", 3));
+    }
+
+    @Test
+    void remove() {
+        leaderboard.add("a", daysAgo(0));
+        leaderboard.add("a", daysAgo(1));
+        leaderboard.add("b", daysAgo(0));
+        leaderboard.remove("a", daysAgo(0));
+
+        assertThat(leaderboard.top(Window.TODAY, 10))
+                .containsExactly(new LibrarianRanking("b", 1));
+        assertThat(leaderboard.top(Window.LAST_30_DAYS, 10))
+                .containsExactly(new LibrarianRanking("a", 1), new LibrarianRanking("b", 1));
+    }
+
+    @Test
+    void roll() {
+        leaderboard.add("a", daysAgo(0));
+        leaderboard.add("b", daysAgo(29));
+
+        clock.advance(Duration.ofDays(1));
+        assertThat(leaderboard.top(Window.TODAY, 10)).isEmpty();
+        assertThat(leaderboard.top(Window.LAST_30_DAYS, 10))
+                .containsExactly(new LibrarianRanking("a", 1));
+
+        clock.advance(Duration.ofDays(45));
+        leaderboard.add("b", daysAgo(0));
+        assertThat(leaderboard.top(Window.TODAY, 10))
+                .containsExactly(new LibrarianRanking("b", 1));
+        assertThat(leaderboard.top(Window.LAST_30_DAYS, 10))
+                .containsExactly(new LibrarianRanking("b", 1));
+        assertThat(leaderboard.top(Window.ALL_TIME, 10))
+                .containsExactly(new LibrarianRanking("b", 2), new LibrarianRanking("a", 1));
+    }
+
+    private Date daysAgo(int days) {
+        return Date.from(clock.instant().minus(Duration.ofDays(days)));
+    }
+}
@@ -0,0 +1,95 @@
+package fr.uga.l3miage.library.service.schedule;
+
+import fr.uga.l3miage.library.service.BorrowDueSoonEvent;
+import fr.uga.l3miage.library.service.BorrowOverdueEvent;
+import fr.uga.l3miage.library.service.support.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DueDateWheelTest {
+
+    static final Duration TICK = Duration.ofMinutes(1);
+
+    MutableClock clock = new MutableClock(Instant.parse("2023-03-01T10:00:00Z"));
+    List<Object> events = new ArrayList<>();
+    DueDateWheel wheel = new DueDateWheel(null, events::add, clock, TICK, Duration.ofDays(2));
+
+    @Test
+    void firesDueSoonThenOverdue() {
+        Date due = at(Duration.ofDays(3));
+        wheel.schedule(1L, due);
+
+        advance(Duration.ofDays(1).minus(TICK));
+        assertThat(events).isEmpty();
+
+        advance(TICK.multipliedBy(2));
+        assertThat(events).containsExactly(new BorrowDueSoonEvent(1L, due));
+        assertThat(wheel.overdue()).isEmpty();
+
+        advance(Duration.ofDays(2).minus(TICK.multipliedBy(2)));
+        assertThat(events).hasSize(1);
+
+        advance(TICK.multipliedBy(2));
+        assertThat(events).containsExactly(new BorrowDueSoonEvent(1L, due), new BorrowOverdueEvent(1L, due));
+        assertThat(wheel.overdue()).containsExactly(1L);
+    }
+
+    @Test
+    void neverFiresEarlyAcrossLevels() {
+        Date due = at(Duration.ofDays(400).plusMinutes(17));
+        wheel.schedule(1L, due);
+
+        advance(Duration.ofDays(400).plusMinutes(16));
+        assertThat(events).hasSize(1);
+        assertThat(wheel.overdue()).isEmpty();
+
+        advance(TICK);
+        assertThat(events).last().isEqualTo(new BorrowOverdueEvent(1L, due));
+        assertThat(wheel.overdue()).containsExactly(1L);
+    }
+
+    @Test
+    void cancelAndReschedule() {
+        wheel.schedule(1L, at(Duration.ofHours(1)));
+        wheel.schedule(2L, at(Duration.ofHours(1)));
+        wheel.cancel(1L);
+        Date rescheduled = at(Duration.ofHours(5));
+        wheel.schedule(2L, rescheduled);
+
+        advance(Duration.ofHours(2));
+        assertThat(events).isEmpty();
+        assertThat(wheel.overdue()).isEmpty();
+
+        advance(Duration.ofHours(4));
+        assertThat(events).containsExactly(new BorrowOverdueEvent(2L, rescheduled));
+        assertThat(wheel.overdue()).containsExactly(2L);
+
+        wheel.cancel(2L);
+        assertThat(wheel.overdue()).isEmpty();
+    }
+
+    @Test
+    void alreadyLateIsOverdueWithoutEvent() {
+        wheel.schedule(1L, at(Duration.ofDays(-1)));
+
+        advance(TICK);
+        assertThat(events).isEmpty();
+        assertThat(wheel.overdue()).containsExactly(1L);
+    }
+
+    private Date at(Duration fromNow) {
+        return Date.from(clock.instant().plus(fromNow));
+    }
+
+    private void advance(Duration duration) {
+        clock.advance(duration);
+        wheel.advance();
+    }
+}
@@ -0,0 +1,91 @@
+package fr.uga.l3miage.library.service.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSearchIndexTest {
+
+    @TempDir
+    Path directory;
+
+    CatalogSearchIndex index;
+
+    @BeforeEach
+    void open() throws IOException {
+        index = new CatalogSearchIndex(null, null, null, directory, false);
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void ranksTitleOverAuthorOverPublisher() {
+        index.put(1, "Les Misérables", "Pocket", List.of("Victor Hugo"));
+        index.put(2, "Victor Hugo, une vie", "Hugo & Cie", List.of("Jean Dupont"));
+        index.put(3, "Notre-Dame de Paris", "Gallimard", List.of("Victor Hugo"));
+        index.put(4, "Les Hugo", "Seuil", List.of());
+        index.put(5, "Le Rouge et le Noir", "Hugo Éditions", List.of("Stendhal"));
+        index.refresh();
+
+        List<Long> hits = index.search("hugo", 10);
+        assertThat(hits).hasSize(5);
+        assertThat(hits.subList(0, 2)).containsExactlyInAnyOrder(2L, 4L);
+        assertThat(hits.subList(2, 4)).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(hits.get(4)).isEqualTo(5L);
+        assertThat(index.search("hugo", 2)).hasSize(2);
+        assertThat(index.search("victor hugo paris", 10)).containsExactly(3L);
+        assertThat(index.search("hugo -paris", 10)).doesNotContain(3L);
+        assertThat(index.search("gallimard", 10)).containsExactly(3L);
+        assertThat(index.search("zola", 10)).isEmpty();
+    }
+
+    @Test
+    void foldsCaseAccentsAndElisions() {
+        index.put(1, "L'Éducation sentimentale", null, List.of("Gustave Flaubert"));
+        index.refresh();
+
+        assertThat(index.search("EDUCATION", 10)).containsExactly(1L);
+        assertThat(index.search("éducation flaubert", 10)).containsExactly(1L);
+        assertThat(index.search("flaub*", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void nearRealTime() {
+        index.put(1, "Germinal", null, List.of("Émile Zola"));
+        assertThat(index.search("germinal", 10)).isEmpty();
+
+        index.refresh();
+        assertThat(index.search("germinal", 10)).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.put(1, "Nana", null, List.of("Émile Zola"));
+        index.refresh();
+        assertThat(index.search("germinal", 10)).isEmpty();
+        assertThat(index.search("nana zola", 10)).containsExactly(1L);
+
+        index.remove(1);
+        index.refresh();
+        assertThat(index.search("zola", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void survivesReopening() throws IOException {
+        index.put(1, "Germinal", null, List.of("Émile Zola"));
+        index.commit();
+        index.close();
+
+        index = new CatalogSearchIndex(null, null, null, directory, false);
+        assertThat(index.search("germinal", 10)).containsExactly(1L);
+    }
+}
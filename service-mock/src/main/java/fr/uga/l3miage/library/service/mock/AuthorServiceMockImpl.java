@@ -2,85 +2,118 @@ package fr.uga.l3miage.library.service.mock;
 
 import fr.uga.l3miage.library.data.domain.Author;
 import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.repo.AuthorFields;
+import fr.uga.l3miage.library.data.repo.Keyset;
 import fr.uga.l3miage.library.service.AuthorService;
 import fr.uga.l3miage.library.service.DeleteAuthorException;
 import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.Set;
 
 @Component
 public class AuthorServiceMockImpl implements AuthorService {
 
+    private final MockData data;
+
+    @Autowired
+    public AuthorServiceMockImpl(MockData data) {
+        this.data = data;
+    }
+
     @Override
     public Collection<Author> searchByName(String name) {
-        return MockData.authors.values()
-                .stream()
-                .filter(author -> author.getFullName().toLowerCase().contains(name.toLowerCase()))
-                .toList();
+        return data.authors.containing(name);
     }
 
 
+    @Override
+    public Collection<Author> suggest(String prefix, int limit) {
+        return data.authors.startingWith(prefix, limit);
+    }
+
     @Override
     public Author save(Author author) {
-        author.setId(MockData.getNextId(Author.class));
-        doUpdate(author);
+        author.setId(data.authors.nextId());
+        data.putAuthor(author);
         return author;
     }
 
     @Override
     public Author get(Long id) throws EntityNotFoundException {
-        return doGet(id);
+        return data.getAuthor(id);
+    }
+
+    @Override
+    public Collection<Author> list() {
+        return List.copyOf(data.authors.values());
     }
 
-    static Author doGet(Long id) throws EntityNotFoundException {
-        return Optional.ofNullable(MockData.authors.get(id))
-                .orElseThrow(() -> new EntityNotFoundException("Cannot find author with id: " + id));
+    @Override
+    public Collection<Author> list(Sort.Order order, Keyset after, int limit) {
+        return data.authors.page(order, after, limit);
     }
 
     @Override
-    public Collection<Author> list() {
-        return MockData.authors.values().stream().toList();
+    public Collection<AuthorFields> list(Collection<String> fields, Sort.Order order, Keyset after, int limit) {
+        List<String> selected = AuthorFields.select(fields, order);
+        return data.authors.page(order, after, limit).stream()
+                .map(entity -> AuthorFields.of(entity, selected))
+                .toList();
+    }
+
+    @Override
+    public long version(Long id) throws EntityNotFoundException {
+        return get(id).getVersion();
     }
 
     @Override
     public Author update(Author author) throws EntityNotFoundException {
         get(author.getId());
-        doUpdate(author);
-        return MockData.authors.get(author.getId());
+        Author updated = data.authors.update(author.getId(), stored -> {
+            MockData.checkVersion(Author.class, author.getId(), stored.getVersion(), author.getVersion());
+            if (!Objects.equals(stored.getFullName(), author.getFullName())) {
+                stored.setFullName(author.getFullName());
+                stored.setVersion(stored.getVersion() + 1);
+            }
+            return stored;
+        });
+        if (updated.getBooks() != null && updated.getVersion() != author.getVersion()) {
+            // the representation of the books embeds the name of their authors
+            for (Book book : updated.getBooks()) {
+                data.books.update(book.getId(), b -> {
+                    b.setVersion(b.getVersion() + 1);
+                    return b;
+                });
+            }
+        }
+        return updated;
     }
 
     @Override
     public void delete(Long id) throws EntityNotFoundException, DeleteAuthorException {
-        Set<Book> books = get(id)
-                .getBooks();
-        if (books != null) {
-
-            Optional<Integer> bookWithManyAuthor = books.stream()
-                    .map(Book::getAuthors)
-                    .filter(Objects::nonNull)
-                    .map(Collection::size)
-                    .filter(s -> s > 1)
-                    .findFirst();
-
-            if (bookWithManyAuthor.isPresent()) {
+        delete(List.of(id));
+    }
+
+    @Override
+    public void delete(Collection<Long> ids) throws EntityNotFoundException, DeleteAuthorException {
+        for (Long id : ids) {
+            Set<Book> books = get(id).getBooks();
+            if (books != null && books.stream().map(Book::getAuthors).anyMatch(authors -> authors != null && authors.size() > 1)) {
                 throw new DeleteAuthorException("cannot delete author, one or several books are co-authored");
             }
-
-            books.stream().map(Book::getId).forEach(MockData.books::remove);
-
         }
-
-        MockData.authors.remove(id);
-
-
-    }
-
-    private static void doUpdate(Author author) {
-        MockData.authors.put(author.getId(), author);
+        for (Long id : ids) {
+            Author author = data.authors.remove(id);
+            if (author != null && author.getBooks() != null) {
+                author.getBooks().stream().map(Book::getId).forEach(data.books::remove);
+            }
+        }
     }
 
 }
@@ -2,98 +2,224 @@ package fr.uga.l3miage.library.service.mock;
 
 import fr.uga.l3miage.library.data.domain.Author;
 import fr.uga.l3miage.library.data.domain.Book;
-import fr.uga.l3miage.library.service.AuthorService;
+import fr.uga.l3miage.library.data.repo.BookFields;
+import fr.uga.l3miage.library.data.repo.Keyset;
+import fr.uga.l3miage.library.service.BookImport;
 import fr.uga.l3miage.library.service.BookService;
 import fr.uga.l3miage.library.service.EntityNotFoundException;
+import fr.uga.l3miage.library.service.Facet;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Component
 public class BookServiceMockImpl implements BookService {
 
-    private final AuthorService authorService;
+    private static final int MAX_FACET_VALUES = 20;
+    private static final Pattern NOT_WORD = Pattern.compile("[^\\p{Alnum}]+");
+
+    private final MockData data;
 
     @Autowired
-    public BookServiceMockImpl(AuthorService authorService) {
-        this.authorService = authorService;
+    public BookServiceMockImpl(MockData data) {
+        this.data = data;
     }
 
     @Override
     public Book save(Long authorId, Book book) throws EntityNotFoundException {
-        book.setId(MockData.getNextId(Book.class));
-        doSave(book);
-
-        Author author = bind(authorId, book);
-
-        authorService.update(author);
+        Author author = data.getAuthor(authorId);
+        book.setId(data.books.nextId());
+        data.putBook(book);
+        data.link(author, book);
         return book;
     }
 
+    @Override
+    public List<Book> saveAll(List<BookImport> imports) {
+        List<Book> results = new ArrayList<>(imports.size());
+        for (BookImport item : imports) {
+            if (data.authors.containsAll(item.authorIds())) {
+                Book book = item.book();
+                book.setId(data.books.nextId());
+                data.putBook(book);
+                for (Long authorId : item.authorIds()) {
+                    data.link(data.authors.get(authorId), book);
+                }
+                results.add(book);
+            } else {
+                results.add(null);
+            }
+        }
+        return results;
+    }
+
 
     @Override
     public Book get(Long id) throws EntityNotFoundException {
-        return Optional.ofNullable(MockData.books.get(id))
-                .orElseThrow(() -> new EntityNotFoundException("Cannot find book with id: " + id));
+        return data.getBook(id);
+    }
+
+    @Override
+    public Book getByIsbn(long isbn) throws EntityNotFoundException {
+        return data.books.values().stream()
+                .filter(book -> book.getIsbn() == isbn)
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find book with isbn: " + isbn));
     }
 
     @Override
     public Collection<Book> list() {
-        return MockData.books.values().stream().toList();
+        return List.copyOf(data.books.values());
+    }
+
+    @Override
+    public Collection<Book> list(Sort.Order order, Keyset after, int limit) {
+        return data.books.page(order, after, limit);
+    }
+
+    @Override
+    public Collection<BookFields> list(Collection<String> fields, Sort.Order order, Keyset after, int limit) {
+        List<String> selected = BookFields.select(fields, order);
+        return data.books.page(order, after, limit).stream()
+                .map(entity -> BookFields.of(entity, selected))
+                .toList();
+    }
+
+    @Override
+    public long version(Long id) throws EntityNotFoundException {
+        return get(id).getVersion();
     }
 
     @Override
     public Book update(Book book) throws EntityNotFoundException {
         get(book.getId());
-        doSave(book);
-        return MockData.books.get(book.getId());
+        return data.books.update(book.getId(), stored -> {
+            MockData.checkVersion(Book.class, book.getId(), stored.getVersion(), book.getVersion());
+            stored.setTitle(book.getTitle());
+            stored.setIsbn(book.getIsbn());
+            stored.setPublisher(book.getPublisher());
+            stored.setYear(book.getYear());
+            stored.setLanguage(book.getLanguage());
+            stored.setVersion(stored.getVersion() + 1);
+            return stored;
+        });
     }
 
     public Book addAuthor(Long bookId, Long authorId) throws EntityNotFoundException {
         var book = get(bookId);
-        bind(authorId, book);
-        return book;
+        data.link(data.getAuthor(authorId), book);
+        return data.books.update(bookId, b -> {
+            b.setVersion(b.getVersion() + 1);
+            return b;
+        });
     }
 
     @Override
     public void delete(Long id) throws EntityNotFoundException {
         get(id);
-        MockData.books.remove(id);
+        data.books.remove(id);
     }
 
     @Override
     public Collection<Book> findByTitle(String title) {
-        return filterBooks(MockData.books.values(), title);
+        return data.books.containing(title);
     }
 
+    /**
+     * Stand-in for the full-text index: every word must be one of the words of the title, of an author name or of
+     * the publisher, which weigh 3, 2 and 1.
+     */
     @Override
-    public Collection<Book> getByAuthor(Long authorId) throws EntityNotFoundException {
-        return AuthorServiceMockImpl.doGet(authorId).getBooks();
+    public List<Book> search(String query, int limit) {
+        List<String> words = words(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        return data.books.values().stream()
+                .map(book -> Map.entry(book, score(book, words)))
+                .filter(scored -> scored.getValue() > 0)
+                .sorted(Map.Entry.<Book, Integer>comparingByValue().reversed()
+                        .thenComparing(scored -> scored.getKey().getId()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
     }
 
-    @Override
-    public Collection<Book> findByAuthor(Long authorId, String title) throws EntityNotFoundException {
-        AuthorServiceMockImpl.doGet(authorId);
-        return filterBooks(MockData.authors.get(authorId).getBooks(), title);
+    private static int score(Book book, List<String> words) {
+        List<String> title = words(book.getTitle());
+        List<String> publisher = words(book.getPublisher());
+        List<String> authors = Optional.ofNullable(book.getAuthors()).orElse(Set.of()).stream()
+                .flatMap(author -> words(author.getFullName()).stream())
+                .toList();
+        int score = 0;
+        for (String word : words) {
+            int weight = (title.contains(word) ? 3 : 0) + (authors.contains(word) ? 2 : 0) + (publisher.contains(word) ? 1 : 0);
+            if (weight == 0) {
+                return 0;
+            }
+            score += weight;
+        }
+        return score;
     }
 
+    private static List<String> words(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(NOT_WORD.split(MockTable.fold(text)))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
 
-    private Author bind(Long authorId, Book book) throws EntityNotFoundException {
-        Author author = authorService.get(authorId);
-        author.addBook(book);
-        book.addAuthor(author);
-        return author;
+    @Override
+    public List<Facet> facets(Collection<String> names, String titlePart) {
+        Facet.requireKnown(names);
+        Collection<Book> books = titlePart == null ? data.books.values() : data.books.containing(titlePart);
+        List<Facet> facets = new ArrayList<>(names.size());
+        for (String name : names) {
+            int column = Facet.NAMES.indexOf(name);
+            Map<String, Long> counts = books.stream()
+                    .map(book -> Facet.valuesOf(book.getLanguage(), book.getYear(), book.getPublisher())[column])
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            facets.add(new Facet(name, counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .limit(MAX_FACET_VALUES)
+                    .map(count -> new Facet.Count(count.getKey(), count.getValue()))
+                    .toList()));
+        }
+        return facets;
+    }
+
+    @Override
+    public Collection<Book> getByAuthor(Long authorId) throws EntityNotFoundException {
+        return data.getAuthor(authorId).getBooks();
     }
 
-    private static void doSave(Book book) {
-        MockData.books.put(book.getId(), book);
+    @Override
+    public Collection<Book> getByAuthor(Long authorId, Sort.Order order, Keyset after, int limit) throws EntityNotFoundException {
+        Collection<Book> books = Optional.ofNullable(data.getAuthor(authorId).getBooks()).orElse(Set.of());
+        return MockData.page(books, "title", Book::getTitle, Book::getId, order, after, limit);
     }
 
-    private static Collection<Book> filterBooks(Collection<Book> books, String title) {
-        return books.stream()
-                .filter(book -> book.getTitle().toLowerCase().contains(title.toLowerCase()))
+    @Override
+    public Collection<Book> findByAuthor(Long authorId, String title) throws EntityNotFoundException {
+        String folded = MockTable.fold(title);
+        return data.getAuthor(authorId).getBooks()
+                .stream()
+                .filter(book -> MockTable.fold(book.getTitle()).contains(folded))
                 .toList();
     }
 
@@ -0,0 +1,37 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.domain.Borrow;
+import fr.uga.l3miage.library.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+@Component
+public class ExportServiceMockImpl implements ExportService {
+
+    private final MockData data;
+
+    @Autowired
+    public ExportServiceMockImpl(MockData data) {
+        this.data = data;
+    }
+
+    @Override
+    public void books(Consumer<Book> action) {
+        data.books.values().forEach(action);
+    }
+
+    @Override
+    public void authors(Consumer<Author> action) {
+        data.authors.values().forEach(action);
+    }
+
+    @Override
+    public void borrows(Consumer<Borrow> action) {
+        // borrows are not mocked
+    }
+
+}
@@ -2,31 +2,31 @@ package fr.uga.l3miage.library.service.mock;
 
 import fr.uga.l3miage.library.data.domain.Author;
 import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.repo.Keyset;
+import fr.uga.l3miage.library.service.EntityNotFoundException;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
+/**
+ * In memory storage shared by the mock services: one concurrent {@link MockTable} per entity, safe to use from any
+ * number of threads.
+ */
 @Component
 public class MockData {
-    static Map<Long, Author> authors = new HashMap<>();
-    static Map<Long, Book> books = new HashMap<>();
-    private static long nextBookId;
-    private static long nextAuthorId;
 
-    private MockData() {
-        // to hide the public one
-    }
-
-    public static <T> long getNextId(Class<T> c) {
-        if (c.equals(Book.class)) {
-            return nextBookId++;
-        } else {
-            return nextAuthorId++;
-        }
-    }
+    final MockTable<Author> authors = new MockTable<>("fullName", Author::getId, Author::getFullName, true);
+    final MockTable<Book> books = new MockTable<>("title", Book::getId, Book::getTitle, false);
 
-    static {
+    public MockData() {
 
         Author me = new Author();
         me.setId(-1L);
@@ -43,9 +43,90 @@ public class MockData {
         jpa.addAuthor(me);
         me.addBook(jpa);
 
-        authors.put(me.getId(), me);
-        books.put(jpa.getId(), jpa);
+        putAuthor(me);
+        putBook(jpa);
+
+    }
+
+    /**
+     * Stores an author, its books being kept in a concurrent set so that they can be read while a book is linked.
+     */
+    void putAuthor(Author author) {
+        author.setBooks(concurrent(author.getBooks()));
+        authors.put(author);
+    }
+
+    /**
+     * Stores a book, its authors being kept in a concurrent set so that they can be read while an author is linked.
+     */
+    void putBook(Book book) {
+        book.setAuthors(concurrent(book.getAuthors()));
+        books.put(book);
+    }
+
+    /**
+     * Links a book and an author, each side being changed with the other writes of its row excluded.
+     */
+    void link(Author author, Book book) {
+        books.update(book.getId(), b -> {
+            b.addAuthor(author);
+            return b;
+        });
+        authors.update(author.getId(), a -> {
+            a.addBook(book);
+            a.setVersion(a.getVersion() + 1);
+            return a;
+        });
+    }
 
+    Author getAuthor(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(authors.get(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find author with id: " + id));
+    }
+
+    Book getBook(Long id) throws EntityNotFoundException {
+        return Optional.ofNullable(books.get(id))
+                .orElseThrow(() -> new EntityNotFoundException("Cannot find book with id: " + id));
+    }
+
+    /**
+     * Fails like the optimistic locking of the JPA implementation if the stored row was changed since the given
+     * version was read.
+     */
+    static void checkVersion(Class<?> type, Long id, long stored, long expected) {
+        if (stored != expected) {
+            throw new ObjectOptimisticLockingFailureException(type, id);
+        }
+    }
+
+    private static <T> Set<T> concurrent(Set<T> set) {
+        Set<T> copy = ConcurrentHashMap.newKeySet();
+        if (set != null) {
+            copy.addAll(set);
+        }
+        return copy;
+    }
+
+    /**
+     * In memory equivalent of the keyset queries of the repositories, for small collections that are not indexed
+     * such as the books of an author.
+     */
+    static <E> List<E> page(Collection<E> entities, String keyProperty, Function<E, String> key, Function<E, Long> id,
+                            Sort.Order order, Keyset after, int limit) {
+        boolean byId = "id".equals(order.getProperty());
+        if (!byId && !keyProperty.equals(order.getProperty())) {
+            throw new IllegalArgumentException("cannot sort on " + order.getProperty());
+        }
+        Comparator<Keyset> comparator = byId
+                ? Comparator.comparing(Keyset::id)
+                : Comparator.comparing(Keyset::key).thenComparing(Keyset::id);
+        Comparator<Keyset> ordered = order.isAscending() ? comparator : comparator.reversed();
+        Function<E, Keyset> position = e -> new Keyset(byId ? null : key.apply(e), id.apply(e));
+        return entities.stream()
+                .filter(e -> after == null || ordered.compare(position.apply(e), after) > 0)
+                .sorted(Comparator.comparing(position, ordered))
+                .limit(limit)
+                .toList();
     }
 
 }
@@ -0,0 +1,267 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.library.data.repo.Keyset;
+import org.springframework.data.domain.Sort;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * Concurrent in memory table of entities with a single text key (author name, book title), and its secondary indexes.
+ * <p>
+ * Rows live in a {@link ConcurrentHashMap}; every write goes through {@link ConcurrentHashMap#compute} on the row id,
+ * so that the writes of one row, and the maintenance of its index entries, are serialized while the other rows stay
+ * available. Next to the rows are kept:
+ * <ul>
+ *     <li>the key of each row folded once (lower case, accents removed), scanned by substring searches, in parallel
+ *     above {@value #PARALLELISM_THRESHOLD} rows;</li>
+ *     <li>skip lists of the (key, id) and id positions, so that a page is a range scan;</li>
+ *     <li>optionally, a skip list of the folded key from the start of each of its words, so that a word prefix is a
+ *     range scan too.</li>
+ * </ul>
+ * Readers never lock, and may see a row before or after its index entries for the duration of a write.
+ */
+final class MockTable<E> {
+
+    static final long PARALLELISM_THRESHOLD = 10_000;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Comparator<Keyset> BY_KEY = Comparator
+            .comparing(Keyset::key, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Keyset::id);
+
+    private final String keyProperty;
+    private final Function<E, Long> id;
+    private final Function<E, String> key;
+    private final boolean words;
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final ConcurrentHashMap<Long, E> rows = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Indexed> indexed = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Keyset> byKey = new ConcurrentSkipListSet<>(BY_KEY);
+    private final ConcurrentSkipListSet<Long> byId = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> prefixes = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param keyProperty the name of the key property, the only sortable one besides {@code id}
+     * @param words       whether to index word prefixes of the key, see {@link #startingWith(String, int)}
+     */
+    MockTable(String keyProperty, Function<E, Long> id, Function<E, String> key, boolean words) {
+        this.keyProperty = keyProperty;
+        this.id = id;
+        this.key = key;
+        this.words = words;
+    }
+
+    long nextId() {
+        return nextId.getAndIncrement();
+    }
+
+    E get(Long id) {
+        return rows.get(id);
+    }
+
+    boolean containsAll(Collection<Long> ids) {
+        return ids.stream().allMatch(rows::containsKey);
+    }
+
+    Collection<E> values() {
+        return rows.values();
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    /**
+     * Inserts or replaces a row, re-indexing its key.
+     */
+    void put(E entity) {
+        Long entityId = id.apply(entity);
+        rows.compute(entityId, (k, previous) -> {
+            unindex(entityId);
+            index(entityId, key.apply(entity));
+            return entity;
+        });
+    }
+
+    /**
+     * Changes a row in place, with the other writes of that row excluded.
+     *
+     * @return the changed row, or null if there is none
+     */
+    E update(Long entityId, UnaryOperator<E> change) {
+        return rows.computeIfPresent(entityId, (k, entity) -> {
+            E changed = change.apply(entity);
+            Indexed previous = indexed.get(entityId);
+            String newKey = key.apply(changed);
+            if (previous == null || !Objects.equals(previous.key(), newKey)) {
+                unindex(entityId);
+                index(entityId, newKey);
+            }
+            return changed;
+        });
+    }
+
+    E remove(Long entityId) {
+        AtomicReference<E> removed = new AtomicReference<>();
+        rows.computeIfPresent(entityId, (k, entity) -> {
+            unindex(entityId);
+            removed.set(entity);
+            return null;
+        });
+        return removed.get();
+    }
+
+    /**
+     * Finds the rows whose key contains the given text, ignoring case and accents.
+     *
+     * @return the matching rows ordered by key
+     */
+    List<E> containing(String text) {
+        String folded = fold(text);
+        Set<Long> found = ConcurrentHashMap.newKeySet();
+        indexed.forEach(PARALLELISM_THRESHOLD, (entityId, entry) -> {
+            if (entry.folded().contains(folded)) {
+                found.add(entityId);
+            }
+        });
+        return found.stream()
+                .map(indexed::get)
+                .filter(Objects::nonNull)
+                .map(entry -> new Keyset(entry.key(), entry.id()))
+                .sorted(BY_KEY)
+                .map(position -> rows.get(position.id()))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Finds the rows having a word of their key starting with the given prefix, ignoring case and accents. Only
+     * available when word prefixes are indexed.
+     *
+     * @return at most {@code limit} rows, in alphabetical order of the matched words
+     */
+    List<E> startingWith(String prefix, int limit) {
+        String folded = fold(prefix);
+        Set<Long> found = new LinkedHashSet<>();
+        for (Set<Long> ids : prefixes.subMap(folded, true, folded + Character.MAX_VALUE, false).values()) {
+            for (Long entityId : new TreeSet<>(ids)) {
+                if (found.size() == limit) {
+                    return found.stream().map(rows::get).filter(Objects::nonNull).toList();
+                }
+                found.add(entityId);
+            }
+        }
+        return found.stream().map(rows::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * In memory equivalent of the keyset queries of the repositories: a range scan of the index of the order.
+     */
+    List<E> page(Sort.Order order, Keyset after, int limit) {
+        List<E> page = new ArrayList<>(limit);
+        if ("id".equals(order.getProperty())) {
+            NavigableSet<Long> ids = order.isAscending() ? byId : byId.descendingSet();
+            for (Long entityId : after == null ? ids : ids.tailSet(after.id(), false)) {
+                if (!add(page, entityId, limit)) {
+                    break;
+                }
+            }
+        } else if (keyProperty.equals(order.getProperty())) {
+            NavigableSet<Keyset> keys = order.isAscending() ? byKey : byKey.descendingSet();
+            for (Keyset position : after == null ? keys : keys.tailSet(after, false)) {
+                if (!add(page, position.id(), limit)) {
+                    break;
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("cannot sort on " + order.getProperty());
+        }
+        return page;
+    }
+
+    private boolean add(List<E> page, Long entityId, int limit) {
+        if (page.size() == limit) {
+            return false;
+        }
+        E entity = rows.get(entityId);
+        if (entity != null) {
+            page.add(entity);
+        }
+        return true;
+    }
+
+    private void index(Long entityId, String entityKey) {
+        Indexed entry = new Indexed(entityId, entityKey, entityKey == null ? "" : fold(entityKey));
+        indexed.put(entityId, entry);
+        byKey.add(new Keyset(entityKey, entityId));
+        byId.add(entityId);
+        if (words) {
+            for (String suffix : wordSuffixes(entry.folded())) {
+                prefixes.computeIfAbsent(suffix, s -> ConcurrentHashMap.newKeySet()).add(entityId);
+            }
+        }
+    }
+
+    private void unindex(Long entityId) {
+        Indexed entry = indexed.remove(entityId);
+        if (entry == null) {
+            return;
+        }
+        byKey.remove(new Keyset(entry.key(), entityId));
+        byId.remove(entityId);
+        if (words) {
+            for (String suffix : wordSuffixes(entry.folded())) {
+                prefixes.computeIfPresent(suffix, (s, ids) -> {
+                    ids.remove(entityId);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+    }
+
+    /**
+     * @return the folded key from the start of each of its words, so that "hug" and "victor h" both match
+     * "Victor Hugo"
+     */
+    private static List<String> wordSuffixes(String folded) {
+        List<String> suffixes = new ArrayList<>();
+        for (int i = 0; i < folded.length(); i++) {
+            if (i == 0 || folded.charAt(i - 1) == ' ') {
+                suffixes.add(folded.substring(i));
+            }
+        }
+        return suffixes;
+    }
+
+    static String fold(String text) {
+        String unaccented = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(unaccented.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The key of a row as it is indexed, so that its index entries can be removed even if the entity was changed.
+     */
+    private record Indexed(Long id, String key, String folded) {
+    }
+
+}
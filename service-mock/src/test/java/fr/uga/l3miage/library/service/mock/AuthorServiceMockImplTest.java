@@ -5,14 +5,18 @@ import fr.uga.l3miage.library.data.domain.Book;
 import fr.uga.l3miage.library.service.DeleteAuthorException;
 import fr.uga.l3miage.library.service.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.fail;
 
 
 class AuthorServiceMockImplTest {
 
-    AuthorServiceMockImpl authorServiceMock = new AuthorServiceMockImpl();
-    BookServiceMockImpl bookServiceMock = new BookServiceMockImpl(authorServiceMock);
+    MockData data = new MockData();
+    AuthorServiceMockImpl authorServiceMock = new AuthorServiceMockImpl(data);
+    BookServiceMockImpl bookServiceMock = new BookServiceMockImpl(data);
 
     @Test
     void delete() throws EntityNotFoundException {
@@ -49,4 +53,26 @@ class AuthorServiceMockImplTest {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateChecksVersion() throws EntityNotFoundException {
+
+        Author author = new Author();
+        author.setFullName("Foo");
+        author = authorServiceMock.save(author);
+        Book book = new Book();
+        book.setTitle("Book");
+        book = bookServiceMock.save(author.getId(), book);
+        long bookVersion = bookServiceMock.version(book.getId());
+
+        Author renamed = new Author();
+        renamed.setId(author.getId());
+        renamed.setFullName("Bar");
+        renamed.setVersion(authorServiceMock.version(author.getId()));
+        authorServiceMock.update(renamed);
+        assertThat(bookServiceMock.version(book.getId())).isEqualTo(bookVersion + 1);
+
+        assertThatThrownBy(() -> authorServiceMock.update(renamed))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package fr.uga.l3miage.library.service.mock;
+
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.repo.Keyset;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MockTableTest {
+
+    MockTable<Author> authors = new MockTable<>("fullName", Author::getId, Author::getFullName, true);
+
+    @Test
+    void searches() {
+        Author hugo = put("Victor Hugo");
+        Author zola = put("Émile Zola");
+        Author victor = put("Paul-Émile Victor");
+
+        assertThat(authors.containing("EMILE")).containsExactly(victor, zola);
+        assertThat(authors.containing("victor")).containsExactly(victor, hugo);
+        assertThat(authors.startingWith("vic", 10)).containsExactly(victor, hugo);
+        assertThat(authors.startingWith("zo", 10)).containsExactly(zola);
+        assertThat(authors.startingWith("vic", 1)).hasSize(1);
+
+        authors.update(hugo.getId(), a -> {
+            a.setFullName("Léon Hugo");
+            return a;
+        });
+        assertThat(authors.containing("victor")).containsExactly(victor);
+        assertThat(authors.startingWith("leo", 10)).containsExactly(hugo);
+
+        authors.remove(victor.getId());
+        assertThat(authors.containing("emile")).containsExactly(zola);
+        assertThat(authors.startingWith("vic", 10)).isEmpty();
+    }
+
+    @Test
+    void pages() {
+        Author c = put("C");
+        Author a = put("A");
+        Author b = put("B");
+
+        assertThat(authors.page(Sort.Order.asc("fullName"), null, 2)).containsExactly(a, b);
+        assertThat(authors.page(Sort.Order.asc("fullName"), new Keyset("B", b.getId()), 2)).containsExactly(c);
+        assertThat(authors.page(Sort.Order.desc("id"), null, 2)).containsExactly(b, a);
+        assertThat(authors.page(Sort.Order.asc("id"), new Keyset(null, c.getId()), 5)).containsExactly(a, b);
+    }
+
+    @Test
+    void concurrentWrites() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 10_000; i++) {
+            int n = i;
+            executor.execute(() -> {
+                Author author = put("Author " + n);
+                if (n % 2 == 0) {
+                    authors.remove(author.getId());
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(authors.size()).isEqualTo(5_000);
+        assertThat(authors.containing("author")).hasSize(5_000);
+        assertThat(authors.page(Sort.Order.asc("id"), null, 10_000)).hasSize(5_000);
+        assertThat(authors.startingWith("author", 10_000)).hasSize(5_000);
+    }
+
+    private Author put(String fullName) {
+        Author author = new Author();
+        author.setId(authors.nextId());
+        author.setFullName(fullName);
+        authors.put(author);
+        return author;
+    }
+}
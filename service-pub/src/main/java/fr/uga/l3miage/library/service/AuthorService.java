@@ -1,7 +1,10 @@
 package fr.uga.l3miage.library.service;
 
 import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.repo.AuthorFields;
+import fr.uga.l3miage.library.data.repo.Keyset;
 import fr.uga.l3miage.library.service.base.BaseService;
+import org.springframework.data.domain.Sort;
 
 import java.util.Collection;
 
@@ -15,6 +18,25 @@ public interface AuthorService extends BaseService<Author, Long> {
      */
     Author save(Author author);
 
+    /**
+     * Returns one page of authors, seeking after the last author of the previous page
+     *
+     * @param order sort order, on {@code fullName} or {@code id}
+     * @param after position of the last author of the previous page, null for the first page
+     * @param limit maximum number of authors
+     * @return at most {@code limit} authors
+     */
+    Collection<Author> list(Sort.Order order, Keyset after, int limit);
+
+    /**
+     * Same as {@link #list(Sort.Order, Keyset, int)}, but only reads the requested fields of the authors
+     *
+     * @param fields names of the {@link AuthorFields} components to read, the id and the sort key are always read
+     * @return at most {@code limit} partial authors
+     * @throws IllegalArgumentException if a field does not exist
+     */
+    Collection<AuthorFields> list(Collection<String> fields, Sort.Order order, Keyset after, int limit);
+
     /**
      * Search an author by name ignoring case
      *
@@ -23,6 +45,16 @@ public interface AuthorService extends BaseService<Author, Long> {
      */
     Collection<Author> searchByName(String name);
 
+    /**
+     * Suggest authors for autocompletion: authors having a word of their name starting with the prefix, ignoring
+     * case and accents
+     *
+     * @param prefix the beginning of a word of the name
+     * @param limit  maximum number of suggestions
+     * @return at most {@code limit} authors, with only their id and name set
+     */
+    Collection<Author> suggest(String prefix, int limit);
+
     /**
      * Deletes an author
      *
@@ -32,4 +64,13 @@ public interface AuthorService extends BaseService<Author, Long> {
      */
     void delete(Long id) throws EntityNotFoundException, DeleteAuthorException;
 
+    /**
+     * Deletes several authors and all of their books, all or nothing
+     *
+     * @param ids ids of the authors to delete
+     * @throws EntityNotFoundException when one of the authors does not exist
+     * @throws DeleteAuthorException   when one of the authors has books that are co-authored
+     */
+    void delete(Collection<Long> ids) throws EntityNotFoundException, DeleteAuthorException;
+
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package fr.uga.l3miage.library.service;
+
+import fr.uga.l3miage.library.data.domain.Book;
+
+import java.util.Collection;
+
+/**
+ * A new book to import along with the ids of its existing authors
+ *
+ * @param book      the book to save, without id
+ * @param authorIds ids of the authors of the book
+ */
+public record BookImport(Book book, Collection<Long> authorIds) {
+}
@@ -1,9 +1,13 @@
 package fr.uga.l3miage.library.service;
 
 import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.repo.BookFields;
+import fr.uga.l3miage.library.data.repo.Keyset;
 import fr.uga.l3miage.library.service.base.BaseService;
+import org.springframework.data.domain.Sort;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface BookService extends BaseService<Book, Long> {
 
@@ -18,6 +22,43 @@ public interface BookService extends BaseService<Book, Long> {
      */
     Book save(Long authorId, Book book) throws EntityNotFoundException;
 
+    /**
+     * Save books in bulk, each one bound to all of its authors, in a single transaction.
+     * A book referencing an author that does not exist is skipped, the others are still saved.
+     *
+     * @param imports the books to save with their authors ids
+     * @return for each import, in the same order, the book with an id set or null if it was skipped
+     */
+    List<Book> saveAll(List<BookImport> imports);
+
+    /**
+     * Returns one page of books, seeking after the last book of the previous page
+     *
+     * @param order sort order, on {@code title} or {@code id}
+     * @param after position of the last book of the previous page, null for the first page
+     * @param limit maximum number of books
+     * @return at most {@code limit} books
+     */
+    Collection<Book> list(Sort.Order order, Keyset after, int limit);
+
+    /**
+     * Same as {@link #list(Sort.Order, Keyset, int)}, but only reads the requested fields of the books
+     *
+     * @param fields names of the {@link BookFields} components to read, the id and the sort key are always read
+     * @return at most {@code limit} partial books
+     * @throws IllegalArgumentException if a field does not exist
+     */
+    Collection<BookFields> list(Collection<String> fields, Sort.Order order, Keyset after, int limit);
+
+    /**
+     * Get a book by ISBN
+     *
+     * @param isbn the ISBN of the book
+     * @return the book having this ISBN
+     * @throws EntityNotFoundException if no book has this ISBN
+     */
+    Book getByIsbn(long isbn) throws EntityNotFoundException;
+
     /**
      * Find books by title. Title can partial, will be matched in case-insensitive fashion
      *
@@ -26,6 +67,25 @@ public interface BookService extends BaseService<Book, Long> {
      */
     Collection<Book> findByTitle(String title);
 
+    /**
+     * Full-text search of books by title, publisher and author names, ignoring case and accents
+     *
+     * @param query the searched words, all of them must match
+     * @param limit maximum number of books
+     * @return at most {@code limit} books, the most relevant first
+     */
+    List<Book> search(String query, int limit);
+
+    /**
+     * Counts the books per value of the given attributes, among all books or the books whose title contains a text
+     *
+     * @param names     attributes among {@link Facet#NAMES}
+     * @param titlePart the title filter, as in {@link #findByTitle(String)}, null for all books
+     * @return one facet per name, in the same order
+     * @throws IllegalArgumentException if one of the names is not a facet
+     */
+    List<Facet> facets(Collection<String> names, String titlePart);
+
     /**
      * Get all books for a given author
      *
@@ -35,6 +95,18 @@ public interface BookService extends BaseService<Book, Long> {
      */
     Collection<Book> getByAuthor(Long id) throws EntityNotFoundException;
 
+    /**
+     * Get one page of the books of a given author
+     *
+     * @param id    the authors id
+     * @param order sort order, on {@code title} or {@code id}
+     * @param after position of the last book of the previous page, null for the first page
+     * @param limit maximum number of books
+     * @return at most {@code limit} books belonging to the author
+     * @throws EntityNotFoundException if the author do not exist
+     */
+    Collection<Book> getByAuthor(Long id, Sort.Order order, Keyset after, int limit) throws EntityNotFoundException;
+
     /**
      * Find books for a given author
      *
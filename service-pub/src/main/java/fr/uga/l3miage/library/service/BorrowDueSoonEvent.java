@@ -0,0 +1,12 @@
+package fr.uga.l3miage.library.service;
+
+import java.util.Date;
+
+/**
+ * Published once when a borrow in progress enters the "due soon" window before its requested return date
+ *
+ * @param borrowId        the borrow id
+ * @param requestedReturn the requested return date of the borrow
+ */
+public record BorrowDueSoonEvent(Long borrowId, Date requestedReturn) {
+}
@@ -0,0 +1,12 @@
+package fr.uga.l3miage.library.service;
+
+import java.util.Date;
+
+/**
+ * Published once when the requested return date of a borrow in progress has passed
+ *
+ * @param borrowId        the borrow id
+ * @param requestedReturn the requested return date of the borrow
+ */
+public record BorrowOverdueEvent(Long borrowId, Date requestedReturn) {
+}
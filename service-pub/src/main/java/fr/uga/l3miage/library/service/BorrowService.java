@@ -0,0 +1,64 @@
+package fr.uga.l3miage.library.service;
+
+import fr.uga.l3miage.library.data.domain.Borrow;
+import fr.uga.l3miage.library.data.domain.UserBorrowStats;
+
+import java.util.Set;
+
+/**
+ * Borrow lifecycle. Due dates of the borrows in progress are tracked in memory: {@link BorrowDueSoonEvent} and
+ * {@link BorrowOverdueEvent} are published as application events when they are crossed. Saved and deleted borrows
+ * are counted by the {@link LeaderboardService}.
+ */
+public interface BorrowService {
+
+    /**
+     * get a borrow
+     *
+     * @param id the borrow id
+     * @return the borrow
+     * @throws EntityNotFoundException when the borrow does not exist
+     */
+    Borrow get(Long id) throws EntityNotFoundException;
+
+    /**
+     * Saves a new borrow and starts tracking its requested return date
+     *
+     * @param borrow to be saved
+     * @return the borrow with an id
+     */
+    Borrow save(Borrow borrow);
+
+    /**
+     * Marks a borrow as finished and stops tracking it
+     *
+     * @param id the borrow id
+     * @return the finished borrow
+     * @throws EntityNotFoundException when the borrow does not exist
+     */
+    Borrow finish(Long id) throws EntityNotFoundException;
+
+    /**
+     * Deletes a borrow and stops tracking it
+     *
+     * @param id the borrow id
+     * @throws EntityNotFoundException when the borrow does not exist
+     */
+    void delete(Long id) throws EntityNotFoundException;
+
+    /**
+     * Returns the borrows in progress whose requested return date has passed, without querying the database
+     *
+     * @return ids of the overdue borrows, an unmodifiable view that follows the changes
+     */
+    Set<Long> overdue();
+
+    /**
+     * Returns the borrow counters of a user, maintained along with the borrows: a single primary key lookup
+     *
+     * @param userId the user id
+     * @return the counters, all zero if the user never borrowed
+     */
+    UserBorrowStats stats(String userId);
+
+}
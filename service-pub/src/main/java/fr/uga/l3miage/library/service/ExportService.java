@@ -0,0 +1,36 @@
+package fr.uga.l3miage.library.service;
+
+import fr.uga.l3miage.library.data.domain.Author;
+import fr.uga.l3miage.library.data.domain.Book;
+import fr.uga.l3miage.library.data.domain.Borrow;
+
+import java.util.function.Consumer;
+
+/**
+ * Full exports, for synchronisation jobs. Entities are handed one by one and must not be kept by the caller: they
+ * are detached as soon as the next chunk is loaded.
+ */
+public interface ExportService {
+
+    /**
+     * Visits every book, with its authors
+     *
+     * @param action called once per book
+     */
+    void books(Consumer<Book> action);
+
+    /**
+     * Visits every author
+     *
+     * @param action called once per author
+     */
+    void authors(Consumer<Author> action);
+
+    /**
+     * Visits every borrow, with its borrower, librarian and books
+     *
+     * @param action called once per borrow
+     */
+    void borrows(Consumer<Borrow> action);
+
+}
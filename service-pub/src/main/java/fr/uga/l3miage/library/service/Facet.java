@@ -0,0 +1,51 @@
+package fr.uga.l3miage.library.service;
+
+import fr.uga.l3miage.library.data.domain.Book;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Number of books per value of one of their attributes
+ *
+ * @param name   the attribute, one of {@link #NAMES}
+ * @param counts the values having books, by decreasing number of books
+ */
+public record Facet(String name, List<Count> counts) {
+
+    public static final String LANGUAGE = "language";
+    public static final String YEAR = "year";
+    public static final String PUBLISHER = "publisher";
+
+    public static final List<String> NAMES = List.of(LANGUAGE, YEAR, PUBLISHER);
+
+    /**
+     * @param value the value: lower case language, first year of the decade or publisher
+     * @param count number of books having it
+     */
+    public record Count(String value, long count) {
+    }
+
+    /**
+     * @return the values of a book for each of the {@link #NAMES}, in the same order, null when it has none
+     */
+    public static String[] valuesOf(Book.Language language, short year, String publisher) {
+        return new String[]{
+                language == null ? null : language.name().toLowerCase(Locale.ROOT),
+                Integer.toString(Math.floorDiv(year, 10) * 10),
+                publisher
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException if one of the names is not a facet
+     */
+    public static void requireKnown(Collection<String> names) {
+        for (String name : names) {
+            if (!NAMES.contains(name)) {
+                throw new IllegalArgumentException("unknown facet " + name);
+            }
+        }
+    }
+}
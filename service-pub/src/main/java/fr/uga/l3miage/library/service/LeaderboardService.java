@@ -0,0 +1,34 @@
+package fr.uga.l3miage.library.service;
+
+import java.util.List;
+
+/**
+ * Librarians having registered the most borrows, maintained in memory as borrows are saved and deleted
+ */
+public interface LeaderboardService {
+
+    /**
+     * Period over which borrows are counted, by their start date
+     */
+    enum Window {
+        /**
+         * since midnight
+         */
+        TODAY,
+        /**
+         * today and the 29 previous days
+         */
+        LAST_30_DAYS,
+        ALL_TIME
+    }
+
+    /**
+     * Returns the top of the leaderboard, without querying the database
+     *
+     * @param window the counted period
+     * @param limit  maximum number of librarians, capped by the configured size of the leaderboard
+     * @return at most {@code limit} librarians, the most active first, ties broken by id
+     */
+    List<LibrarianRanking> top(Window window, int limit);
+
+}
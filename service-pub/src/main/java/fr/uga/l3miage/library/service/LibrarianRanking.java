@@ -0,0 +1,10 @@
+package fr.uga.l3miage.library.service;
+
+/**
+ * A librarian and the number of borrows registered by them over a window of the leaderboard
+ *
+ * @param librarianId the librarian id
+ * @param borrows     number of borrows
+ */
+public record LibrarianRanking(String librarianId, long borrows) {
+}
@@ -2,7 +2,10 @@ package fr.uga.l3miage.library.service.base;
 
 import fr.uga.l3miage.library.service.EntityNotFoundException;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 
 /**
  * This interface to read/update persistent object.
@@ -22,6 +25,25 @@ public interface BaseService<O, I> {
      */
     O get(I id) throws EntityNotFoundException;
 
+    /**
+     * get several transient objects at once, one by one unless the implementation knows better
+     *
+     * @param ids the object identifiers, duplicates being ignored
+     * @return the objects in the order of their identifiers, and the identifiers that matched none
+     */
+    default Found<O, I> getAll(Collection<I> ids) {
+        List<I> distinct = List.copyOf(new LinkedHashSet<>(ids));
+        List<O> objects = new ArrayList<>(distinct.size());
+        for (I id : distinct) {
+            try {
+                objects.add(get(id));
+            } catch (EntityNotFoundException e) {
+                objects.add(null);
+            }
+        }
+        return Found.of(distinct, objects);
+    }
+
     /**
      * Returns all objects
      *
@@ -29,12 +51,22 @@ public interface BaseService<O, I> {
      */
     Collection<O> list();
 
+    /**
+     * get the version of an object, incremented on every update, without loading it
+     *
+     * @param id the object identifier
+     * @return the current version
+     * @throws fr.uga.l3miage.library.service.EntityNotFoundException when the requested entity does not exist
+     */
+    long version(I id) throws EntityNotFoundException;
+
     /**
      * updates the object and return it (in case the object was updated internally)
      *
-     * @param object the object to update
+     * @param object the object to update, with the version it was read at
      * @return the updated object
      * @throws fr.uga.l3miage.library.service.EntityNotFoundException when the entity do not already exists
+     * @throws org.springframework.dao.OptimisticLockingFailureException when the entity was updated since it was read
      */
     O update(O object) throws EntityNotFoundException;
 
@@ -0,0 +1,32 @@
+package fr.uga.l3miage.library.service.base;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Objects read by their identifiers, and the identifiers that matched none
+ *
+ * @param found   the objects, in the order of their identifiers
+ * @param missing the identifiers having no object, in the requested order
+ * @param <O>     the type of persistence object
+ * @param <I>     type of the identifier
+ */
+public record Found<O, I>(List<O> found, List<I> missing) {
+
+    /**
+     * @param ids     the requested identifiers
+     * @param objects the object of each identifier, at the same position, null when it does not exist
+     */
+    public static <O, I> Found<O, I> of(List<I> ids, List<O> objects) {
+        List<O> found = new ArrayList<>(ids.size());
+        List<I> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (objects.get(i) == null) {
+                missing.add(ids.get(i));
+            } else {
+                found.add(objects.get(i));
+            }
+        }
+        return new Found<>(found, missing);
+    }
+}